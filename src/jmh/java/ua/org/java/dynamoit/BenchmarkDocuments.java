@@ -0,0 +1,78 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generated items shared by the benchmarks, the same seed gives the same data on every run
+ */
+public final class BenchmarkDocuments {
+
+    private BenchmarkDocuments() {
+    }
+
+    /**
+     * @return items with strings, numbers, booleans, sets, lists and maps, a few attributes have mixed types
+     */
+    public static List<Item> items(int count) {
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item()
+                    .withPrimaryKey("id", "item-" + i, "version", i % 10)
+                    .withString("name", "name " + random.nextInt(1000))
+                    .withNumber("price", new BigDecimal(random.nextInt(100_000)).movePointLeft(2))
+                    .withBoolean("active", random.nextBoolean())
+                    .withStringSet("tags", Set.of("tag" + random.nextInt(5), "label" + random.nextInt(5)))
+                    .withList("history", List.of(random.nextInt(100), "created", Map.of("by", "user" + random.nextInt(20))))
+                    .withMap("address", Map.of("city", "city " + random.nextInt(50), "zip", String.valueOf(10_000 + random.nextInt(90_000))));
+            // attribute whose type changes between items
+            if (i % 3 == 0) {
+                item.withString("code", "C" + i);
+            } else {
+                item.withNumber("code", i);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * @return item whose json representation takes at least the given number of characters
+     */
+    public static Item itemOfSize(int size) {
+        List<Item> sample = items(1000);
+        List<Object> rows = new ArrayList<>();
+        int length = 0;
+        for (int i = 0; length < size; i++) {
+            Item row = sample.get(i % sample.size());
+            rows.add(row.asMap());
+            length += row.toJSON().length() + 1;
+        }
+        return new Item().withPrimaryKey("id", "large").withList("rows", rows);
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ScanFilter;
+import org.openjdk.jmh.annotations.*;
+import ua.org.java.dynamoit.BenchmarkDocuments;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type detection of the loaded items and parsing of the filter values, every value picks a different parser
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttributesBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Items {
+
+        @Param({"100", "1000"})
+        int count;
+
+        List<Item> items;
+
+        @Setup
+        public void setUp() {
+            items = BenchmarkDocuments.items(count);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Filters {
+
+        /**
+         * contains, begins with, exists, not equals, not contains, not exists, in and equals
+         */
+        @Param({"~John", "^John", "$", "!=John", "!~John", "!$", "John,Jane,Bob", "John"})
+        String value;
+    }
+
+    @Benchmark
+    public Map<String, Attributes.Type> defineAttributesTypes(Items items) {
+        return Attributes.defineAttributesTypes(items.items);
+    }
+
+    @Benchmark
+    public ScanFilter attributeValueToFilter(Filters filters) {
+        return Attributes.attributeValueToFilter("name", filters.value, Attributes.Type.STRING, ScanFilter::new);
+    }
+
+}
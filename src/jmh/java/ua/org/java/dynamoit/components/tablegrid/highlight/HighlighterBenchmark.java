@@ -0,0 +1,57 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid.highlight;
+
+import org.openjdk.jmh.annotations.*;
+import ua.org.java.dynamoit.BenchmarkDocuments;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matching of the grid cell values against a highlighting criteria, as done for every visible cell
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HighlighterBenchmark {
+
+    private Highlighter.Criteria criteria;
+    private List<String> values;
+
+    @Setup
+    public void setUp() {
+        criteria = new Highlighter.Criteria(" name 42 ", Highlighter.ValueComparator.EQ, "#000000", "#FFFFFF");
+        values = BenchmarkDocuments.items(1000).stream().map(item -> item.getString("name")).toList();
+    }
+
+    @Benchmark
+    public int match() {
+        int matched = 0;
+        for (String value : values) {
+            if (criteria.match(value)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.utils;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.ItemUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import ua.org.java.dynamoit.BenchmarkDocuments;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions between the document json, the raw DynamoDB json and items, and the export of items to a file
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonConversionBenchmark {
+
+    /**
+     * Size of the json document in kilobytes
+     */
+    @Param({"1", "1024"})
+    int sizeKb;
+
+    private Item item;
+    private String json;
+    private String rawJson;
+    private List<Item> items;
+
+    @Setup
+    public void setUp() throws IOException {
+        item = BenchmarkDocuments.itemOfSize(sizeKb * 1024);
+        json = item.toJSONPretty();
+        rawJson = new ObjectMapper().writeValueAsString(ItemUtils.toAttributeValues(item));
+        items = BenchmarkDocuments.items(Math.max(1, sizeKb));
+    }
+
+    @Benchmark
+    public Item rawJsonToItem() throws IOException {
+        return Utils.rawJsonToItem(rawJson);
+    }
+
+    @Benchmark
+    public String convertToRaw() {
+        return Utils.convertJsonDocument(json, true);
+    }
+
+    @Benchmark
+    public String convertFromRaw() {
+        return Utils.convertJsonDocument(rawJson, false);
+    }
+
+    @Benchmark
+    public String toJSON() {
+        return item.toJSON();
+    }
+
+    /**
+     * The same as the export to a file, but into memory
+     */
+    @Benchmark
+    public int export() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = new JsonFactory(new ObjectMapper()).createGenerator(writer)) {
+            generator.writeStartArray();
+            for (Item each : items) {
+                generator.writeRawValue(each.toJSON());
+            }
+            generator.writeEndArray();
+        }
+        return writer.getBuffer().length();
+    }
+
+}
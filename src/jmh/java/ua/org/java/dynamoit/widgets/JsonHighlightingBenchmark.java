@@ -0,0 +1,56 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.widgets;
+
+import org.fxmisc.richtext.model.StyleSpans;
+import org.openjdk.jmh.annotations.*;
+import ua.org.java.dynamoit.BenchmarkDocuments;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Syntax highlighting of the json shown in the item dialog, done after every edit of the text
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonHighlightingBenchmark {
+
+    /**
+     * Size of the json document in kilobytes
+     */
+    @Param({"1", "1024"})
+    int sizeKb;
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        json = BenchmarkDocuments.itemOfSize(sizeKb * 1024).toJSONPretty();
+    }
+
+    @Benchmark
+    public StyleSpans<Collection<String>> computeHighlighting() {
+        return JsonHighlighting.computeHighlighting(json);
+    }
+
+}
@@ -21,16 +21,22 @@ import io.reactivex.Observable;
 import io.reactivex.subjects.PublishSubject;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import ua.org.java.dynamoit.components.tablegrid.TableGridContext;
+import ua.org.java.dynamoit.jobs.Job;
 import ua.org.java.dynamoit.widgets.ExceptionDialog;
 
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 public class EventBus {
 
     private final SimpleIntegerProperty activityCount = new SimpleIntegerProperty();
     private final PublishSubject<TableGridContext> selectedTable = PublishSubject.create();
+    private final ObservableList<Job> jobs = FXCollections.observableArrayList();
     private final Executor uiExecutor;
 
     public EventBus(Executor uiExecutor) {
@@ -65,13 +71,42 @@ public class EventBus {
         startActivity();
         return completableFuture.whenComplete((o, throwable) -> {
             stopActivity();
-            if (throwable != null) {
+            if (throwable != null && !isCancellation(throwable)) {
                 throwable.printStackTrace();
                 CompletableFuture.runAsync(() -> new ExceptionDialog(errorMessage, errorDescription, throwable).show(), uiExecutor);
             }
         });
     }
 
+    /**
+     * Run the work as a job shown in the jobs panel, the work reports its progress to the given job
+     */
+    public <T> CompletableFuture<T> job(String name, Function<Job, CompletableFuture<T>> work, String errorMessage, String errorDescription) {
+        Job job = new Job(name);
+        runOnUi(() -> jobs.add(0, job));
+        CompletableFuture<T> future;
+        try {
+            future = work.apply(job);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        // the work notices the cancellation at its next checkpoint, the job is over at once
+        CompletableFuture<T> started = future;
+        job.onCancel(() -> started.cancel(false));
+        return activity(future.whenComplete((o, throwable) -> job.finish(throwable)), errorMessage, errorDescription);
+    }
+
+    /**
+     * Jobs from the most recent one, must be used on the ui thread
+     */
+    public ObservableList<Job> getJobs() {
+        return jobs;
+    }
+
+    public void clearFinishedJobs() {
+        jobs.removeIf(Job::isFinished);
+    }
+
     public void setSelectedTable(TableGridContext context) {
         this.selectedTable.onNext(context);
     }
@@ -79,4 +114,21 @@ public class EventBus {
     public Observable<TableGridContext> selectedTableProperty() {
         return selectedTable;
     }
+
+    private void runOnUi(Runnable runnable) {
+        if (Platform.isFxApplicationThread()) {
+            runnable.run();
+        } else {
+            CompletableFuture.runAsync(runnable, uiExecutor);
+        }
+    }
+
+    private static boolean isCancellation(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CancellationException) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
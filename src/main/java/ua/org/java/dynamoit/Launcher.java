@@ -17,14 +17,37 @@
 
 package ua.org.java.dynamoit;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
 import java.util.logging.LogManager;
 
 public class Launcher {
 
+    /**
+     * Level of the application loggers, INFO by default
+     */
+    public static final String LOG_LEVEL_PROPERTY = "dynamoit.log.level";
+
     public static void main(String[] args) {
         try {
-            LogManager.getLogManager().readConfiguration(Launcher.class.getClassLoader().getResourceAsStream("logging.properties"));
+            // FileHandler does not create the directory of its pattern
+            Files.createDirectories(Path.of(System.getProperty("user.home"), ".dynamoit", "logs"));
+            Properties properties = new Properties();
+            try (InputStream in = Launcher.class.getClassLoader().getResourceAsStream("logging.properties")) {
+                properties.load(in);
+            }
+            String level = System.getProperty(LOG_LEVEL_PROPERTY);
+            if (level != null) {
+                properties.setProperty("ua.org.java.dynamoit.level", level);
+            }
+            ByteArrayOutputStream config = new ByteArrayOutputStream();
+            properties.store(config, null);
+            LogManager.getLogManager().readConfiguration(new ByteArrayInputStream(config.toByteArray()));
         } catch (IOException e) {
             System.out.println("Logger has not been configured");
         }
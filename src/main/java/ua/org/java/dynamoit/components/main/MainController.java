@@ -26,29 +26,39 @@ import ua.org.java.dynamoit.components.tablegrid.TableGridComponent;
 import ua.org.java.dynamoit.components.tablegrid.TableGridContext;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.db.DynamoDBService;
+import ua.org.java.dynamoit.diagnostics.FlightRecording;
 import ua.org.java.dynamoit.model.profile.ProfileDetails;
 import ua.org.java.dynamoit.utils.FXExecutor;
+import ua.org.java.dynamoit.utils.TaskExecutors;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.ParseException;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 public class MainController {
 
+    private final DynamoDBService dynamoDBService;
     private final MainModel model;
     private final EventBus eventBus;
     private final HostServices hostServices;
     private final ThemeManager themeManager;
+    private final FlightRecording flightRecording;
     private Consumer<TableGridContext> selectedTableConsumer;
 
-    public MainController(DynamoDBService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager) {
+    public MainController(DynamoDBService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager, FlightRecording flightRecording) {
+        this.dynamoDBService = dynamoDBService;
         this.model = model;
         this.eventBus = eventBus;
         this.hostServices = hostServices;
         this.themeManager = themeManager;
+        this.flightRecording = flightRecording;
 
         eventBus.activity(
                 CompletableFuture
-                        .supplyAsync(dynamoDBService::getAvailableProfiles)
+                        .supplyAsync(dynamoDBService::getAvailableProfiles, TaskExecutors.io("profiles"))
                         .thenAcceptAsync(profiles -> profiles.forEach(model::addProfile), FXExecutor.getInstance()),
                 "AWS configuration settings has not been discovered",
                 "Please check that your aws cli is properly configured https://docs.aws.amazon.com/cli/latest/userguide/cli-configure-quickstart.html"
@@ -68,6 +78,7 @@ public class MainController {
                 .tableContext(tableContext)
                 .hostServices(hostServices)
                 .themeManager(themeManager)
+                .dynamoDBService(dynamoDBService)
                 .build();
     }
 
@@ -76,6 +87,7 @@ public class MainController {
                 .mainModel(model)
                 .eventBus(eventBus)
                 .profile(profile)
+                .dynamoDBService(dynamoDBService)
                 .build();
     }
 
@@ -86,4 +98,40 @@ public class MainController {
     public void addProfile(ProfileDetails profileDetails) {
         model.addProfile(profileDetails);
     }
+
+    public boolean isRecording() {
+        return flightRecording.isRecording();
+    }
+
+    public CompletableFuture<Void> onStartRecording() {
+        return eventBus.activity(
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        flightRecording.start();
+                    } catch (IOException | ParseException e) {
+                        throw new RuntimeException(e);
+                    }
+                }, TaskExecutors.io("recording")),
+                "Can't start the flight recording",
+                "The flight recorder is not available in this Java runtime"
+        );
+    }
+
+    /**
+     * Write the recording into the file and stop it
+     */
+    public CompletableFuture<Void> onSaveRecording(File file) {
+        return eventBus.activity(
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        flightRecording.dump(file.toPath());
+                        flightRecording.stop();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, TaskExecutors.io("recording")),
+                "Can't save the flight recording",
+                "The file " + file + " can't be written"
+        );
+    }
 }
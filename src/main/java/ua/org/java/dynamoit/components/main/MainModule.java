@@ -25,8 +25,12 @@ import javafx.scene.layout.Region;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.db.DynamoDBService;
+import ua.org.java.dynamoit.diagnostics.FlightRecording;
 import ua.org.java.dynamoit.utils.FXExecutor;
 import ua.org.java.dynamoit.widgets.ActivityIndicator;
+import ua.org.java.dynamoit.widgets.CostPopup;
+import ua.org.java.dynamoit.widgets.JobsPanel;
+import ua.org.java.dynamoit.widgets.MetricsPopup;
 
 import javax.inject.Singleton;
 
@@ -44,6 +48,21 @@ public class MainModule {
         return new ActivityIndicator(eventBus);
     }
 
+    @Provides
+    public static JobsPanel jobsPanel(EventBus eventBus){
+        return new JobsPanel(eventBus);
+    }
+
+    @Provides
+    public static CostPopup costPopup(DynamoDBService dynamoDBService){
+        return new CostPopup(dynamoDBService.getLedger());
+    }
+
+    @Provides
+    public static MetricsPopup metricsPopup(DynamoDBService dynamoDBService, EventBus eventBus){
+        return new MetricsPopup(dynamoDBService, eventBus);
+    }
+
     @Provides
     public static Region mainView(MainView mainView) {
         return mainView;
@@ -62,8 +81,14 @@ public class MainModule {
     }
 
     @Provides
-    public static MainController controller(DynamoDBService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager) {
-        return new MainController(dynamoDBService, model, eventBus, hostServices, themeManager);
+    @Singleton
+    public static FlightRecording flightRecording() {
+        return new FlightRecording();
+    }
+
+    @Provides
+    public static MainController controller(DynamoDBService dynamoDBService, MainModel model, EventBus eventBus, HostServices hostServices, ThemeManager themeManager, FlightRecording flightRecording) {
+        return new MainController(dynamoDBService, model, eventBus, hostServices, themeManager, flightRecording);
     }
 
 }
@@ -19,6 +19,7 @@ package ua.org.java.dynamoit.components.main;
 
 import io.reactivex.rxjavafx.observables.JavaFxObservable;
 import javafx.event.Event;
+import javafx.geometry.Bounds;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
@@ -28,6 +29,7 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Window;
 import ua.org.java.dynamoit.components.profileviewer.NewProfileDialog;
 import ua.org.java.dynamoit.components.profileviewer.ProfileComponent;
@@ -39,11 +41,16 @@ import ua.org.java.dynamoit.components.thememanager.ThemeManager;
 import ua.org.java.dynamoit.utils.DX;
 import ua.org.java.dynamoit.utils.HighlightColors;
 import ua.org.java.dynamoit.widgets.ActivityIndicator;
+import ua.org.java.dynamoit.widgets.CostPopup;
+import ua.org.java.dynamoit.widgets.JobsPanel;
+import ua.org.java.dynamoit.widgets.MetricsPopup;
 
 import javax.inject.Inject;
+import java.io.File;
 import java.util.*;
 
 import static atlantafx.base.theme.Styles.BUTTON_ICON;
+import static javafx.beans.binding.Bindings.concat;
 
 public class MainView extends VBox {
 
@@ -58,7 +65,7 @@ public class MainView extends VBox {
     private double dividerPosition = 0.35;
 
     @Inject
-    public MainView(MainModel mainModel, MainController controller, ActivityIndicator activityIndicator, ThemeManager themeManager) {
+    public MainView(MainModel mainModel, MainController controller, ActivityIndicator activityIndicator, JobsPanel jobsPanel, MetricsPopup metricsPopup, CostPopup costPopup, ThemeManager themeManager) {
         this.mainModel = mainModel;
         this.controller = controller;
         this.controller.setSelectedTableConsumer(this::createAndOpenTab);
@@ -113,14 +120,65 @@ public class MainView extends VBox {
                     );
                 }),
 
+                jobsPanel,
+
                 DX.create(HBox::new, hBox -> {
                     hBox.setPadding(new Insets(3, 3, 3, 3));
                     hBox.setAlignment(Pos.CENTER);
+                    hBox.setSpacing(6);
                     hBox.setMinHeight(22);
                     hBox.getChildren().addAll(
                             DX.create(Pane::new, pane -> {
                                 HBox.setHgrow(pane, Priority.ALWAYS);
                             }),
+                            DX.create(ToggleButton::new, (ToggleButton button) -> {
+                                button.textProperty().bind(concat("Jobs (", jobsPanel.runningCountProperty(), ")"));
+                                button.setTooltip(new Tooltip("Show exports, imports and other background jobs"));
+                                jobsPanel.visibleProperty().bind(button.selectedProperty());
+                                jobsPanel.managedProperty().bind(jobsPanel.visibleProperty());
+                            }),
+                            DX.create(MenuButton::new, (MenuButton menuButton) -> {
+                                menuButton.setText("Recording");
+                                menuButton.setTooltip(new Tooltip("Java Flight Recorder: requests, page merges, slow ui tasks, GC"));
+                                menuButton.getItems().addAll(
+                                        DX.create(MenuItem::new, (MenuItem menu) -> {
+                                            menu.setText("Start recording");
+                                            menu.setOnAction(event -> controller.onStartRecording());
+                                        }),
+                                        DX.create(MenuItem::new, (MenuItem menu) -> {
+                                            menu.setText("Save recording...");
+                                            menu.setOnAction(event -> {
+                                                FileChooser fileChooser = new FileChooser();
+                                                fileChooser.setInitialFileName("dynamoit.jfr");
+                                                fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Flight recordings", "*.jfr"));
+                                                File file = fileChooser.showSaveDialog(getScene().getWindow());
+                                                if (file != null) {
+                                                    controller.onSaveRecording(file);
+                                                }
+                                            });
+                                        })
+                                );
+                                menuButton.setOnShowing(event -> {
+                                    menuButton.getItems().get(0).setDisable(controller.isRecording());
+                                    menuButton.getItems().get(1).setDisable(!controller.isRecording());
+                                });
+                            }),
+                            DX.create(Button::new, button -> {
+                                button.textProperty().bind(concat("Cost ", costPopup.sessionCostProperty()));
+                                button.setTooltip(new Tooltip("Show consumed capacity and its estimated cost by tables, tabs and jobs"));
+                                button.setOnAction(event -> {
+                                    Bounds bounds = button.localToScreen(button.getBoundsInLocal());
+                                    costPopup.show(button, bounds.getMaxX() - 700, bounds.getMinY() - 350);
+                                });
+                            }),
+                            DX.create(Button::new, button -> {
+                                button.setText("Metrics");
+                                button.setTooltip(new Tooltip("Show latency, errors and consumed capacity of requests"));
+                                button.setOnAction(event -> {
+                                    Bounds bounds = button.localToScreen(button.getBoundsInLocal());
+                                    metricsPopup.show(button, bounds.getMaxX() - 900, bounds.getMinY() - 350);
+                                });
+                            }),
                             activityIndicator
                     );
                 })
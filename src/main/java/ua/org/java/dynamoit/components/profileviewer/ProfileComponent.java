@@ -21,11 +21,11 @@ import dagger.BindsInstance;
 import dagger.Component;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.main.MainModel;
-import ua.org.java.dynamoit.db.DynamoDBModule;
+import ua.org.java.dynamoit.db.DynamoDBService;
 
 import javax.inject.Singleton;
 
-@Component(modules = {ProfileModule.class, DynamoDBModule.class})
+@Component(modules = ProfileModule.class)
 @Singleton
 public interface ProfileComponent {
 
@@ -39,6 +39,8 @@ public interface ProfileComponent {
         ProfileComponent.Builder profile(String profile);
         @BindsInstance
         ProfileComponent.Builder eventBus(EventBus eventBus);
+        @BindsInstance
+        ProfileComponent.Builder dynamoDBService(DynamoDBService dynamoDBService);
         ProfileComponent build();
     }
 
@@ -22,6 +22,7 @@ import ua.org.java.dynamoit.components.main.MainModel;
 import ua.org.java.dynamoit.components.tablegrid.TableGridContext;
 import ua.org.java.dynamoit.db.DynamoDBService;
 import ua.org.java.dynamoit.model.TableDef;
+import ua.org.java.dynamoit.model.profile.ProfileDetails;
 import ua.org.java.dynamoit.utils.FXExecutor;
 
 import javax.inject.Inject;
@@ -39,6 +40,7 @@ public class ProfileController {
         this.model = model;
         this.eventBus = eventBus;
 
+        this.dynamoDBService.warmUp(model.getProfileDetails());
         this.loadListOfTables();
     }
 
@@ -70,7 +72,12 @@ public class ProfileController {
     }
 
     public void onChangeRegion(String region) {
+        ProfileDetails previous = model.getProfileDetails().clone();
         this.model.setRegion(region);
+        if (!previous.equals(model.getProfileDetails())) {
+            this.dynamoDBService.release(previous);
+            this.dynamoDBService.warmUp(model.getProfileDetails());
+        }
         this.loadListOfTables();
     }
 }
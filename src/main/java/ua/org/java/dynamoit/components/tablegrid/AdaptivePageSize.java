@@ -0,0 +1,197 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.Page;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Tunes the number of items requested per page (the Limit) and the number of items and pages collected per ui batch.
+ * <p>
+ * Every received page reports its latency, number of items and consumed capacity. The limit grows while pages come
+ * faster than the latency target and shrinks when they are slower, but never asks for more than fits into one
+ * DynamoDB response. A ui batch never holds more bytes than the memory target.
+ * <p>
+ * The targets can be changed by the system properties {@value LATENCY_TARGET_PROPERTY} (milliseconds) and
+ * {@value MEMORY_TARGET_PROPERTY} (kilobytes).
+ */
+public class AdaptivePageSize {
+
+    public static final String LATENCY_TARGET_PROPERTY = "dynamoit.paging.latencyTargetMs";
+    public static final String MEMORY_TARGET_PROPERTY = "dynamoit.paging.memoryTargetKb";
+
+    /**
+     * Page size used until something is known about the table
+     */
+    public static final int INITIAL_SIZE = 100;
+
+    private static final int MIN_SIZE = 1;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final long MAX_RESPONSE_BYTES = 1024 * 1024;
+    /**
+     * One read capacity unit of an eventually consistent scan or query covers 8 KB
+     */
+    private static final int CAPACITY_UNIT_BYTES = 8 * 1024;
+    private static final double SMOOTHING = 0.3;
+    private static final double MAX_STEP = 2.0;
+
+    private final long latencyTargetMillis;
+    private final long memoryTargetBytes;
+
+    private double bytesPerScannedItem = Double.NaN;
+    private double bytesPerItem = Double.NaN;
+    private double pageLatencyMillis = Double.NaN;
+    private int pageLimit = INITIAL_SIZE;
+
+    public AdaptivePageSize() {
+        this(Long.getLong(LATENCY_TARGET_PROPERTY, 1000), Long.getLong(MEMORY_TARGET_PROPERTY, 8 * 1024) * 1024);
+    }
+
+    public AdaptivePageSize(long latencyTargetMillis, long memoryTargetBytes) {
+        this.latencyTargetMillis = latencyTargetMillis;
+        this.memoryTargetBytes = memoryTargetBytes;
+    }
+
+    /**
+     * @return value for the Limit parameter of the next request
+     */
+    public synchronized int getPageLimit() {
+        return pageLimit;
+    }
+
+    /**
+     * @return number of items that fit into one ui batch
+     */
+    public synchronized int getBatchSize() {
+        if (Double.isNaN(bytesPerItem)) {
+            return INITIAL_SIZE;
+        }
+        return clamp(memoryTargetBytes / bytesPerItem, MIN_SIZE, MAX_BATCH_SIZE);
+    }
+
+    /**
+     * @return number of pages that can be requested for one ui batch within the latency target
+     */
+    public synchronized int getPagesPerBatch() {
+        if (Double.isNaN(pageLatencyMillis)) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(1, (int) (latencyTargetMillis / Math.max(pageLatencyMillis, 1)));
+    }
+
+    /**
+     * Take into account the received page
+     *
+     * @param page          received page
+     * @param latencyMillis time spent to receive the page
+     */
+    public void record(Page<Item, ?> page, long latencyMillis) {
+        PageStats stats = PageStats.of(page);
+        long bytes = 0;
+        for (Item item : page) {
+            bytes += estimateSize(item);
+        }
+        record(stats.count(),
+                stats.scannedCount(),
+                bytes,
+                stats.capacityUnits() > 0 ? stats.capacityUnits() : null,
+                latencyMillis
+        );
+    }
+
+    synchronized void record(int count, int scannedCount, long bytes, Double capacityUnits, long latencyMillis) {
+        if (count > 0) {
+            bytesPerItem = smooth(bytesPerItem, (double) bytes / count);
+        }
+        if (scannedCount > 0) {
+            double scannedBytes = capacityUnits != null && capacityUnits > 0 ? capacityUnits * CAPACITY_UNIT_BYTES : bytes;
+            bytesPerScannedItem = smooth(bytesPerScannedItem, Math.max(scannedBytes / scannedCount, 1));
+        }
+        pageLatencyMillis = smooth(pageLatencyMillis, latencyMillis);
+
+        double step = Math.min(MAX_STEP, Math.max(1 / MAX_STEP, latencyTargetMillis / Math.max(pageLatencyMillis, 1)));
+        double limit = pageLimit * step;
+        if (!Double.isNaN(bytesPerScannedItem)) {
+            limit = Math.min(limit, MAX_RESPONSE_BYTES / bytesPerScannedItem);
+        }
+        if (!Double.isNaN(bytesPerItem)) {
+            limit = Math.min(limit, memoryTargetBytes / bytesPerItem);
+        }
+        pageLimit = clamp(limit, MIN_SIZE, MAX_PAGE_SIZE);
+    }
+
+    private static double smooth(double average, double value) {
+        return Double.isNaN(average) ? value : average + SMOOTHING * (value - average);
+    }
+
+    private static int clamp(double value, int min, int max) {
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Approximate size of the item following the DynamoDB rules: names plus values
+     */
+    public static long estimateSize(Item item) {
+        long size = 0;
+        for (Map.Entry<String, Object> entry : item.attributes()) {
+            size += entry.getKey().length() + estimateSize(entry.getValue());
+        }
+        return size;
+    }
+
+    private static long estimateSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof String s) {
+            return s.getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (value instanceof BigDecimal || value instanceof Number) {
+            return 21;
+        }
+        if (value instanceof byte[] bytes) {
+            return bytes.length;
+        }
+        if (value instanceof ByteBuffer buffer) {
+            return buffer.remaining();
+        }
+        if (value instanceof Map<?, ?> map) {
+            long size = 3;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                size += String.valueOf(entry.getKey()).length() + estimateSize(entry.getValue()) + 1;
+            }
+            return size;
+        }
+        if (value instanceof Collection<?> collection) {
+            long size = 3;
+            for (Object element : collection) {
+                size += estimateSize(element) + 1;
+            }
+            return size;
+        }
+        return String.valueOf(value).length();
+    }
+
+}
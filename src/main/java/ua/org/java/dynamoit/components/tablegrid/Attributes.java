@@ -23,14 +23,18 @@ import javafx.util.Pair;
 import ua.org.java.dynamoit.components.tablegrid.parser.*;
 import ua.org.java.dynamoit.utils.Utils;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public final class Attributes {
 
+    public static final String OR_PREFIX = "|";
+
     public enum Type {
         STRING, NUMBER, BOOLEAN
     }
@@ -40,23 +44,38 @@ public final class Attributes {
 
 
     public static Map<String, Attributes.Type> defineAttributesTypes(List<Item> itemList) {
-        Function<Object, Attributes.Type> mapper = value -> {
-            if (value != null) {
-                if (value instanceof Boolean) {
-                    return Attributes.Type.BOOLEAN;
-                }
-                if (value instanceof Number) {
-                    return Attributes.Type.NUMBER;
-                }
-            }
-            return Attributes.Type.STRING;
-        };
-
+        // the most frequent type wins, on a tie the enum order does
         return itemList.stream()
                 .flatMap(item ->
                         Utils.asStream(item.attributes())
-                                .map(entry -> new Pair<>(entry.getKey(), mapper.apply(entry.getValue()))))
-                .collect(Collectors.toMap(Pair::getKey, Pair::getValue, (attributeType, attributeType2) -> attributeType));
+                                .map(entry -> new Pair<>(entry.getKey(), typeOf(entry.getValue()))))
+                .collect(Collectors.groupingBy(Pair::getKey, Collectors.groupingBy(Pair::getValue, () -> new EnumMap<>(Type.class), Collectors.counting())))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> mostFrequent(entry.getValue())));
+    }
+
+    /**
+     * @return the most frequent type of the not null values
+     */
+    public static Type defineType(Stream<Object> values) {
+        Map<Type, Long> counts = values
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Attributes::typeOf, () -> new EnumMap<>(Type.class), Collectors.counting()));
+        return counts.isEmpty() ? Type.STRING : mostFrequent(counts);
+    }
+
+    private static Type typeOf(Object value) {
+        if (value instanceof Boolean) {
+            return Type.BOOLEAN;
+        }
+        if (value instanceof Number) {
+            return Type.NUMBER;
+        }
+        return Type.STRING;
+    }
+
+    private static Type mostFrequent(Map<Type, Long> counts) {
+        return counts.entrySet().stream().max(Map.Entry.comparingByValue()).orElseThrow().getKey();
     }
 
     public static Type fromDynamoDBType(String dynamoDBType) {
@@ -69,8 +88,20 @@ public final class Attributes {
         return Attributes.Type.STRING;
     }
 
+    /**
+     * Filters starting with {@value OR_PREFIX} are joined by OR, all other filters are joined by AND
+     */
+    public static boolean isOrFilter(String value) {
+        return value != null && value.trim().startsWith(OR_PREFIX);
+    }
+
+    public static String withoutOrPrefix(String value) {
+        return isOrFilter(value) ? value.trim().substring(OR_PREFIX.length()) : value;
+    }
+
     public static <T extends Filter<T>> T attributeValueToFilter(String attribute, String value, Type type, Function<String, T> filterProvider) {
         T filter = filterProvider.apply(attribute);
+        value = withoutOrPrefix(value);
 
         if (value == null || value.isBlank()) {
             return filter;
@@ -83,6 +114,7 @@ public final class Attributes {
                 new NotEqualsParser<>(value, type, filter),
                 new NotContainsParser<>(value, filter),
                 new NotExistsParser<>(value, filter),
+                new InParser<>(value, type, filter),
                 new EqualsParser<>(value, type, filter) // last parser
         )
                 .filter(BaseValueToFilterParser::matches)
@@ -38,6 +38,7 @@ import org.fxmisc.richtext.SelectionImpl;
 import ua.org.java.dynamoit.utils.DX;
 import ua.org.java.dynamoit.utils.FXExecutor;
 import ua.org.java.dynamoit.utils.ObservableListIterator;
+import ua.org.java.dynamoit.utils.TaskExecutors;
 import ua.org.java.dynamoit.utils.Utils;
 import ua.org.java.dynamoit.widgets.JsonEditor;
 
@@ -111,7 +112,7 @@ public class CompareDialog extends Dialog<Void> {
             return generator.generateDiffRows(
                     Arrays.asList(text1.split("\\R")),
                     Arrays.asList(text2.split("\\R")));
-        });
+        }, TaskExecutors.cpu("compare"));
 
         this.setOnShowing(event -> {
             diffFuture.thenAcceptAsync(rows -> {
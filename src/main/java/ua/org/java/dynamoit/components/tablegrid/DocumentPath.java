@@ -0,0 +1,130 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Path to a value inside of map and list attributes, e.g. {@code address.city} or {@code items[0].sku}
+ */
+public class DocumentPath {
+
+    /**
+     * Element of the path, either a map key or a list index
+     */
+    public record Element(String name, int index) {
+
+        public boolean isIndex() {
+            return name == null;
+        }
+    }
+
+    private final String path;
+    private final List<Element> elements;
+
+    private DocumentPath(String path, List<Element> elements) {
+        this.path = path;
+        this.elements = List.copyOf(elements);
+    }
+
+    /**
+     * Path of the top level attribute, the name is not parsed
+     */
+    public static DocumentPath of(String attribute) {
+        return new DocumentPath(attribute, List.of(new Element(attribute, -1)));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the path is malformed
+     */
+    public static DocumentPath parse(String path) {
+        List<Element> elements = new ArrayList<>();
+        int i = 0;
+        StringBuilder name = new StringBuilder();
+        while (i < path.length()) {
+            char c = path.charAt(i);
+            if (c == '.' || c == '[') {
+                if (!name.isEmpty()) {
+                    elements.add(new Element(name.toString(), -1));
+                    name.setLength(0);
+                } else if (c == '.' && (elements.isEmpty() || !elements.get(elements.size() - 1).isIndex())) {
+                    throw new IllegalArgumentException("Empty name in the path: " + path);
+                }
+                if (c == '[') {
+                    if (elements.isEmpty()) {
+                        throw new IllegalArgumentException("Path must start with a name: " + path);
+                    }
+                    int end = path.indexOf(']', i);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unclosed index in the path: " + path);
+                    }
+                    try {
+                        elements.add(new Element(null, Integer.parseUnsignedInt(path.substring(i + 1, end))));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Wrong index in the path: " + path, e);
+                    }
+                    i = end;
+                }
+            } else {
+                name.append(c);
+            }
+            i++;
+        }
+        if (!name.isEmpty()) {
+            elements.add(new Element(name.toString(), -1));
+        } else if (elements.isEmpty() || path.endsWith(".")) {
+            throw new IllegalArgumentException("Empty name in the path: " + path);
+        }
+        return new DocumentPath(path, elements);
+    }
+
+    public List<Element> getElements() {
+        return elements;
+    }
+
+    /**
+     * @return name of the top level attribute
+     */
+    public String getAttribute() {
+        return elements.get(0).name();
+    }
+
+    /**
+     * @return value of the path or null if the item has no such value
+     */
+    public Object resolve(Item item) {
+        Object value = item.get(getAttribute());
+        for (Element element : elements.subList(1, elements.size())) {
+            if (element.isIndex()) {
+                value = value instanceof List<?> list && element.index() < list.size() ? list.get(element.index()) : null;
+            } else {
+                value = value instanceof Map<?, ?> map ? map.get(element.name()) : null;
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
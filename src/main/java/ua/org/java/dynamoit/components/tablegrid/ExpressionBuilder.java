@@ -0,0 +1,118 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.RangeKeyCondition;
+import com.amazonaws.services.dynamodbv2.document.internal.Filter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Converts filters into condition expressions. Unlike legacy filters, expressions can refer to nested document paths.
+ * Names and values are replaced by placeholders collected into the name and the value maps.
+ */
+public class ExpressionBuilder {
+
+    private final Map<String, String> nameMap = new HashMap<>();
+    private final Map<String, Object> valueMap = new HashMap<>();
+
+    public String condition(DocumentPath path, Filter<?> filter) {
+        String name = path(path);
+        Object[] values = filter.getValues();
+        return switch (filter.getComparisonOperator()) {
+            case EQ -> name + " = " + value(values[0]);
+            case NE -> name + " <> " + value(values[0]);
+            case LE -> name + " <= " + value(values[0]);
+            case LT -> name + " < " + value(values[0]);
+            case GE -> name + " >= " + value(values[0]);
+            case GT -> name + " > " + value(values[0]);
+            case BETWEEN -> name + " BETWEEN " + value(values[0]) + " AND " + value(values[1]);
+            case IN -> name + " IN (" + Arrays.stream(values).map(this::value).collect(Collectors.joining(", ")) + ")";
+            case BEGINS_WITH -> "begins_with(" + name + ", " + value(values[0]) + ")";
+            case CONTAINS -> "contains(" + name + ", " + value(values[0]) + ")";
+            case NOT_CONTAINS -> "NOT contains(" + name + ", " + value(values[0]) + ")";
+            case NOT_NULL -> "attribute_exists(" + name + ")";
+            case NULL -> "attribute_not_exists(" + name + ")";
+        };
+    }
+
+    public String keyCondition(String hashName, Object hashValue, RangeKeyCondition rangeCondition) {
+        String condition = name(hashName) + " = " + value(hashValue);
+        if (rangeCondition == null) {
+            return condition;
+        }
+        String name = name(rangeCondition.getAttrName());
+        Object[] values = rangeCondition.getValues();
+        return condition + " AND " + switch (rangeCondition.getKeyCondition()) {
+            case EQ -> name + " = " + value(values[0]);
+            case LE -> name + " <= " + value(values[0]);
+            case LT -> name + " < " + value(values[0]);
+            case GE -> name + " >= " + value(values[0]);
+            case GT -> name + " > " + value(values[0]);
+            case BETWEEN -> name + " BETWEEN " + value(values[0]) + " AND " + value(values[1]);
+            case BEGINS_WITH -> "begins_with(" + name + ", " + value(values[0]) + ")";
+        };
+    }
+
+    public String path(DocumentPath path) {
+        StringBuilder builder = new StringBuilder();
+        for (DocumentPath.Element element : path.getElements()) {
+            if (element.isIndex()) {
+                builder.append('[').append(element.index()).append(']');
+            } else {
+                if (!builder.isEmpty()) {
+                    builder.append('.');
+                }
+                builder.append(name(element.name()));
+            }
+        }
+        return builder.toString();
+    }
+
+    private String name(String name) {
+        return nameMap.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(name))
+                .map(Map.Entry::getKey)
+                .findFirst()
+                .orElseGet(() -> {
+                    String placeholder = "#n" + nameMap.size();
+                    nameMap.put(placeholder, name);
+                    return placeholder;
+                });
+    }
+
+    private String value(Object value) {
+        String placeholder = ":v" + valueMap.size();
+        valueMap.put(placeholder, value);
+        return placeholder;
+    }
+
+    public Map<String, String> getNameMap() {
+        return nameMap;
+    }
+
+    /**
+     * @return values or null if there are no values, DynamoDB does not accept an empty map
+     */
+    public Map<String, Object> getValueMap() {
+        return valueMap.isEmpty() ? null : valueMap;
+    }
+}
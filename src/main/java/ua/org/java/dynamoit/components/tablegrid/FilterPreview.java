@@ -0,0 +1,72 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.Page;
+import com.amazonaws.services.dynamodbv2.document.QueryOutcome;
+import com.amazonaws.services.dynamodbv2.document.ScanOutcome;
+
+/**
+ * Result of a speculative count of items matched by the filters being typed
+ *
+ * @param scan         true if the table is scanned, false if it is queried
+ * @param count        number of matched items among the evaluated ones
+ * @param scannedCount number of evaluated items
+ * @param complete     true if all items have been evaluated
+ * @param indexName    queried index or null
+ * @param itemCount    approximate number of items of the table, 0 if unknown
+ */
+public record FilterPreview(boolean scan, int count, int scannedCount, boolean complete, String indexName, long itemCount) {
+
+    /**
+     * @param page first page of a scan or a query with Select COUNT
+     */
+    public static FilterPreview of(Page<Item, ?> page, String indexName, long itemCount) {
+        Object result = page.getLowLevelResult();
+        if (result instanceof ScanOutcome outcome) {
+            return new FilterPreview(true, orZero(outcome.getScanResult().getCount()), orZero(outcome.getScanResult().getScannedCount()),
+                    outcome.getScanResult().getLastEvaluatedKey() == null, indexName, itemCount);
+        }
+        QueryOutcome outcome = (QueryOutcome) result;
+        return new FilterPreview(false, orZero(outcome.getQueryResult().getCount()), orZero(outcome.getQueryResult().getScannedCount()),
+                outcome.getQueryResult().getLastEvaluatedKey() == null, indexName, itemCount);
+    }
+
+    /**
+     * A scan which has not reached the end is extrapolated to the whole table, the size of a queried partition is unknown
+     */
+    public String text() {
+        String matches;
+        if (complete) {
+            matches = String.format("%,d matches", count);
+        } else if (scan && itemCount > 0 && scannedCount > 0) {
+            matches = String.format("≈%,d matches", Math.round((double) count * Math.max(itemCount, scannedCount) / scannedCount));
+        } else {
+            matches = String.format("≥%,d matches", count);
+        }
+        if (indexName != null) {
+            return matches + " / uses index " + indexName;
+        }
+        return matches + (scan ? " / scan" : " / query");
+    }
+
+    private static int orZero(Integer value) {
+        return value != null ? value : 0;
+    }
+}
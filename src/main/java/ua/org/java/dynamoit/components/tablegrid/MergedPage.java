@@ -0,0 +1,149 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.Page;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import javafx.util.Pair;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * One page of several requests read side by side, e.g. queries of a list of hash keys or of OR filters.
+ * Every request contributes one page of its own and its last evaluated key is kept in the bookmark of the merged page
+ * under the index of the request, so the next merged page continues every request where it has stopped.
+ * Requests are started in order, a limited number at once, the first request which has not been started yet
+ * is kept in the bookmark under {@value #NEXT_REQUEST}.
+ */
+class MergedPage extends Page<Item, Map<String, AttributeValue>> {
+
+    static final String NEXT_REQUEST = "#next";
+
+    /**
+     * Reads one page of a request
+     */
+    @FunctionalInterface
+    interface Request {
+
+        /**
+         * @param startKey last evaluated key of the previous page, null to read the first page
+         * @return items of the page and its last evaluated key, null key if the request is over
+         */
+        Pair<List<Item>, Map<String, AttributeValue>> readPage(Map<String, AttributeValue> startKey);
+    }
+
+    /**
+     * Requests to read by one merged page
+     *
+     * @param startKeys   start keys by indexes of the requests, null key for requests starting from the beginning
+     * @param nextRequest the first request which is not started by this page
+     * @param requests    number of all requests
+     */
+    record Cursor(SortedMap<Integer, Map<String, AttributeValue>> startKeys, int nextRequest, int requests) {
+
+        /**
+         * @param bookmark    bookmark of the merged page, null for the first page
+         * @param maxRequests limit of requests read by one page
+         */
+        static Cursor of(Map<String, AttributeValue> bookmark, int requests, int maxRequests) {
+            SortedMap<Integer, Map<String, AttributeValue>> startKeys = new TreeMap<>();
+            int nextRequest = 0;
+            if (bookmark != null) {
+                for (Map.Entry<String, AttributeValue> entry : bookmark.entrySet()) {
+                    if (NEXT_REQUEST.equals(entry.getKey())) {
+                        nextRequest = Integer.parseInt(entry.getValue().getN());
+                    } else {
+                        startKeys.put(Integer.parseInt(entry.getKey()), entry.getValue().getM());
+                    }
+                }
+            }
+            while (nextRequest < requests && startKeys.size() < maxRequests) {
+                startKeys.put(nextRequest++, null);
+            }
+            return new Cursor(startKeys, nextRequest, requests);
+        }
+
+        /**
+         * @param lastKeys last evaluated keys of the read requests, a request without the key is over
+         * @return bookmark of the next merged page, null if all requests are over
+         */
+        Map<String, AttributeValue> nextBookmark(Map<Integer, Map<String, AttributeValue>> lastKeys) {
+            Map<String, AttributeValue> bookmark = new HashMap<>();
+            startKeys.keySet().forEach(request -> {
+                Map<String, AttributeValue> lastKey = lastKeys.get(request);
+                if (lastKey != null) {
+                    bookmark.put(String.valueOf(request), new AttributeValue().withM(lastKey));
+                }
+            });
+            if (bookmark.isEmpty() && nextRequest >= requests) {
+                return null;
+            }
+            bookmark.put(NEXT_REQUEST, new AttributeValue().withN(String.valueOf(nextRequest)));
+            return bookmark;
+        }
+    }
+
+    MergedPage(List<Item> items, Map<String, AttributeValue> bookmark) {
+        super(items, bookmark);
+    }
+
+    @Override
+    public boolean hasNextPage() {
+        return getLowLevelResult() != null;
+    }
+
+    @Override
+    public Page<Item, Map<String, AttributeValue>> nextPage() {
+        throw new NoSuchElementException("The next merged page is read by the bookmark");
+    }
+
+    /**
+     * @return pages of the request read one by one from the beginning to the end
+     */
+    static Supplier<Iterable<List<Item>>> allPages(Request request) {
+        return () -> () -> new Iterator<>() {
+            private Map<String, AttributeValue> startKey;
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return first || startKey != null;
+            }
+
+            @Override
+            public List<Item> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Pair<List<Item>, Map<String, AttributeValue>> page = request.readPage(startKey);
+                first = false;
+                startKey = page.getValue();
+                return page.getKey() == null ? Collections.emptyList() : page.getKey();
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import ua.org.java.dynamoit.jobs.Job;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Items of several page sources that are read concurrently and returned in the order of the sources.
+ * At most {@code concurrency} sources are read at the same time and every one of them buffers up to
+ * {@code bufferedPages} pages, a source waits while its buffer is full. So the memory depends on the page size
+ * only, not on the number of items.
+ * <p>
+ * The job checkpoint is passed for every page, sources stop reading when the job is paused, cancelled or finished.
+ * Items can be iterated only once.
+ */
+class OrderedPages implements Iterable<Item> {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final List<Supplier<Iterable<List<Item>>>> sources;
+    private final int concurrency;
+    private final int bufferedPages;
+    private final Executor executor;
+    private final Job job;
+
+    /**
+     * @param sources every source returns the pages of one sub-request, they are read lazily
+     */
+    OrderedPages(List<Supplier<Iterable<List<Item>>>> sources, int concurrency, int bufferedPages, Executor executor, Job job) {
+        this.sources = sources;
+        this.concurrency = Math.max(1, concurrency);
+        this.bufferedPages = Math.max(1, bufferedPages);
+        this.executor = executor;
+        this.job = job;
+    }
+
+    @Override
+    public Iterator<Item> iterator() {
+        return new Iterator<>() {
+            private final List<Reader> readers = new ArrayList<>();
+            private int sourceIndex;
+            private Iterator<Item> pageItems = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!pageItems.hasNext()) {
+                    if (sourceIndex == sources.size()) {
+                        return false;
+                    }
+                    while (readers.size() < Math.min(sources.size(), sourceIndex + concurrency)) {
+                        readers.add(new Reader(sources.get(readers.size())));
+                    }
+                    List<Item> page = readers.get(sourceIndex).take();
+                    if (page == null) {
+                        readers.set(sourceIndex, null);
+                        sourceIndex++;
+                    } else {
+                        pageItems = page.iterator();
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public Item next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return pageItems.next();
+            }
+        };
+    }
+
+    /**
+     * Reads the pages of one source into the bounded buffer, an empty page marks the end of the source
+     */
+    private class Reader {
+
+        private final BlockingQueue<List<Item>> buffer = new ArrayBlockingQueue<>(bufferedPages);
+        private final CompletableFuture<Void> future;
+
+        Reader(Supplier<Iterable<List<Item>>> source) {
+            future = CompletableFuture.runAsync(() -> {
+                for (List<Item> page : source.get()) {
+                    job.checkpoint();
+                    if (!page.isEmpty()) {
+                        put(page);
+                    }
+                }
+                put(List.of());
+            }, executor);
+        }
+
+        private void put(List<Item> page) {
+            try {
+                while (!buffer.offer(page, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    job.checkpoint();
+                    if (job.isFinished()) {
+                        throw new CancellationException(job.getName() + " is over");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while buffering pages", e);
+            }
+        }
+
+        /**
+         * @return the next page or null if the source is over
+         */
+        List<Item> take() {
+            try {
+                List<Item> page;
+                while ((page = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                    job.checkpoint();
+                    if (future.isCompletedExceptionally()) {
+                        future.join();
+                    }
+                }
+                return page.isEmpty() ? null : page;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for pages", e);
+            }
+        }
+    }
+}
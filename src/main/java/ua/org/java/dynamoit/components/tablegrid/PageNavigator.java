@@ -0,0 +1,210 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.*;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+import java.util.*;
+
+/**
+ * Keeps track of the pages shown in the grid.
+ * <p>
+ * Every page is bookmarked by the exclusive start key it was requested with, so any known page can be fetched again
+ * by a single request. The most recently visited pages are kept in a bounded cache and served without any request.
+ */
+public class PageNavigator {
+
+    /**
+     * Default number of pages kept in memory
+     */
+    public static final int DEFAULT_CACHE_SIZE = 10;
+
+    /**
+     * bookmarks.get(i) is the exclusive start key of the page i, null for the first page
+     */
+    private final List<Map<String, AttributeValue>> bookmarks = new ArrayList<>();
+    private final Map<Integer, List<Item>> cache;
+    private boolean lastPageReached;
+
+    private final SimpleIntegerProperty currentIndex = new SimpleIntegerProperty(-1);
+    private final SimpleBooleanProperty hasPrevious = new SimpleBooleanProperty();
+    private final SimpleBooleanProperty hasNext = new SimpleBooleanProperty();
+
+    public PageNavigator() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public PageNavigator(int cacheSize) {
+        this.cache = new LinkedHashMap<>(cacheSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<Item>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        reset();
+    }
+
+    /**
+     * Forget all bookmarks and cached pages, should be called when filters are changed
+     */
+    public void reset() {
+        bookmarks.clear();
+        bookmarks.add(null);
+        cache.clear();
+        lastPageReached = false;
+        currentIndex.set(-1);
+        updateProperties();
+    }
+
+    /**
+     * Register the loaded page and bookmark the following one
+     *
+     * @param index   page index
+     * @param items   items of the page
+     * @param nextKey last evaluated key of the page, null if there are no more items
+     */
+    public void record(int index, List<Item> items, Map<String, AttributeValue> nextKey) {
+        if (index >= bookmarks.size()) {
+            throw new IllegalArgumentException("Page " + index + " has not been bookmarked yet");
+        }
+        cache.put(index, List.copyOf(items));
+
+        if (nextKey == null) {
+            // everything after this page is outdated
+            truncateAfter(index);
+            lastPageReached = true;
+        } else if (index + 1 < bookmarks.size()) {
+            if (!nextKey.equals(bookmarks.get(index + 1))) {
+                // the following pages start elsewhere now
+                truncateAfter(index);
+                bookmarks.add(nextKey);
+                lastPageReached = false;
+            }
+        } else {
+            bookmarks.add(nextKey);
+            lastPageReached = false;
+        }
+        updateProperties();
+    }
+
+    /**
+     * Forget bookmarks and cached pages after the page
+     */
+    private void truncateAfter(int index) {
+        bookmarks.subList(index + 1, bookmarks.size()).clear();
+        cache.keySet().removeIf(page -> page > index);
+    }
+
+    public void setCurrentIndex(int index) {
+        this.currentIndex.set(index);
+        updateProperties();
+    }
+
+    public int getCurrentIndex() {
+        return currentIndex.get();
+    }
+
+    public SimpleIntegerProperty currentIndexProperty() {
+        return currentIndex;
+    }
+
+    public Optional<List<Item>> getCached(int index) {
+        return Optional.ofNullable(cache.get(index));
+    }
+
+    /**
+     * @return exclusive start key of the page or empty if the page is the first one
+     * @throws IllegalArgumentException if page has not been bookmarked yet
+     */
+    public Optional<Map<String, AttributeValue>> getBookmark(int index) {
+        if (!isBookmarked(index)) {
+            throw new IllegalArgumentException("Page " + index + " has not been bookmarked yet");
+        }
+        return Optional.ofNullable(bookmarks.get(index));
+    }
+
+    public boolean isBookmarked(int index) {
+        return index >= 0 && index < bookmarks.size();
+    }
+
+    /**
+     * @return index of the farthest page whose start key is known
+     */
+    public int getLastBookmarkedIndex() {
+        return bookmarks.size() - 1;
+    }
+
+    public boolean isLastPageReached() {
+        return lastPageReached;
+    }
+
+    public boolean hasNext() {
+        return hasNext.get();
+    }
+
+    public SimpleBooleanProperty hasNextProperty() {
+        return hasNext;
+    }
+
+    public boolean hasPrevious() {
+        return hasPrevious.get();
+    }
+
+    public SimpleBooleanProperty hasPreviousProperty() {
+        return hasPrevious;
+    }
+
+    private void updateProperties() {
+        int index = currentIndex.get();
+        hasPrevious.set(index > 0);
+        hasNext.set(index >= 0 && isBookmarked(index + 1));
+    }
+
+    /**
+     * @return last evaluated key of the low level result behind the page, null if there is no page
+     */
+    public static Map<String, AttributeValue> lastEvaluatedKey(Page<Item, ?> page) {
+        if (page == null) {
+            return null;
+        }
+        if (page instanceof MergedPage merged) {
+            return merged.getLowLevelResult();
+        }
+        Object result = page.getLowLevelResult();
+        if (result instanceof ScanOutcome outcome) {
+            return outcome.getScanResult().getLastEvaluatedKey();
+        }
+        if (result instanceof QueryOutcome outcome) {
+            return outcome.getQueryResult().getLastEvaluatedKey();
+        }
+        return null;
+    }
+
+    /**
+     * Convert the bookmark into the document api representation accepted by scan and query specs
+     */
+    public static KeyAttribute[] toKeyAttributes(Map<String, AttributeValue> key) {
+        return key.entrySet().stream()
+                .map(entry -> new KeyAttribute(entry.getKey(), ItemUtils.toSimpleValue(entry.getValue())))
+                .toArray(KeyAttribute[]::new);
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.Page;
+import com.amazonaws.services.dynamodbv2.document.QueryOutcome;
+import com.amazonaws.services.dynamodbv2.document.ScanOutcome;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+
+/**
+ * Counters reported by DynamoDB for one low level page
+ *
+ * @param scan          true if the page belongs to a scan, false for a query
+ * @param count         number of items matched the filters (Count)
+ * @param scannedCount  number of items evaluated before filtering (ScannedCount)
+ * @param capacityUnits consumed capacity units or 0 if not requested
+ */
+public record PageStats(boolean scan, int count, int scannedCount, double capacityUnits) {
+
+    public static PageStats of(Page<Item, ?> page) {
+        Object result = page.getLowLevelResult();
+        if (result instanceof ScanOutcome outcome) {
+            return new PageStats(true, page.size(), orDefault(outcome.getScanResult().getScannedCount(), page.size()), capacityUnits(outcome.getScanResult().getConsumedCapacity()));
+        }
+        if (result instanceof QueryOutcome outcome) {
+            return new PageStats(false, page.size(), orDefault(outcome.getQueryResult().getScannedCount(), page.size()), capacityUnits(outcome.getQueryResult().getConsumedCapacity()));
+        }
+        return new PageStats(false, page.size(), page.size(), 0);
+    }
+
+    private static int orDefault(Integer value, int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static double capacityUnits(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity != null && consumedCapacity.getCapacityUnits() != null ? consumedCapacity.getCapacityUnits() : 0;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Plans a random sample of the table. The table is split into so many scan segments that every segment holds about
+ * {@value ITEMS_PER_SEGMENT} items, then the first page of randomly chosen segments is read. Segments are spread over
+ * the whole key space, so the sample does not depend on where the plain scan starts.
+ * <p>
+ * The sample size can be changed by the system property {@value SAMPLE_SIZE_PROPERTY}.
+ */
+public class RandomSample {
+
+    public static final String SAMPLE_SIZE_PROPERTY = "dynamoit.sample.size";
+
+    public static final int DEFAULT_SAMPLE_SIZE = 500;
+    public static final int ITEMS_PER_SEGMENT = 10;
+    /**
+     * Maximum value of the TotalSegments parameter accepted by DynamoDB
+     */
+    public static final int MAX_TOTAL_SEGMENTS = 1_000_000;
+    /**
+     * Segments of a table whose item count is not known yet, DynamoDB updates the count every six hours only
+     */
+    public static final int UNKNOWN_COUNT_SEGMENTS = 100;
+    /**
+     * Each round asks for more segments than needed to make up for empty ones and for filtered out items
+     */
+    private static final int OVERSAMPLING = 2;
+    private static final int MAX_ROUNDS = 3;
+
+    private final int sampleSize;
+    private final int totalSegments;
+    private final Random random;
+    private final Set<Integer> visitedSegments = new HashSet<>();
+    private int rounds;
+
+    public RandomSample(Long itemCount) {
+        this(Integer.getInteger(SAMPLE_SIZE_PROPERTY, DEFAULT_SAMPLE_SIZE), itemCount, new Random());
+    }
+
+    public RandomSample(int sampleSize, Long itemCount, Random random) {
+        this.sampleSize = sampleSize;
+        this.totalSegments = totalSegments(itemCount);
+        this.random = random;
+    }
+
+    public int getSampleSize() {
+        return sampleSize;
+    }
+
+    public int getTotalSegments() {
+        return totalSegments;
+    }
+
+    /**
+     * Choose segments not visited yet for the next round
+     *
+     * @param collected number of items already in the sample
+     * @return segment numbers or empty list if the sample is complete or can not be extended
+     */
+    public List<Integer> nextSegments(int collected) {
+        int missing = sampleSize - collected;
+        int available = totalSegments - visitedSegments.size();
+        if (missing <= 0 || available <= 0 || rounds >= MAX_ROUNDS) {
+            return List.of();
+        }
+        rounds++;
+
+        int count = Math.min(available, (missing + ITEMS_PER_SEGMENT - 1) / ITEMS_PER_SEGMENT * OVERSAMPLING);
+        Set<Integer> segments = new HashSet<>();
+        while (segments.size() < count) {
+            int segment = random.nextInt(totalSegments);
+            if (visitedSegments.add(segment)) {
+                segments.add(segment);
+            }
+        }
+        return segments.stream().sorted().collect(Collectors.toList());
+    }
+
+    /**
+     * @param itemCount approximate number of items in the table, null if unknown
+     */
+    static int totalSegments(Long itemCount) {
+        if (itemCount == null || itemCount <= 0) {
+            return UNKNOWN_COUNT_SEGMENTS;
+        }
+        return (int) Math.min(MAX_TOTAL_SEGMENTS, Math.max(1, itemCount / ITEMS_PER_SEGMENT));
+    }
+}
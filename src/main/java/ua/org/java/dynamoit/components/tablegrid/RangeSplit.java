@@ -0,0 +1,161 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits the range key space of one partition into sub-ranges that can be queried concurrently by
+ * {@code between} key conditions. Boundaries are interpolated between the smallest and the largest range key
+ * and ordered the way DynamoDB compares keys: numbers by value, strings by UTF-8 bytes.
+ * <p>
+ * Both ends of {@code between} are inclusive, so items equal to the lower boundary of a sub-range
+ * belong to the previous one, see {@link #belongsToPrevious(Object, Object)}.
+ */
+public final class RangeSplit {
+
+    public static final String SPLITS_PROPERTY = "dynamoit.query.rangeSplits";
+    public static final int DEFAULT_SPLITS = 8;
+
+    /**
+     * Number of characters after the common prefix used to interpolate strings
+     */
+    private static final int STRING_DIGITS = 3;
+    private static final BigInteger STRING_BASE = BigInteger.valueOf(0x10000);
+    private static final MathContext NUMBER_PRECISION = new MathContext(38);
+
+    private RangeSplit() {
+    }
+
+    public static int splits() {
+        return Math.max(1, Integer.getInteger(SPLITS_PROPERTY, DEFAULT_SPLITS));
+    }
+
+    /**
+     * @param min   smallest range key of the partition
+     * @param max   largest range key of the partition
+     * @param parts desired number of sub-ranges
+     * @return ordered distinct boundaries starting with min and ending with max, sub-range i is
+     * [boundaries[i], boundaries[i + 1]]; empty if the keys can not be split
+     */
+    public static List<Object> boundaries(Object min, Object max, int parts) {
+        boolean supported = min instanceof BigDecimal && max instanceof BigDecimal || min instanceof String && max instanceof String;
+        if (parts < 2 || !supported || compare(min, max) >= 0) {
+            return List.of();
+        }
+        List<Object> points = new ArrayList<>();
+        points.add(min);
+        for (int i = 1; i < parts; i++) {
+            Object point = interpolate(min, max, i, parts);
+            // interpolation is done in the java order, so drop anything outside of the range in the DynamoDB order
+            if (point != null && compare(min, point) < 0 && compare(point, max) < 0) {
+                points.add(point);
+            }
+        }
+        points.add(max);
+
+        List<Object> result = new ArrayList<>();
+        points.stream()
+                .sorted(RangeSplit::compare)
+                .forEach(point -> {
+                    if (result.isEmpty() || compare(result.get(result.size() - 1), point) != 0) {
+                        result.add(point);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * @return true if the item with the range key found in a sub-range starting with lowerBoundary
+     * has been already returned by the previous sub-range
+     */
+    public static boolean belongsToPrevious(Object rangeKey, Object lowerBoundary) {
+        return rangeKey != null && compare(rangeKey, lowerBoundary) == 0;
+    }
+
+    private static Object interpolate(Object min, Object max, int i, int parts) {
+        if (min instanceof BigDecimal minNumber && max instanceof BigDecimal maxNumber) {
+            return interpolate(minNumber, maxNumber, i, parts);
+        }
+        if (min instanceof String minString && max instanceof String maxString) {
+            return interpolate(minString, maxString, i, parts);
+        }
+        return null;
+    }
+
+    private static BigDecimal interpolate(BigDecimal min, BigDecimal max, int i, int parts) {
+        BigDecimal delta = max.subtract(min);
+        if (min.stripTrailingZeros().scale() <= 0 && max.stripTrailingZeros().scale() <= 0) {
+            BigInteger step = delta.toBigInteger().multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(parts));
+            return new BigDecimal(min.toBigIntegerExact().add(step));
+        }
+        return min.add(delta.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(parts), NUMBER_PRECISION), NUMBER_PRECISION);
+    }
+
+    private static String interpolate(String min, String max, int i, int parts) {
+        int prefix = 0;
+        while (prefix < min.length() && prefix < max.length() && min.charAt(prefix) == max.charAt(prefix)) {
+            prefix++;
+        }
+        BigInteger low = toNumber(min, prefix);
+        BigInteger high = toNumber(max, prefix);
+        BigInteger point = low.add(high.subtract(low).multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(parts)));
+
+        char[] digits = new char[STRING_DIGITS];
+        for (int d = STRING_DIGITS - 1; d >= 0; d--) {
+            BigInteger[] divided = point.divideAndRemainder(STRING_BASE);
+            digits[d] = (char) divided[1].intValue();
+            point = divided[0];
+        }
+        int length = STRING_DIGITS;
+        while (length > 0 && digits[length - 1] == 0) {
+            length--;
+        }
+        StringBuilder builder = new StringBuilder(min.substring(0, prefix));
+        for (int d = 0; d < length; d++) {
+            // a lone surrogate can not be stored
+            builder.append(Character.isSurrogate(digits[d]) ? '\uE000' : digits[d]);
+        }
+        return builder.toString();
+    }
+
+    private static BigInteger toNumber(String value, int from) {
+        BigInteger result = BigInteger.ZERO;
+        for (int d = 0; d < STRING_DIGITS; d++) {
+            int index = from + d;
+            result = result.multiply(STRING_BASE).add(BigInteger.valueOf(index < value.length() ? value.charAt(index) : 0));
+        }
+        return result;
+    }
+
+    private static int compare(Object left, Object right) {
+        if (left instanceof BigDecimal leftNumber && right instanceof BigDecimal rightNumber) {
+            return leftNumber.compareTo(rightNumber);
+        }
+        if (left instanceof String leftString && right instanceof String rightString) {
+            return Arrays.compareUnsigned(leftString.getBytes(StandardCharsets.UTF_8), rightString.getBytes(StandardCharsets.UTF_8));
+        }
+        throw new IllegalArgumentException("Range keys can not be compared: " + left + ", " + right);
+    }
+}
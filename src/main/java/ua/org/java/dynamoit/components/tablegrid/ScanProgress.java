@@ -0,0 +1,140 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.components.tablegrid;
+
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+/**
+ * Live statistics of the running scan or query: items scanned by DynamoDB, items matched the filters,
+ * pages read and consumed read capacity units. Must be changed on the ui thread.
+ */
+public class ScanProgress {
+
+    private final SimpleLongProperty scannedCount = new SimpleLongProperty();
+    private final SimpleLongProperty matchedCount = new SimpleLongProperty();
+    private final SimpleIntegerProperty pagesRead = new SimpleIntegerProperty();
+    private final SimpleDoubleProperty consumedCapacity = new SimpleDoubleProperty();
+    private final SimpleBooleanProperty running = new SimpleBooleanProperty();
+    private final SimpleBooleanProperty scan = new SimpleBooleanProperty();
+    private final SimpleBooleanProperty parallel = new SimpleBooleanProperty();
+
+    private final StringBinding text = Bindings.createStringBinding(
+            () -> String.format("Scanned %,d | matched %,d | pages %,d | %,.1f RCU", scannedCount.get(), matchedCount.get(), pagesRead.get(), consumedCapacity.get()),
+            scannedCount, matchedCount, pagesRead, consumedCapacity
+    );
+
+    public void reset() {
+        scannedCount.set(0);
+        matchedCount.set(0);
+        pagesRead.set(0);
+        consumedCapacity.set(0);
+        scan.set(false);
+        parallel.set(false);
+    }
+
+    public void addPage(int scanned, int matched, double capacityUnits) {
+        scannedCount.set(scannedCount.get() + scanned);
+        matchedCount.set(matchedCount.get() + matched);
+        pagesRead.set(pagesRead.get() + 1);
+        consumedCapacity.set(consumedCapacity.get() + capacityUnits);
+    }
+
+    /**
+     * Capacity consumed beside the pages, e.g. by reading table items for index items
+     */
+    public void addCapacity(double capacityUnits) {
+        consumedCapacity.set(consumedCapacity.get() + capacityUnits);
+    }
+
+    public long getScannedCount() {
+        return scannedCount.get();
+    }
+
+    public SimpleLongProperty scannedCountProperty() {
+        return scannedCount;
+    }
+
+    public long getMatchedCount() {
+        return matchedCount.get();
+    }
+
+    public SimpleLongProperty matchedCountProperty() {
+        return matchedCount;
+    }
+
+    public int getPagesRead() {
+        return pagesRead.get();
+    }
+
+    public SimpleIntegerProperty pagesReadProperty() {
+        return pagesRead;
+    }
+
+    public double getConsumedCapacity() {
+        return consumedCapacity.get();
+    }
+
+    public SimpleDoubleProperty consumedCapacityProperty() {
+        return consumedCapacity;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public SimpleBooleanProperty runningProperty() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running.set(running);
+    }
+
+    public boolean isScan() {
+        return scan.get();
+    }
+
+    public SimpleBooleanProperty scanProperty() {
+        return scan;
+    }
+
+    public void setScan(boolean scan) {
+        this.scan.set(scan);
+    }
+
+    public boolean isParallel() {
+        return parallel.get();
+    }
+
+    public SimpleBooleanProperty parallelProperty() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel.set(parallel);
+    }
+
+    public StringBinding textProperty() {
+        return text;
+    }
+}
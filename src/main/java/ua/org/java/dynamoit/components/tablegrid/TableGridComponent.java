@@ -23,11 +23,11 @@ import javafx.application.HostServices;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.main.MainModel;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
-import ua.org.java.dynamoit.db.DynamoDBModule;
+import ua.org.java.dynamoit.db.DynamoDBService;
 
 import javax.inject.Singleton;
 
-@Component(modules = {TableGridModule.class, DynamoDBModule.class})
+@Component(modules = TableGridModule.class)
 @Singleton
 public interface TableGridComponent {
 
@@ -48,6 +48,8 @@ public interface TableGridComponent {
         Builder hostServices(HostServices hostServices);
         @BindsInstance
         Builder themeManager(ThemeManager themeManager);
+        @BindsInstance
+        Builder dynamoDBService(DynamoDBService dynamoDBService);
 
         TableGridComponent build();
     }
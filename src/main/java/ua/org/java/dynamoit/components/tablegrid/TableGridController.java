@@ -19,7 +19,8 @@ package ua.org.java.dynamoit.components.tablegrid;
 
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.document.*;
-import com.amazonaws.services.dynamodbv2.document.internal.PageBasedCollection;
+import com.amazonaws.services.dynamodbv2.document.internal.Filter;
+import com.amazonaws.services.dynamodbv2.document.internal.InternalUtils;
 import com.amazonaws.services.dynamodbv2.document.spec.QuerySpec;
 import com.amazonaws.services.dynamodbv2.document.spec.ScanSpec;
 import com.amazonaws.services.dynamodbv2.document.spec.UpdateItemSpec;
@@ -36,24 +37,42 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.util.Pair;
 import org.reactfx.EventStream;
 import ua.org.java.dynamoit.EventBus;
+import ua.org.java.dynamoit.db.AsyncDynamoDB;
+import ua.org.java.dynamoit.db.CapacityLedger;
 import ua.org.java.dynamoit.db.DynamoDBService;
 import ua.org.java.dynamoit.db.KeySchemaType;
+import ua.org.java.dynamoit.db.RequestPriority;
+import ua.org.java.dynamoit.db.UnprocessedItemsException;
+import ua.org.java.dynamoit.diagnostics.PageMergeEvent;
+import ua.org.java.dynamoit.jobs.Job;
 import ua.org.java.dynamoit.model.TableDef;
+import ua.org.java.dynamoit.utils.TaskExecutors;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.concurrent.CompletableFuture.runAsync;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
@@ -64,10 +83,18 @@ public class TableGridController {
 
     private static final Logger LOG = Logger.getLogger(TableGridController.class.getName());
 
-    /**
-     * Maximum number of items in one page
-     */
-    private static final int PAGE_SIZE = 100;
+    private static final int PARALLEL_SEGMENTS_MIN = 4;
+    private static final int PARALLEL_SEGMENTS_MAX = 16;
+    private static final long PARALLEL_SEGMENT_BYTES = 1024L * 1024 * 1024;
+    private static final int BATCH_GET_LIMIT = 100;
+    private static final long BATCH_GET_BACKOFF_MILLIS = 50;
+    private static final long BATCH_GET_MAX_BACKOFF_MILLIS = 1000;
+    private static final int BATCH_GET_ATTEMPTS = 10;
+    private static final int PREVIEW_LIMIT = 1000;
+    private static final int READ_UNIT_BYTES = 4 * 1024;
+    private static final int EXPORT_CONCURRENCY = 4;
+    private static final int EXPORT_BUFFERED_PAGES = 2;
+    private static final int MERGED_REQUESTS_PER_PAGE = 16;
 
     private final AmazonDynamoDB dbClient;
     private final Table table;
@@ -77,6 +104,12 @@ public class TableGridController {
     private final Executor uiExecutor;
     private final HostServices hostServices;
     private final DynamoDB documentClient;
+    private final AsyncDynamoDB asyncClient;
+    private final CapacityLedger ledger;
+    private final CapacityLedger.Account account;
+    private final AdaptivePageSize pageSize = new AdaptivePageSize();
+    private volatile Loading loading = new Loading();
+    private final AtomicInteger previewGeneration = new AtomicInteger();
 
     public TableGridController(TableGridContext context,
                                TableGridModel tableModel,
@@ -101,6 +134,9 @@ public class TableGridController {
 
         dbClient = dynamoDBService.getOrCreateDynamoDBClient(context.profileDetails());
         documentClient = dynamoDBService.getOrCreateDocumentClient(context.profileDetails());
+        asyncClient = dynamoDBService.getOrCreateAsyncClient(context.profileDetails());
+        ledger = dynamoDBService.getLedger();
+        account = ledger.open(CapacityLedger.Kind.TAB, context.profileDetails().getName() + "/" + context.tableName());
         table = documentClient.getTable(context.tableName());
     }
 
@@ -108,38 +144,127 @@ public class TableGridController {
         eventBus.activity(
                 supplyAsync(() -> {
                     if (tableModel.getOriginalTableDescription() == null) {
-                        return supplyAsync(() -> dbClient.describeTable(context.tableName()))
+                        return supplyAsync(() -> dbClient.describeTable(context.tableName()), io("describe"))
                                 .thenAcceptAsync(this::bindToModel, uiExecutor);
                     } else {
                         bindToModel(tableModel.getTableDef());
                         return CompletableFuture.completedFuture(Boolean.TRUE);
                     }
-                })
+                }, io("init"))
                         .thenCompose(__ -> __)
-                        .thenRun(this::applyContext)
-                        .thenCompose(__ -> queryPageItems())
-                        .thenAcceptAsync(this::bindToModel, uiExecutor)
+                        .thenApplyAsync(__ -> {
+                            applyContext();
+                            return startLoading(false);
+                        }, uiExecutor)
+                        .thenCompose(loading -> trackLoading(loading, queryPageItems()
+                                .thenAcceptAsync(pair -> bindToModel(loading, pair), uiExecutor)))
         );
     }
 
+    /**
+     * Scrolling past the last row appends the next page to the rows, the page buttons replace them instead
+     */
     public void onReachScrollEnd() {
-        if (tableModel.getCurrentPage().hasNextPage()) {
+        PageNavigator navigator = tableModel.getPageNavigator();
+        int nextIndex = navigator.getCurrentIndex() + 1;
+        if (navigator.isBookmarked(nextIndex) && !tableModel.getScanProgress().isRunning()) {
+            Loading loading = startLoading(false);
             eventBus.activity(
-                    supplyAsync(() -> tableModel.getCurrentPage().nextPage())
-                            .thenApply(TableGridController::iteratePage)
-                            .thenAcceptAsync(pair -> {
-                                tableModel.getTableDef().getAttributeTypesMap().putAll(defineAttributesTypes(pair.getKey()));
-                                tableModel.setCurrentPage(pair.getValue());
-                                tableModel.getRows().addAll(pair.getKey());
-                            }, uiExecutor)
+                    trackLoading(loading, loadPage(nextIndex, loading, tableModel.getRows()::addAll)
+                            .thenAcceptAsync(items -> {
+                                if (!loading.isCancelled()) {
+                                    navigator.setCurrentIndex(nextIndex);
+                                }
+                            }, uiExecutor))
             );
         }
     }
 
+    public void onPreviousPage() {
+        onGoToPage(tableModel.getPageNavigator().getCurrentIndex() - 1);
+    }
+
+    public void onNextPage() {
+        onGoToPage(tableModel.getPageNavigator().getCurrentIndex() + 1);
+    }
+
+    /**
+     * Replace rows by the page. Cached pages are shown immediately, bookmarked pages cost a single request,
+     * otherwise pages are walked from the last bookmark.
+     *
+     * @param index zero based page index
+     */
+    public void onGoToPage(int index) {
+        if (index < 0) {
+            return;
+        }
+        Loading loading = startLoading(false);
+        boolean[] firstBatch = {true};
+        Consumer<List<Item>> replaceRows = items -> {
+            if (firstBatch[0]) {
+                firstBatch[0] = false;
+                tableModel.getRows().setAll(items);
+            } else {
+                tableModel.getRows().addAll(items);
+            }
+        };
+        eventBus.activity(
+                trackLoading(loading, walkToPage(index, loading, replaceRows)
+                        .thenAcceptAsync(loadedIndex -> {
+                            if (!loading.isCancelled()) {
+                                tableModel.getPageNavigator().setCurrentIndex(loadedIndex);
+                            }
+                        }, uiExecutor))
+        );
+    }
+
     public CompletableFuture<Void> onRefreshData() {
         return eventBus.activity(
-                runAsync(() -> tableModel.getRows().clear(), uiExecutor)
-                        .thenComposeAsync(aVoid -> queryPageItems().thenAcceptAsync(this::bindToModel, uiExecutor))
+                supplyAsync(() -> {
+                    tableModel.getRows().clear();
+                    tableModel.getPageNavigator().reset();
+                    return startLoading(false);
+                }, uiExecutor)
+                        .thenCompose(loading -> trackLoading(loading, queryPageItems()
+                                .thenAcceptAsync(pair -> bindToModel(loading, pair), uiExecutor)))
+        );
+    }
+
+    /**
+     * Stop the running scan or query after the current page. Already received items stay in the grid
+     * and the rest can be requested by the next page.
+     */
+    public void onStopLoading() {
+        loading.stop();
+    }
+
+    /**
+     * Continue the running scan with parallel segments. The sequential scan is cancelled, the table is scanned again
+     * by several segments at once and items that are already in the grid are skipped. Shown rows become the only page.
+     */
+    public void onScanInParallel() {
+        if (!tableModel.getScanProgress().isScan()) {
+            return;
+        }
+        Loading loading = startLoading(true);
+        tableModel.getScanProgress().setParallel(true);
+
+        Set<Map<String, AttributeValue>> shownKeys = new HashSet<>();
+        tableModel.getRows().forEach(item -> shownKeys.add(primaryKey(item, hash(), range())));
+        Consumer<List<Item>> appendNewRows = items -> tableModel.getRows().addAll(
+                items.stream().filter(item -> shownKeys.add(primaryKey(item, hash(), range()))).toList()
+        );
+
+        eventBus.activity(
+                trackLoading(loading, scanInParallel(parallelSegments(), loading, appendNewRows)
+                        .thenRunAsync(() -> {
+                            if (!loading.isCancelled()) {
+                                PageNavigator navigator = tableModel.getPageNavigator();
+                                navigator.reset();
+                                navigator.record(0, tableModel.getRows(), null);
+                                navigator.setCurrentIndex(0);
+                            }
+                        }, uiExecutor))
         );
     }
 
@@ -176,106 +301,795 @@ public class TableGridController {
     }
 
     public void onDeleteItems(List<Item> items) {
-        eventBus.activity(
-                delete(items).thenRun(this::onRefreshData)
+        jobThenRefresh(String.format("Delete %,d items from %s", items.size(), context.tableName()),
+                job -> delete(items, job)
         );
     }
 
     public void onPatchItems(List<Item> items, String jsonPatch, boolean isRaw) {
-        eventBus.activity(
-                patchItems(items, jsonPatch, isRaw).thenRun(this::onRefreshData)
+        jobThenRefresh(String.format("Patch %,d items of %s", items.size(), context.tableName()),
+                job -> RequestPriority.BULK.call(() -> patchItems(items, jsonPatch, isRaw, job))
         );
     }
 
+    /**
+     * Count all items matched by the filters, the count replaces the estimated total. The count reads the same
+     * requests as the grid: a query of the partition split into range key sub-ranges, a query of every hash key
+     * of the list or a parallel scan. Filters combined by OR are not counted.
+     */
+    public void onCountItems() {
+        if (planOrQuery().isPresent() || tableModel.getOriginalTableDescription() == null) {
+            return;
+        }
+        Optional<QueryPlan> plan = planQuery();
+        job("Count items of " + context.tableName(),
+                job -> plan.map(queryPlan -> RequestPriority.BULK.call(() -> countByQueries(queryPlan, job))).orElseGet(() -> countByScan(job)),
+                "Can't count items",
+                null
+        ).thenAcceptAsync(count -> tableModel.getTableDef().setTotalCount(count), uiExecutor);
+    }
+
+    private CompletableFuture<Long> countByScan(Job job) {
+        ScanRequest request = toScanRequest(buildScanSpec(tableModel.getAttributeFilterMap(), null));
+        job.setTotal(Optional.ofNullable(tableModel.getOriginalTableDescription().getItemCount()).orElse(-1L));
+        return asyncClient.count(request, parallelSegments(), result -> {
+            job.addDone(result.getScannedCount());
+            if (result.getConsumedCapacity() != null && result.getConsumedCapacity().getCapacityUnits() != null) {
+                job.addCapacity(result.getConsumedCapacity().getCapacityUnits());
+            }
+            job.checkpoint();
+        });
+    }
+
+    private CompletableFuture<Long> countByQueries(QueryPlan plan, Job job) {
+        Map<String, SimpleStringProperty> filters = tableModel.getAttributeFilterMap();
+        if (plan.isMultiKey()) {
+            return countQueries(plan, plan.hashValues().stream()
+                    .map(hashValue -> buildQuerySpec(plan.hashName(), hashValue, plan.rangeName(), rangeKeyCondition(plan.rangeName(), filters), filters, null))
+                    .toList(), job);
+        } else if (plan.rangeName() == null || notBlankFilterValue(plan.rangeName())) {
+            return countQueries(plan, List.of(buildQuerySpec(plan.hashName(), plan.rangeName(), filters, null)), job);
+        }
+        return supplyAsync(() -> RangeSplit.boundaries(
+                probeRangeKey(plan, true),
+                probeRangeKey(plan, false),
+                RangeSplit.splits()
+        ), io("range-probe")).thenCompose(boundaries -> {
+            if (boundaries.isEmpty()) {
+                return countQueries(plan, List.of(buildQuerySpec(plan.hashName(), plan.rangeName(), filters, null)), job);
+            }
+            Object hashValue = keyValue(plan.hashName(), filters);
+            List<QuerySpec> subRanges = IntStream.range(0, boundaries.size() - 1)
+                    .mapToObj(i -> buildQuerySpec(plan.hashName(), hashValue, plan.rangeName(),
+                            new RangeKeyCondition(plan.rangeName()).between(boundaries.get(i), boundaries.get(i + 1)), filters, null))
+                    .toList();
+            // both ends of a sub-range are inclusive, items on the inner boundaries are counted twice
+            List<QuerySpec> innerBoundaries = IntStream.range(1, boundaries.size() - 1)
+                    .mapToObj(i -> buildQuerySpec(plan.hashName(), hashValue, plan.rangeName(),
+                            new RangeKeyCondition(plan.rangeName()).eq(boundaries.get(i)), filters, null))
+                    .toList();
+            return countQueries(plan, subRanges, job).thenCombine(countQueries(plan, innerBoundaries, job), (all, twice) -> all - twice);
+        });
+    }
+
+    /**
+     * Count items of the queries by at most {@value EXPORT_CONCURRENCY} queries at the same time
+     */
+    private CompletableFuture<Long> countQueries(QueryPlan plan, List<QuerySpec> querySpecs, Job job) {
+        int workers = Math.min(EXPORT_CONCURRENCY, querySpecs.size());
+        Executor executor = io("count");
+        List<CompletableFuture<Long>> counts = IntStream.range(0, workers)
+                .mapToObj(worker -> supplyAsync(() -> {
+                    long count = 0;
+                    for (int i = worker; i < querySpecs.size(); i += workers) {
+                        count += countQuery(plan, querySpecs.get(i), job);
+                    }
+                    return count;
+                }, executor))
+                .toList();
+        return CompletableFuture.allOf(counts.toArray(CompletableFuture[]::new))
+                .thenApply(v -> counts.stream().mapToLong(CompletableFuture::join).sum());
+    }
+
+    private long countQuery(QueryPlan plan, QuerySpec querySpec, Job job) {
+        querySpec.withSelect(Select.COUNT).withMaxPageSize(null);
+        LOG.fine(() -> String.format("Count %1s = %2s", table.getTableName(), logAsJson(querySpec)));
+        ItemCollection<QueryOutcome> collection = plan.index() == null ? table.query(querySpec) : plan.index().query(querySpec);
+        long count = 0;
+        for (Page<Item, QueryOutcome> page : collection.pages()) {
+            QueryResult result = page.getLowLevelResult().getQueryResult();
+            count += result.getCount();
+            job.addDone(result.getScannedCount());
+            if (result.getConsumedCapacity() != null && result.getConsumedCapacity().getCapacityUnits() != null) {
+                job.addCapacity(result.getConsumedCapacity().getCapacityUnits());
+            }
+            job.checkpoint();
+        }
+        return count;
+    }
+
+    /**
+     * @return read units a scan of the whole table is expected to consume, eventually consistent reads cost
+     * half a unit per {@value READ_UNIT_BYTES} bytes
+     */
+    public double estimateScanReadUnits() {
+        Long tableSize = Optional.ofNullable(tableModel.getOriginalTableDescription()).map(TableDescription::getTableSizeBytes).orElse(null);
+        return tableSize != null ? tableSize / (2.0 * READ_UNIT_BYTES) : 0;
+    }
+
+    /**
+     * @return read units the export is expected to consume, 0 if the filters are served by queries
+     */
+    public double estimateExportReadUnits() {
+        return planOrQuery().isPresent() || planQuery().isPresent() ? 0 : estimateScanReadUnits();
+    }
+
+    /**
+     * @return read units the count is expected to consume, 0 if the filters are served by queries
+     */
+    public double estimateCountReadUnits() {
+        return estimateExportReadUnits();
+    }
+
+    public CapacityLedger getLedger() {
+        return ledger;
+    }
+
     public void onClearFilters() {
         tableModel.getAttributeFilterMap().values().forEach(simpleStringProperty -> simpleStringProperty.set(null));
         onRefreshData();
     }
 
-    public void onSaveToFile(File file) {
+    /**
+     * Drop the filter hints and ignore the running preview, called on every change of a filter text
+     */
+    public void onCancelPreview() {
+        previewGeneration.incrementAndGet();
+        tableModel.getFilterPreviewMap().values().forEach(hint -> hint.set(null));
+    }
+
+    /**
+     * Count items matched by the filters as they are typed, before they are applied. At most {@value PREVIEW_LIMIT}
+     * items are evaluated, so the count of a larger table is estimated. OR filters are not previewed.
+     */
+    public void onPreviewFilter(String attribute) {
+        int generation = previewGeneration.incrementAndGet();
+        SimpleStringProperty hint = tableModel.getFilterPreviewMap().computeIfAbsent(attribute, __ -> new SimpleStringProperty());
+        hint.set(null);
+        if (!notBlankFilterValue(attribute) || tableModel.getOriginalTableDescription() == null
+                || tableModel.getAttributeFilterMap().values().stream().anyMatch(filter -> isOrFilter(filter.get()))) {
+            return;
+        }
+
+        Map<String, SimpleStringProperty> filters = tableModel.getAttributeFilterMap();
+        Optional<QueryPlan> queryPlan = planQuery().filter(plan -> !plan.isMultiKey());
+        String indexName = queryPlan.map(QueryPlan::index).map(Index::getIndexName).orElse(null);
+        long itemCount = Optional.ofNullable(tableModel.getOriginalTableDescription().getItemCount()).orElse(0L);
+        queryPlan
+                .<CompletableFuture<? extends ItemCollection<?>>>map(plan -> queryItems(plan, buildQuerySpec(plan.hashName(), plan.rangeName(), filters, null)
+                        .withSelect(Select.COUNT)
+                        .withMaxPageSize(PREVIEW_LIMIT)))
+                .orElseGet(() -> scanItems(buildScanSpec(filters, null)
+                        .withSelect(Select.COUNT)
+                        .withMaxPageSize(PREVIEW_LIMIT)))
+                .thenApply(collection -> generation == previewGeneration.get() ? FilterPreview.of(collection.firstPage(), indexName, itemCount) : null)
+                .whenCompleteAsync((preview, throwable) -> {
+                    if (throwable != null) {
+                        LOG.log(Level.FINE, "Filter preview failed", throwable);
+                    } else if (preview != null && generation == previewGeneration.get()) {
+                        hint.set(preview.text());
+                    }
+                }, uiExecutor);
+    }
+
+    /**
+     * Show the value of the document path as a column, e.g. address.city or items[0].sku.
+     * The type of the column is defined by the loaded rows.
+     */
+    public void onAddDocumentPath(String path) {
         eventBus.activity(
-                executeQueryOrSearch().thenAccept(items -> {
-                    try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
-                        JsonGenerator generator = new JsonFactory(new ObjectMapper()).createGenerator(writer);
-                        generator.writeStartArray();
-                        asStream(items).forEach(o -> {
-                            try {
-                                generator.writeRawValue(o.toJSON());
-                            } catch (IOException e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
-                        generator.writeEndArray();
-                        generator.flush();
-                    } catch (Exception e) {
-                        LOG.log(Level.SEVERE, e.getMessage(), e);
-                        throw new RuntimeException(e);
+                runAsync(() -> {
+                    DocumentPath documentPath = DocumentPath.parse(path.trim());
+                    String name = documentPath.toString();
+                    if (documentPath.getElements().size() > 1) {
+                        tableModel.getTableDef().getDocumentPaths().add(name);
                     }
-                })
+                    if (!tableModel.getTableDef().getAttributeTypesMap().containsKey(name)) {
+                        tableModel.getTableDef().getAttributeTypesMap().put(name, defineType(tableModel.getRows().stream().map(documentPath::resolve)));
+                    }
+                }, uiExecutor),
+                "Wrong document path",
+                "Use names separated by dots and list indexes in brackets, e.g. address.city or items[0].sku"
         );
     }
 
+    public void onSaveToFile(File file) {
+        boolean noFilters = tableModel.getAttributeFilterMap().keySet().stream().noneMatch(this::notBlankFilterValue);
+        long itemCount = Optional.ofNullable(tableModel.getOriginalTableDescription()).map(TableDescription::getItemCount).orElse(-1L);
+        job("Export " + context.tableName() + " to " + file.getName(), job -> {
+            if (noFilters) {
+                job.setTotal(itemCount);
+            }
+            // export must not slow down the grids, its requests get the permits left by them
+            CompletableFuture<? extends Iterable<Item>> itemsFuture = RequestPriority.BULK.call(() -> exportItems(job));
+            // the items are read while they are written, which must not block the ui thread even if they are ready
+            return itemsFuture.thenAcceptAsync(items -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                    JsonGenerator generator = new JsonFactory(new ObjectMapper()).createGenerator(writer);
+                    generator.writeStartArray();
+                    double[] capacity = {0};
+                    asStream(items).forEach(o -> {
+                        try {
+                            generator.writeRawValue(o.toJSON());
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                        job.addDone(1);
+                        if (items instanceof ItemCollection<?> collection && collection.getTotalConsumedCapacity() != null) {
+                            Double total = collection.getTotalConsumedCapacity().getCapacityUnits();
+                            if (total != null && total > capacity[0]) {
+                                job.addCapacity(total - capacity[0]);
+                                capacity[0] = total;
+                            }
+                        }
+                        job.checkpoint();
+                    });
+                    generator.writeEndArray();
+                    generator.flush();
+                } catch (CancellationException e) {
+                    throw e;
+                } catch (Exception e) {
+                    LOG.log(Level.SEVERE, e.getMessage(), e);
+                    throw new RuntimeException(e);
+                }
+            }, RequestPriority.BULK.executor(io("export")));
+        }, null, null);
+    }
+
+    private CompletableFuture<? extends Iterable<Item>> exportItems(Job job) {
+        // the whole partition is exported faster by concurrent range key sub-ranges
+        Optional<List<OrRequest>> orPlan = planOrQuery();
+        Optional<QueryPlan> plan = planQuery();
+        if (orPlan.isPresent()) {
+            List<Supplier<Iterable<List<Item>>>> requests = orRequests(orPlan.get(), new Loading(), null).stream().map(MergedPage::allPages).toList();
+            return CompletableFuture.completedFuture(new OrderedPages(requests, EXPORT_CONCURRENCY, EXPORT_BUFFERED_PAGES, io("or"), job));
+        } else if (plan.isPresent() && plan.get().isMultiKey()) {
+            List<Supplier<Iterable<List<Item>>>> keys = keyRequests(plan.get(), new Loading(), null).stream().map(MergedPage::allPages).toList();
+            return CompletableFuture.completedFuture(new OrderedPages(keys, EXPORT_CONCURRENCY, EXPORT_BUFFERED_PAGES, io("keys"), job));
+        } else if (plan.isPresent() && plan.get().rangeName() != null && !notBlankFilterValue(plan.get().rangeName())) {
+            return queryInRangeSplits(plan.get(), job);
+        } else if (plan.isPresent() && plan.get().hydrate()) {
+            return executeQueryOrSearch(plan, null).thenApply(this::hydratePages);
+        }
+        return executeQueryOrSearch(plan, null).thenApply(collection -> (Iterable<Item>) collection);
+    }
+
     public void onLoadFromFile(File file) {
-        eventBus.activity(
-                runAsync(() -> {
+        job("Import " + file.getName() + " to " + context.tableName(), job -> runAsync(() -> {
                     try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
                         JsonNode root = new ObjectMapper().readTree(reader);
-                        Observable.fromIterable(root::elements)
-                                .map(jsonNode -> Item.fromJSON(jsonNode.toString()))
-                                .buffer(25)
-                                .map(list -> {
-                                    TableWriteItems addItems = new TableWriteItems(table.getTableName());
-                                    list.forEach(addItems::addItemToPut);
-                                    return addItems;
-                                })
-                                .subscribe(documentClient::batchWriteItem);
+                        job.setTotal(root.size());
+                        writeAll(Observable.fromIterable(root::elements)
+                                .map(jsonNode -> new WriteRequest(new PutRequest(ItemUtils.toAttributeValues(Item.fromJSON(jsonNode.toString()))))), job);
+                    } catch (CancellationException e) {
+                        throw e;
                     } catch (Exception e) {
                         LOG.log(Level.SEVERE, e.getMessage(), e);
                         throw new RuntimeException(e);
                     }
-                }),
+                }, io("import")),
                 "Can't load json data from the file",
                 "Data in the file is not properly formatted or does not correspond to the db schema."
         ).whenComplete((v, throwable) -> onRefreshData());
     }
 
     /**
-     * Iterate page to get around PAGE_SIZE number of items if exist
+     * Replace rows by a random sample of the table. Small pages are read from randomly chosen segments in parallel,
+     * types of the attributes are defined by the sample. Shown rows become the only page.
+     */
+    public void onLoadSample() {
+        Loading loading = startLoading(false);
+        tableModel.getScanProgress().setParallel(true);
+        tableModel.getRows().clear();
+
+        RandomSample sample = new RandomSample(Optional.ofNullable(tableModel.getOriginalTableDescription()).map(TableDescription::getItemCount).orElse(null));
+        Consumer<List<Item>> appendRows = items -> {
+            int free = sample.getSampleSize() - tableModel.getRows().size();
+            if (free > 0) {
+                tableModel.getRows().addAll(items.size() > free ? items.subList(0, free) : items);
+            }
+        };
+
+        eventBus.activity(
+                trackLoading(loading, sampleRound(sample, loading, appendRows)
+                        .thenRunAsync(() -> {
+                            if (!loading.isCancelled()) {
+                                redefineAttributeTypes(tableModel.getRows());
+                                PageNavigator navigator = tableModel.getPageNavigator();
+                                navigator.reset();
+                                navigator.record(0, tableModel.getRows(), null);
+                                navigator.setCurrentIndex(0);
+                            }
+                        }, uiExecutor))
+        );
+    }
+
+    /**
+     * Read the next segments of the sample until it is complete
+     */
+    private CompletableFuture<Void> sampleRound(RandomSample sample, Loading loading, Consumer<List<Item>> rows) {
+        return supplyAsync(() -> sample.nextSegments(tableModel.getRows().size()), uiExecutor)
+                .thenCompose(segments -> {
+                    if (segments.isEmpty() || loading.isStopped()) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return scanSegments(segments, sample.getTotalSegments(), RandomSample.ITEMS_PER_SEGMENT, loading, rows)
+                            .thenCompose(__ -> sampleRound(sample, loading, rows));
+                });
+    }
+
+    /**
+     * Iterate pages to collect one ui batch of items if exist. The batch is limited by the adaptive batch size and
+     * by the number of pages that fit into the latency target, but it is never empty while there are more pages
+     * unless the loading is stopped. Every received page is streamed into the rows.
      *
-     * @param page current page
-     * @return list of items and next page
+     * @param collection query or scan result
+     * @param transform  applied to items of every page, e.g. to hydrate index items
+     * @param loading    the loading which the batch belongs to
+     * @param rows       receives items of every page on the ui thread, nullable
+     * @return list of items and the last received page
      */
-    private static Pair<List<Item>, Page<Item, ?>> iteratePage(Page<Item, ?> page) {
-        List<Item> items = new ArrayList<>(PAGE_SIZE);
-        items.addAll(asStream(page).toList());
+    private Pair<List<Item>, Page<Item, ?>> iteratePage(ItemCollection<?> collection, UnaryOperator<List<Item>> transform, Loading loading, Consumer<List<Item>> rows) {
+        int batchSize = pageSize.getBatchSize();
+        int pagesPerBatch = pageSize.getPagesPerBatch();
+
+        long start = System.currentTimeMillis();
+        Page<Item, ?> page = collection.firstPage();
+        List<Item> items = new ArrayList<>(onPageReceived(page, System.currentTimeMillis() - start, transform, loading, rows));
 
-        while (items.size() < PAGE_SIZE && page.hasNextPage()) {
+        int pages = 1;
+        while (!loading.isStopped() && (items.isEmpty() || items.size() < batchSize && pages < pagesPerBatch) && page.hasNextPage()) {
+            start = System.currentTimeMillis();
             page = page.nextPage();
-            items.addAll(asStream(page).toList());
+            items.addAll(onPageReceived(page, System.currentTimeMillis() - start, transform, loading, rows));
+            pages++;
         }
         return new Pair<>(items, page);
     }
 
+    /**
+     * Update the page size statistics and the scan progress, stream page items into the rows
+     *
+     * @return page items
+     */
+    private List<Item> onPageReceived(Page<Item, ?> page, long latencyMillis, UnaryOperator<List<Item>> transform, Loading loading, Consumer<List<Item>> rows) {
+        pageSize.record(page, latencyMillis);
+        return onItemsReceived(transform.apply(asStream(page).toList()), PageStats.of(page), loading, rows);
+    }
+
+    private List<Item> onItemsReceived(List<Item> items, PageStats stats, Loading loading, Consumer<List<Item>> rows) {
+        uiExecutor.execute(() -> {
+            if (!loading.isCancelled()) {
+                ScanProgress progress = tableModel.getScanProgress();
+                progress.setScan(stats.scan());
+                progress.addPage(stats.scannedCount(), stats.count(), stats.capacityUnits());
+                if (rows != null) {
+                    PageMergeEvent event = new PageMergeEvent();
+                    event.begin();
+                    mergeAttributeTypes(items);
+                    rows.accept(items);
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.table = context.tableName();
+                        event.items = items.size();
+                        event.scannedItems = stats.scannedCount();
+                        event.capacityUnits = stats.capacityUnits();
+                        event.rows = tableModel.getRows().size();
+                        event.commit();
+                    }
+                }
+            }
+        });
+        return items;
+    }
+
     CompletableFuture<Pair<List<Item>, Page<Item, ?>>> queryPageItems() {
-        return executeQueryOrSearch()
-                .thenApply(PageBasedCollection::firstPage)
-                .thenApply(TableGridController::iteratePage);
+        Loading loading = this.loading;
+        return fetchPage(null, loading, tableModel.getRows()::addAll);
+    }
+
+    private CompletableFuture<Pair<List<Item>, Page<Item, ?>>> fetchPage(Map<String, AttributeValue> exclusiveStartKey, Loading loading, Consumer<List<Item>> rows) {
+        Optional<List<OrRequest>> orPlan = planOrQuery();
+        if (orPlan.isPresent()) {
+            return fetchMergedPage(orRequests(orPlan.get(), loading, rows), exclusiveStartKey, loading);
+        }
+        Optional<QueryPlan> plan = planQuery();
+        if (plan.isPresent() && plan.get().isMultiKey()) {
+            return fetchMergedPage(keyRequests(plan.get(), loading, rows), exclusiveStartKey, loading);
+        }
+        UnaryOperator<List<Item>> transform = plan.isPresent() && plan.get().hydrate() ? this::hydrateItems : UnaryOperator.identity();
+        return executeQueryOrSearch(plan, exclusiveStartKey)
+                .thenApply(collection -> iteratePage(collection, transform, loading, rows));
+    }
+
+    /**
+     * Requests looking up the hash keys of the plan. A table without range key is read by BatchGetItem
+     * when there are no other filters, otherwise every key is queried page by page.
+     */
+    private List<MergedPage.Request> keyRequests(QueryPlan plan, Loading loading, Consumer<List<Item>> rows) {
+        boolean batchGet = plan.index() == null && plan.rangeName() == null && tableModel.getAttributeFilterMap().keySet().stream()
+                .filter(attr -> !attr.equals(plan.hashName()))
+                .noneMatch(this::notBlankFilterValue);
+        if (batchGet) {
+            return IntStream.range(0, (plan.hashValues().size() + BATCH_GET_LIMIT - 1) / BATCH_GET_LIMIT)
+                    .mapToObj(i -> plan.hashValues().subList(i * BATCH_GET_LIMIT, Math.min(plan.hashValues().size(), (i + 1) * BATCH_GET_LIMIT)))
+                    .<MergedPage.Request>map(keys -> startKey -> new Pair<>(batchGetItems(plan, keys, loading, rows), null))
+                    .toList();
+        }
+        return plan.hashValues().stream()
+                .<MergedPage.Request>map(hashValue -> startKey -> readFirstPage(queryByHashKey(plan, hashValue, startKey), UnaryOperator.identity(), loading, rows))
+                .toList();
+    }
+
+    /**
+     * Read one page of every request concurrently, the pages are merged in the order of the requests.
+     * Pages which have no items are skipped unless the loading is stopped.
+     *
+     * @param bookmark bookmark of the merged page, null to read the first one
+     */
+    private CompletableFuture<Pair<List<Item>, Page<Item, ?>>> fetchMergedPage(List<MergedPage.Request> requests, Map<String, AttributeValue> bookmark, Loading loading) {
+        MergedPage.Cursor cursor = MergedPage.Cursor.of(bookmark, requests.size(), MERGED_REQUESTS_PER_PAGE);
+        Executor executor = io("merge");
+        Map<Integer, CompletableFuture<Pair<List<Item>, Map<String, AttributeValue>>>> futures = new TreeMap<>();
+        cursor.startKeys().forEach((request, startKey) -> futures.put(request, supplyAsync(() -> requests.get(request).readPage(startKey), executor)));
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .thenCompose(v -> {
+                    List<Item> items = new ArrayList<>();
+                    Map<Integer, Map<String, AttributeValue>> lastKeys = new HashMap<>();
+                    futures.forEach((request, future) -> {
+                        items.addAll(future.join().getKey());
+                        lastKeys.put(request, future.join().getValue());
+                    });
+                    Map<String, AttributeValue> nextBookmark = cursor.nextBookmark(lastKeys);
+                    if (items.isEmpty() && nextBookmark != null && !loading.isStopped()) {
+                        return fetchMergedPage(requests, nextBookmark, loading);
+                    }
+                    return CompletableFuture.completedFuture(new Pair<>(items, new MergedPage(items, nextBookmark)));
+                });
+    }
+
+    /**
+     * Page by page requests of the OR filters. Items already returned by an earlier request are skipped,
+     * so every item is returned once without remembering the returned keys.
+     */
+    private List<MergedPage.Request> orRequests(List<OrRequest> requests, Loading loading, Consumer<List<Item>> rows) {
+        return IntStream.range(0, requests.size())
+                .<MergedPage.Request>mapToObj(i -> {
+                    List<Predicate<Item>> earlier = requests.subList(0, i).stream().map(OrRequest::returns).toList();
+                    UnaryOperator<List<Item>> unique = items -> items.stream()
+                            .filter(item -> earlier.stream().noneMatch(returns -> returns.test(item)))
+                            .toList();
+                    return startKey -> readFirstPage(requests.get(i).collection().apply(startKey), unique, loading, rows);
+                })
+                .toList();
+    }
+
+    private ItemCollection<QueryOutcome> queryByHashKey(QueryPlan plan, Object hashValue, Map<String, AttributeValue> exclusiveStartKey) {
+        QuerySpec querySpec = buildQuerySpec(plan.hashName(), hashValue, plan.rangeName(),
+                rangeKeyCondition(plan.rangeName(), tableModel.getAttributeFilterMap()), tableModel.getAttributeFilterMap(), exclusiveStartKey);
+        LOG.fine(() -> String.format("Query %1s = %2s", table.getTableName(), logAsJson(querySpec)));
+        return plan.index() == null ? table.query(querySpec) : plan.index().query(querySpec);
+    }
+
+    /**
+     * Get items by up to {@value BATCH_GET_LIMIT} hash keys
+     *
+     * @return items in the order of the keys, BatchGetItem itself returns them in any order
+     */
+    private List<Item> batchGetItems(QueryPlan plan, List<Object> keys, Loading loading, Consumer<List<Item>> rows) {
+        List<Item> items = new ArrayList<>();
+        double[] capacity = {0};
+        batchGet(new TableKeysAndAttributes(table.getTableName()).addHashOnlyPrimaryKeys(plan.hashName(), keys.toArray()),
+                (received, capacityUnits) -> {
+                    items.addAll(received);
+                    capacity[0] += capacityUnits;
+                }
+        );
+        Map<Object, Integer> order = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            order.putIfAbsent(comparableKey(keys.get(i)), i);
+        }
+        items.sort(Comparator.comparingInt(item -> order.getOrDefault(comparableKey(item.get(plan.hashName())), Integer.MAX_VALUE)));
+        return onItemsReceived(items, new PageStats(false, items.size(), items.size(), capacity[0]), loading, rows);
+    }
+
+    /**
+     * @return key value which is equal to the same number of another scale
+     */
+    private static Object comparableKey(Object value) {
+        return value instanceof BigDecimal number ? number.stripTrailingZeros() : value;
+    }
+
+    /**
+     * Replace index items by the table items keeping the order. Keys are requested by parallel BatchGetItem calls.
+     */
+    private List<Item> hydrateItems(List<Item> indexItems) {
+        if (indexItems.isEmpty()) {
+            return indexItems;
+        }
+        List<PrimaryKey> keys = indexItems.stream()
+                .map(item -> range() == null ?
+                        new PrimaryKey(hash(), item.get(hash())) :
+                        new PrimaryKey(hash(), item.get(hash()), range(), item.get(range())))
+                .toList();
+        List<List<PrimaryKey>> chunks = IntStream.range(0, (keys.size() + BATCH_GET_LIMIT - 1) / BATCH_GET_LIMIT)
+                .mapToObj(i -> keys.subList(i * BATCH_GET_LIMIT, Math.min(keys.size(), (i + 1) * BATCH_GET_LIMIT)))
+                .toList();
+
+        Map<Map<String, AttributeValue>, Item> tableItems = new ConcurrentHashMap<>();
+        DoubleAdder capacity = new DoubleAdder();
+        Executor executor = io("hydrate");
+        CompletableFuture.allOf(chunks.stream()
+                .map(chunk -> runAsync(() -> batchGet(
+                        new TableKeysAndAttributes(table.getTableName()).withPrimaryKeys(chunk.toArray(PrimaryKey[]::new)),
+                        (received, capacityUnits) -> {
+                            received.forEach(item -> tableItems.put(primaryKey(item, hash(), range()), item));
+                            capacity.add(capacityUnits);
+                        }
+                ), executor))
+                .toArray(CompletableFuture[]::new)
+        ).join();
+        uiExecutor.execute(() -> tableModel.getScanProgress().addCapacity(capacity.sum()));
+
+        // items deleted after the index has been read are skipped
+        return indexItems.stream()
+                .map(item -> tableItems.get(primaryKey(item, hash(), range())))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * @return index items replaced by the table items page by page
+     */
+    private Iterable<Item> hydratePages(ItemCollection<?> collection) {
+        return () -> asStream(collection.pages()).flatMap(page -> hydrateItems(asStream(page).toList()).stream()).iterator();
     }
 
-    private CompletableFuture<? extends ItemCollection<?>> executeQueryOrSearch() {
+    /**
+     * Get items retrying unprocessed keys with exponential backoff up to {@value BATCH_GET_ATTEMPTS} attempts,
+     * then fail by {@link UnprocessedItemsException} with the keys left. The retries stop when the thread is interrupted.
+     *
+     * @param responses receives items and consumed capacity of every response
+     */
+    private void batchGet(TableKeysAndAttributes keys, BiConsumer<List<Item>, Double> responses) {
+        BatchGetItemOutcome outcome = documentClient.batchGetItem(ReturnConsumedCapacity.INDEXES, keys);
+        long backoffMillis = BATCH_GET_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            double capacityUnits = Optional.ofNullable(outcome.getBatchGetItemResult().getConsumedCapacity()).orElse(List.of()).stream()
+                    .mapToDouble(capacity -> Optional.ofNullable(capacity.getCapacityUnits()).orElse(0.0))
+                    .sum();
+            responses.accept(outcome.getTableItems().getOrDefault(table.getTableName(), List.of()), capacityUnits);
+
+            Map<String, KeysAndAttributes> unprocessedKeys = outcome.getUnprocessedKeys();
+            if (unprocessedKeys == null || unprocessedKeys.isEmpty()) {
+                return;
+            }
+            if (attempt == BATCH_GET_ATTEMPTS) {
+                throw new UnprocessedItemsException("BatchGetItem", attempt, unprocessedKeys);
+            }
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Interrupted while retrying unprocessed keys");
+            }
+            backoffMillis = Math.min(backoffMillis * 2, BATCH_GET_MAX_BACKOFF_MILLIS);
+            outcome = documentClient.batchGetItemUnprocessed(ReturnConsumedCapacity.INDEXES, unprocessedKeys);
+        }
+    }
+
+    /**
+     * Take the page from the cache or request it by its bookmark. Must be called on the ui thread.
+     *
+     * @param rows receives items of the page, requested pages are streamed by parts, nullable
+     */
+    private CompletableFuture<List<Item>> loadPage(int index, Loading loading, Consumer<List<Item>> rows) {
+        PageNavigator navigator = tableModel.getPageNavigator();
+        Optional<List<Item>> cached = navigator.getCached(index);
+        if (cached.isPresent()) {
+            if (rows != null) {
+                rows.accept(cached.get());
+            }
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return fetchPage(navigator.getBookmark(index).orElse(null), loading, rows)
+                .thenApplyAsync(pair -> {
+                    if (!loading.isCancelled()) {
+                        mergeAttributeTypes(pair.getKey());
+                        tableModel.setCurrentPage(pair.getValue());
+                        navigator.record(index, pair.getKey(), PageNavigator.lastEvaluatedKey(pair.getValue()));
+                    }
+                    return pair.getKey();
+                }, uiExecutor);
+    }
+
+    /**
+     * Load the page walking forward from the last bookmark if needed. Stops on the last page of the table.
+     * Only the requested page is passed to the rows consumer.
+     *
+     * @return index of the loaded page
+     */
+    private CompletableFuture<Integer> walkToPage(int index, Loading loading, Consumer<List<Item>> rows) {
+        PageNavigator navigator = tableModel.getPageNavigator();
+        if (navigator.isBookmarked(index)) {
+            return loadPage(index, loading, rows).thenApply(items -> index);
+        }
+        int lastIndex = navigator.getLastBookmarkedIndex();
+        if (navigator.isLastPageReached() || loading.isStopped()) {
+            return loadPage(lastIndex, loading, rows).thenApply(items -> lastIndex);
+        }
+        return loadPage(lastIndex, loading, null).thenComposeAsync(__ -> walkToPage(index, loading, rows), uiExecutor);
+    }
+
+    /**
+     * Scan all segments at once, every segment is read until the end or until the loading is stopped
+     */
+    private CompletableFuture<Void> scanInParallel(int totalSegments, Loading loading, Consumer<List<Item>> rows) {
+        return scanSegments(IntStream.range(0, totalSegments).boxed().toList(), totalSegments, null, loading, rows);
+    }
+
+    /**
+     * Scan the segments at once
+     *
+     * @param pageLimit read only the first page of every segment limited by this number of items,
+     *                  null to read segments until the end or until the loading is stopped
+     */
+    private CompletableFuture<Void> scanSegments(List<Integer> segments, int totalSegments, Integer pageLimit, Loading loading, Consumer<List<Item>> rows) {
+        Executor executor = io("segments");
+        CompletableFuture<?>[] futures = segments.stream()
+                .map(segment -> runAsync(() -> {
+                    ScanSpec scanSpec = buildScanSpec(tableModel.getAttributeFilterMap(), null)
+                            .withSegment(segment)
+                            .withTotalSegments(totalSegments);
+                    if (pageLimit != null) {
+                        scanSpec.withMaxPageSize(pageLimit);
+                    }
+                    LOG.fine(() -> String.format("Scan %1s = %2s", table.getTableName(), logAsJson(scanSpec)));
+                    readPages(table.scan(scanSpec), pageLimit != null, loading, rows);
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
+    }
+
+    /**
+     * @return items of the first page of the collection and the last evaluated key of the page
+     */
+    private Pair<List<Item>, Map<String, AttributeValue>> readFirstPage(ItemCollection<?> collection, UnaryOperator<List<Item>> transform, Loading loading, Consumer<List<Item>> rows) {
+        long start = System.currentTimeMillis();
+        Page<Item, ?> page = collection.firstPage();
+        return new Pair<>(onPageReceived(page, System.currentTimeMillis() - start, transform, loading, rows), PageNavigator.lastEvaluatedKey(page));
+    }
+
+    /**
+     * Read the first page or all pages of the collection, the rest is skipped when the loading is stopped
+     */
+    private List<Item> readPages(ItemCollection<?> collection, boolean firstPageOnly, Loading loading, Consumer<List<Item>> rows) {
+        return readPages(collection, firstPageOnly, UnaryOperator.identity(), loading, rows);
+    }
+
+    /**
+     * @param transform applied to items of every page before they are returned and passed to the rows
+     */
+    private List<Item> readPages(ItemCollection<?> collection, boolean firstPageOnly, UnaryOperator<List<Item>> transform, Loading loading, Consumer<List<Item>> rows) {
+        long start = System.currentTimeMillis();
+        Page<Item, ?> page = collection.firstPage();
+        List<Item> items = new ArrayList<>(onPageReceived(page, System.currentTimeMillis() - start, transform, loading, rows));
+        while (!firstPageOnly && !loading.isStopped() && page.hasNextPage()) {
+            start = System.currentTimeMillis();
+            page = page.nextPage();
+            items.addAll(onPageReceived(page, System.currentTimeMillis() - start, transform, loading, rows));
+        }
+        return items;
+    }
+
+    /**
+     * One segment per gigabyte of the table but not less than {@value PARALLEL_SEGMENTS_MIN}
+     */
+    private int parallelSegments() {
+        Long tableSize = tableModel.getOriginalTableDescription().getTableSizeBytes();
+        long segments = tableSize != null ? tableSize / PARALLEL_SEGMENT_BYTES : 0;
+        return (int) Math.max(PARALLEL_SEGMENTS_MIN, Math.min(PARALLEL_SEGMENTS_MAX, segments));
+    }
+
+    /**
+     * Executor of blocking requests to the table, tasks are named after the profile, the table and the task, keep
+     * the request priority of the code that submits them and are charged to the tab
+     */
+    private Executor io(String task) {
+        return RequestPriority.inherit(account.inherit(TaskExecutors.io(context.profileDetails().getName() + "/" + context.tableName() + "/" + task)));
+    }
+
+    /**
+     * Run the work as a job, its requests are charged to the job besides the tab
+     */
+    private <T> CompletableFuture<T> job(String name, Function<Job, CompletableFuture<T>> work, String errorMessage, String errorDescription) {
+        CapacityLedger.Account jobAccount = ledger.open(CapacityLedger.Kind.JOB, name);
+        return eventBus.job(name, job -> jobAccount.call(() -> account.call(() -> work.apply(job))), errorMessage, errorDescription);
+    }
+
+    /**
+     * Run the job and refresh the grid once the work is done. A cancelled job is finished at once while its work
+     * stops at the next checkpoint, the grid is refreshed only after that.
+     */
+    private void jobThenRefresh(String name, Function<Job, CompletableFuture<?>> work) {
+        CompletableFuture<Void> stopped = new CompletableFuture<>();
+        job(name, job -> {
+            CompletableFuture<?> future;
+            try {
+                future = work.apply(job);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            return future.whenComplete((v, throwable) -> stopped.complete(null));
+        }, null, null);
+        stopped.thenRun(this::onRefreshData);
+    }
+
+    /**
+     * Cancel the running loading and start a new one. Must be called on the ui thread.
+     *
+     * @param keepProgress continue counting the progress of the cancelled loading
+     */
+    private Loading startLoading(boolean keepProgress) {
+        loading.cancel();
+        loading = new Loading();
+        if (!keepProgress) {
+            tableModel.getScanProgress().reset();
+        }
+        tableModel.getScanProgress().setRunning(true);
+        return loading;
+    }
+
+    private <T> CompletableFuture<T> trackLoading(Loading loading, CompletableFuture<T> future) {
+        return future.whenCompleteAsync((t, throwable) -> {
+            if (loading == this.loading) {
+                tableModel.getScanProgress().setRunning(false);
+            }
+        }, uiExecutor);
+    }
+
+    private CompletableFuture<? extends ItemCollection<?>> executeQueryOrSearch(Optional<QueryPlan> queryPlan, Map<String, AttributeValue> exclusiveStartKey) {
+        // a list of keys can not be queried at once, the scan filters it
+        return queryPlan
+                .filter(plan -> !plan.isMultiKey())
+                .<CompletableFuture<? extends ItemCollection<?>>>map(plan -> queryItems(plan, buildQuerySpec(plan.hashName(), plan.rangeName(), tableModel.getAttributeFilterMap(), exclusiveStartKey)))
+                .orElseGet(() -> scanItems(tableModel.getAttributeFilterMap(), exclusiveStartKey));
+    }
+
+    /**
+     * Choose the table or the index that can be queried by the filters
+     *
+     * @return empty if the table must be scanned
+     */
+    private Optional<QueryPlan> planQuery() {
         // query table if hash attribute has filter
         if (notBlankFilterValue(hash())) {
             SimpleStringProperty hashValueProperty = tableModel.getAttributeFilterMap().get(hash());
             QueryFilter filter = attributeValueToFilter(hash(), hashValueProperty.get(), Type.STRING, QueryFilter::new);
             // query if hash has eq operation only
             if (filter.getComparisonOperator() == ComparisonOperator.EQ) {
-                QuerySpec querySpec = buildQuerySpec(hash(), range(), tableModel.getAttributeFilterMap());
-                return queryTableItems(querySpec);
+                return Optional.of(new QueryPlan(null, hash(), range(), null, false));
+            }
+            // or query every key of the list
+            if (filter.getComparisonOperator() == ComparisonOperator.IN) {
+                return Optional.of(new QueryPlan(null, hash(), range(), hashValues(hash()), false));
             }
         } else if (tableModel.getOriginalTableDescription().getGlobalSecondaryIndexes() != null) {
-            // find global indexes with ALL properties projection
+            // find global indexes with ALL properties projection, then indexes whose items can be hydrated
             List<GlobalSecondaryIndexDescription> fullProjectionIndexes = tableModel.getOriginalTableDescription().getGlobalSecondaryIndexes().stream()
-                    .filter(__ -> __.getProjection().getProjectionType().equals("ALL")).toList();
+                    .filter(__ -> isFullProjection(__) || canHydrate(__))
+                    .sorted(Comparator.comparing(__ -> !isFullProjection(__)))
+                    .toList();
 
             // find the first index that has hash and range attributes in the filters map
             Optional<GlobalSecondaryIndexDescription> globalIndexOptional = fullProjectionIndexes.stream()
@@ -291,23 +1105,162 @@ public class TableGridController {
             if (globalIndexOptional.isPresent()) {
                 GlobalSecondaryIndexDescription indexDescription = globalIndexOptional.get();
 
-                Index index = table.getIndex(indexDescription.getIndexName());
                 Optional<String> indexHash = lookUpKeyName(indexDescription.getKeySchema(), KeySchemaType.HASH);
                 Optional<String> indexRange = lookUpKeyName(indexDescription.getKeySchema(), KeySchemaType.RANGE);
 
                 if (indexHash.isPresent()) {
-                    QuerySpec querySpec = buildQuerySpec(indexHash.get(), indexRange.orElse(null), tableModel.getAttributeFilterMap());
-                    return queryIndexItems(querySpec, index);
+                    return Optional.of(new QueryPlan(table.getIndex(indexDescription.getIndexName()), indexHash.get(), indexRange.orElse(null),
+                            hashValues(indexHash.get()), !isFullProjection(indexDescription)));
                 }
             }
         }
-        return scanItems(tableModel.getAttributeFilterMap());
+        return Optional.empty();
+    }
+
+    private static boolean isFullProjection(GlobalSecondaryIndexDescription index) {
+        return index.getProjection().getProjectionType().equals("ALL");
+    }
+
+    /**
+     * KEYS_ONLY and INCLUDE indexes are queried for keys when all filters are on projected attributes
+     * and the hash key filter is a single value
+     */
+    private boolean canHydrate(GlobalSecondaryIndexDescription index) {
+        Set<String> projected = new HashSet<>();
+        projected.add(hash());
+        projected.add(range());
+        index.getKeySchema().forEach(key -> projected.add(key.getAttributeName()));
+        if (index.getProjection().getNonKeyAttributes() != null) {
+            projected.addAll(index.getProjection().getNonKeyAttributes());
+        }
+        boolean singleKey = lookUpKeyName(index.getKeySchema(), KeySchemaType.HASH)
+                .filter(this::notBlankFilterValue)
+                .map(name -> hashValues(name) == null)
+                .orElse(true);
+        return singleKey && tableModel.getAttributeFilterMap().keySet().stream()
+                .filter(this::notBlankFilterValue)
+                .map(attr -> tableModel.getTableDef().getDocumentPaths().contains(attr) ? DocumentPath.parse(attr).getAttribute() : attr)
+                .allMatch(projected::contains);
+    }
+
+    /**
+     * Split OR filters into requests that can run at once: a query of the table or of an index for every OR filter
+     * that is an equal condition on its hash key and one scan for the rest. AND filters are applied to every request.
+     * The scan is the last request, so only items of the queries have to be recognized by other requests.
+     *
+     * @return empty if there are less than two OR filters
+     */
+    private Optional<List<OrRequest>> planOrQuery() {
+        Map<String, SimpleStringProperty> filters = tableModel.getAttributeFilterMap();
+        List<String> orAttributes = filters.entrySet().stream()
+                .filter(entry -> isOrFilter(entry.getValue().get()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        if (orAttributes.size() < 2) {
+            return Optional.empty();
+        }
+        Map<String, SimpleStringProperty> andFilters = new HashMap<>(filters);
+        andFilters.keySet().removeAll(orAttributes);
+
+        List<OrRequest> requests = new ArrayList<>();
+        Map<String, SimpleStringProperty> scanFilters = new HashMap<>();
+        for (String attribute : orAttributes) {
+            Map<String, SimpleStringProperty> requestFilters = new HashMap<>(andFilters);
+            requestFilters.put(attribute, filters.get(attribute));
+
+            QueryFilter filter = attributeValueToFilter(attribute, filters.get(attribute).get(), Type.STRING, QueryFilter::new);
+            Optional<GlobalSecondaryIndexDescription> index = tableModel.getOriginalTableDescription().getGlobalSecondaryIndexes() == null ? Optional.empty() :
+                    tableModel.getOriginalTableDescription().getGlobalSecondaryIndexes().stream()
+                            .filter(__ -> __.getProjection().getProjectionType().equals("ALL"))
+                            .filter(__ -> lookUpKeyName(__.getKeySchema(), KeySchemaType.HASH).map(attribute::equals).orElse(false))
+                            .findFirst();
+            Object keyValue = comparableKey(keyValue(attribute, filters));
+            Predicate<Item> returns = item -> keyValue.equals(comparableKey(item.get(attribute)));
+            if (filter.getComparisonOperator() != ComparisonOperator.EQ) {
+                scanFilters.put(attribute, filters.get(attribute));
+            } else if (attribute.equals(hash())) {
+                requests.add(new OrRequest(startKey -> queryTableItems(buildQuerySpec(attribute, range(), requestFilters, startKey)).join(), returns));
+            } else if (index.isPresent()) {
+                Index tableIndex = table.getIndex(index.get().getIndexName());
+                String indexRange = lookUpKeyName(index.get().getKeySchema(), KeySchemaType.RANGE).orElse(null);
+                requests.add(new OrRequest(startKey -> queryIndexItems(buildQuerySpec(attribute, indexRange, requestFilters, startKey), tableIndex).join(), returns));
+            } else {
+                scanFilters.put(attribute, filters.get(attribute));
+            }
+        }
+
+        if (!scanFilters.isEmpty()) {
+            requests.add(new OrRequest(startKey -> scanItems(buildScanSpec(andFilters, scanFilters, startKey)).join(), item -> true));
+        }
+        return Optional.of(requests);
+    }
+
+    /**
+     * @return typed values of the list filter of the attribute or null if the filter is not a list
+     */
+    private List<Object> hashValues(String attribute) {
+        QueryFilter filter = attributeValueToFilter(attribute, tableModel.getAttributeFilterMap().get(attribute).get(),
+                tableModel.getTableDef().getAttributeTypesMap().get(attribute), QueryFilter::new);
+        return filter.getComparisonOperator() == ComparisonOperator.IN ? List.of(filter.getValues()) : null;
+    }
+
+    private CompletableFuture<ItemCollection<QueryOutcome>> queryItems(QueryPlan plan, QuerySpec querySpec) {
+        return plan.index() == null ? queryTableItems(querySpec) : queryIndexItems(querySpec, plan.index());
+    }
+
+    /**
+     * Query one partition by several range key sub-ranges at once. The sub-ranges are chosen between the smallest
+     * and the largest range key of the partition, items are returned in the range key order.
+     * Only a few sub-ranges are read at the same time and each of them buffers a few pages, see {@link OrderedPages}.
+     * Falls back to the plain query when the range key can not be split.
+     */
+    private CompletableFuture<Iterable<Item>> queryInRangeSplits(QueryPlan plan, Job job) {
+        return supplyAsync(() -> RangeSplit.boundaries(
+                probeRangeKey(plan, true),
+                probeRangeKey(plan, false),
+                RangeSplit.splits()
+        ), io("range-probe")).thenCompose(boundaries -> {
+            if (boundaries.isEmpty()) {
+                return queryItems(plan, buildQuerySpec(plan.hashName(), plan.rangeName(), tableModel.getAttributeFilterMap(), null))
+                        .thenApply(collection -> plan.hydrate() ? hydratePages(collection) : collection);
+            }
+            List<Supplier<Iterable<List<Item>>>> subRanges = IntStream.range(0, boundaries.size() - 1)
+                    .<Supplier<Iterable<List<Item>>>>mapToObj(i -> () -> {
+                        QuerySpec querySpec = buildQuerySpec(plan.hashName(), keyValue(plan.hashName(), tableModel.getAttributeFilterMap()), plan.rangeName(),
+                                new RangeKeyCondition(plan.rangeName()).between(boundaries.get(i), boundaries.get(i + 1)), tableModel.getAttributeFilterMap(), null);
+                        ItemCollection<QueryOutcome> collection = queryItems(plan, querySpec).join();
+                        return () -> asStream(collection.pages())
+                                .map(page -> {
+                                    List<Item> items = asStream(page)
+                                            .filter(item -> i == 0 || !RangeSplit.belongsToPrevious(item.get(plan.rangeName()), boundaries.get(i)))
+                                            .toList();
+                                    return plan.hydrate() ? hydrateItems(items) : items;
+                                })
+                                .iterator();
+                    })
+                    .toList();
+            Iterable<Item> items = new OrderedPages(subRanges, EXPORT_CONCURRENCY, EXPORT_BUFFERED_PAGES, io("range-split"), job);
+            return CompletableFuture.completedFuture(items);
+        });
+    }
+
+    /**
+     * @return the smallest or the largest range key of the queried partition, null if the partition is empty
+     */
+    private Object probeRangeKey(QueryPlan plan, boolean smallest) {
+        QuerySpec querySpec = new QuerySpec()
+                .withHashKey(plan.hashName(), keyValue(plan.hashName(), tableModel.getAttributeFilterMap()))
+                .withScanIndexForward(smallest)
+                .withMaxResultSize(1);
+        ItemCollection<QueryOutcome> collection = plan.index() == null ? table.query(querySpec) : plan.index().query(querySpec);
+        return asStream(collection).findFirst().map(item -> item.get(plan.rangeName())).orElse(null);
     }
 
     private CompletableFuture<Void> processItemAsync(String json, boolean isRaw, Consumer<Item> command) {
         try {
             Item item = isRaw ? rawJsonToItem(json) : Item.fromJSON(json);
-            return runAsync(() -> command.accept(item));
+            return runAsync(() -> command.accept(item), io("write"));
         } catch (JsonProcessingException e) {
             return CompletableFuture.failedFuture(e);
         }
@@ -321,13 +1274,15 @@ public class TableGridController {
         return processItemAsync(json, isRaw, table::putItem);
     }
 
-    private CompletableFuture<Void> patchItems(List<Item> items, String jsonPatch, boolean isRaw) {
+    private CompletableFuture<Void> patchItems(List<Item> items, String jsonPatch, boolean isRaw, Job job) {
         if (items.isEmpty()) {
             return CompletableFuture.completedFuture(null);
         }
 
+        job.setTotal(items.size());
         return processItemAsync(jsonPatch, isRaw, patch -> items.forEach(item -> {
-            UpdateItemSpec updateItemSpec = new UpdateItemSpec();
+            job.checkpoint();
+            UpdateItemSpec updateItemSpec = new UpdateItemSpec().withReturnConsumedCapacity(ReturnConsumedCapacity.INDEXES);
             if (range() == null) {
                 updateItemSpec.withPrimaryKey(hash(), item.get(hash()));
             } else {
@@ -340,74 +1295,227 @@ public class TableGridController {
                             .collect(Collectors.toList())
             );
 
-            table.updateItem(updateItemSpec);
+            ConsumedCapacity capacity = table.updateItem(updateItemSpec).getUpdateItemResult().getConsumedCapacity();
+            if (capacity != null && capacity.getCapacityUnits() != null) {
+                job.addCapacity(capacity.getCapacityUnits());
+            }
+            job.addDone(1);
         }));
     }
 
-    private CompletableFuture<ItemCollection<ScanOutcome>> scanItems(Map<String, SimpleStringProperty> attributeFilterMap) {
+    private CompletableFuture<ItemCollection<ScanOutcome>> scanItems(Map<String, SimpleStringProperty> attributeFilterMap, Map<String, AttributeValue> exclusiveStartKey) {
+        return scanItems(buildScanSpec(attributeFilterMap, exclusiveStartKey));
+    }
+
+    private CompletableFuture<ItemCollection<ScanOutcome>> scanItems(ScanSpec scanSpec) {
         return supplyAsync(() -> {
-            ScanSpec scanSpec = new ScanSpec();
-            List<ScanFilter> filters = attributeFilterMap.entrySet().stream()
-                    .filter(entry -> Objects.nonNull(entry.getValue().get()) && entry.getValue().get().trim().length() > 0)
-                    .map(entry -> attributeValueToFilter(entry.getKey(), entry.getValue().get(), tableModel.getTableDef().getAttributeTypesMap().get(entry.getKey()), ScanFilter::new))
-                    .toList();
-            if (!filters.isEmpty()) {
-                scanSpec.withScanFilters(filters.toArray(new ScanFilter[]{}));
-            }
             LOG.fine(() -> String.format("Scan %1s = %2s", table.getTableName(), logAsJson(scanSpec)));
-            return table.scan(scanSpec.withMaxPageSize(PAGE_SIZE));
-        });
+            return table.scan(scanSpec);
+        }, io("scan"));
     }
 
-    private QuerySpec buildQuerySpec(String hashName, String rangeName, Map<String, SimpleStringProperty> attributeFilterMap) {
-        QuerySpec querySpec = new QuerySpec();
-        querySpec.withHashKey(hashName, attributeFilterMap.get(hashName).get());
-        if (rangeName != null && !StringUtils.isNullOrEmpty(attributeFilterMap.get(rangeName).get())) {
-            querySpec.withRangeKeyCondition(new RangeKeyCondition(rangeName).eq(attributeFilterMap.get(rangeName).get()));
+    private ScanSpec buildScanSpec(Map<String, SimpleStringProperty> attributeFilterMap, Map<String, AttributeValue> exclusiveStartKey) {
+        return buildScanSpec(attributeFilterMap, exclusiveStartKey, ConditionalOperator.AND);
+    }
+
+    private ScanSpec buildScanSpec(Map<String, SimpleStringProperty> attributeFilterMap, Map<String, AttributeValue> exclusiveStartKey, ConditionalOperator operator) {
+        ScanSpec scanSpec = new ScanSpec();
+        List<ScanFilter> filters = toScanFilters(attributeFilterMap);
+        // document paths can be filtered by expressions only, which can not be mixed with legacy filters
+        if (filters.stream().anyMatch(this::isDocumentPathFilter)) {
+            ExpressionBuilder expression = new ExpressionBuilder();
+            scanSpec.withFilterExpression(filterExpression(expression, filters, operator))
+                    .withNameMap(expression.getNameMap())
+                    .withValueMap(expression.getValueMap());
+        } else if (!filters.isEmpty()) {
+            scanSpec.withScanFilters(filters.toArray(new ScanFilter[]{}));
+            if (filters.size() > 1) {
+                scanSpec.withConditionalOperator(operator);
+            }
+        }
+        if (exclusiveStartKey != null) {
+            scanSpec.withExclusiveStartKey(PageNavigator.toKeyAttributes(exclusiveStartKey));
+        }
+        return scanSpec
+                .withMaxPageSize(pageSize.getPageLimit())
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.INDEXES);
+    }
+
+    /**
+     * Scan items that match all AND filters and any of the OR filters. Legacy filters can not mix both operators,
+     * so several OR filters together with AND filters are converted into the filter expression.
+     */
+    private ScanSpec buildScanSpec(Map<String, SimpleStringProperty> andFilters, Map<String, SimpleStringProperty> orFilters, Map<String, AttributeValue> exclusiveStartKey) {
+        List<ScanFilter> and = toScanFilters(andFilters);
+        List<ScanFilter> or = toScanFilters(orFilters);
+        if (and.isEmpty()) {
+            return buildScanSpec(orFilters, exclusiveStartKey, ConditionalOperator.OR);
+        }
+        if (or.size() == 1) {
+            Map<String, SimpleStringProperty> filters = new HashMap<>(andFilters);
+            filters.putAll(orFilters);
+            return buildScanSpec(filters, exclusiveStartKey, ConditionalOperator.AND);
+        }
+        ExpressionBuilder expression = new ExpressionBuilder();
+        ScanSpec scanSpec = new ScanSpec()
+                .withFilterExpression(filterExpression(expression, and, ConditionalOperator.AND) + " AND (" + filterExpression(expression, or, ConditionalOperator.OR) + ")")
+                .withNameMap(expression.getNameMap())
+                .withValueMap(expression.getValueMap());
+        if (exclusiveStartKey != null) {
+            scanSpec.withExclusiveStartKey(PageNavigator.toKeyAttributes(exclusiveStartKey));
+        }
+        return scanSpec
+                .withMaxPageSize(pageSize.getPageLimit())
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.INDEXES);
+    }
+
+    private List<ScanFilter> toScanFilters(Map<String, SimpleStringProperty> attributeFilterMap) {
+        return attributeFilterMap.entrySet().stream()
+                .filter(entry -> Objects.nonNull(entry.getValue().get()) && entry.getValue().get().trim().length() > 0)
+                .map(entry -> attributeValueToFilter(entry.getKey(), entry.getValue().get(), tableModel.getTableDef().getAttributeTypesMap().get(entry.getKey()), ScanFilter::new))
+                .toList();
+    }
+
+    /**
+     * Low level request for the async client with the filters of the spec
+     */
+    private ScanRequest toScanRequest(ScanSpec scanSpec) {
+        ScanRequest request = new ScanRequest(table.getTableName())
+                .withFilterExpression(scanSpec.getFilterExpression())
+                .withExpressionAttributeNames(scanSpec.getNameMap())
+                .withExpressionAttributeValues(scanSpec.getValueMap() == null ? null : ItemUtils.fromSimpleMap(scanSpec.getValueMap()))
+                .withConditionalOperator(scanSpec.getConditionalOperator())
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.INDEXES);
+        if (scanSpec.getScanFilters() != null) {
+            request.withScanFilter(scanSpec.getScanFilters().stream().collect(Collectors.toMap(
+                    ScanFilter::getAttribute,
+                    filter -> new Condition()
+                            .withComparisonOperator(filter.getComparisonOperator())
+                            .withAttributeValueList(filter.getValues() == null ? null : InternalUtils.toAttributeValues(filter.getValues()))
+            )));
         }
+        return request;
+    }
+
+    private QuerySpec buildQuerySpec(String hashName, String rangeName, Map<String, SimpleStringProperty> attributeFilterMap, Map<String, AttributeValue> exclusiveStartKey) {
+        return buildQuerySpec(hashName, keyValue(hashName, attributeFilterMap), rangeName, rangeKeyCondition(rangeName, attributeFilterMap), attributeFilterMap, exclusiveStartKey);
+    }
+
+    /**
+     * @param rangeName      name of the range key, it is excluded from the filters
+     * @param rangeCondition condition on the range key, nullable
+     */
+    private QuerySpec buildQuerySpec(String hashName, Object hashValue, String rangeName, RangeKeyCondition rangeCondition,
+                                     Map<String, SimpleStringProperty> attributeFilterMap, Map<String, AttributeValue> exclusiveStartKey) {
+        QuerySpec querySpec = new QuerySpec();
         List<QueryFilter> filters = attributeFilterMap.entrySet().stream()
                 .filter(entry -> !entry.getKey().equals(hashName) && !entry.getKey().equals(rangeName))
                 .filter(entry -> !StringUtils.isNullOrEmpty(entry.getValue().get()))
                 .map(entry -> attributeValueToFilter(entry.getKey(), entry.getValue().get(), tableModel.getTableDef().getAttributeTypesMap().get(entry.getKey()), QueryFilter::new))
                 .toList();
-        if (!filters.isEmpty()) {
-            querySpec.withQueryFilters(filters.toArray(new QueryFilter[]{}));
+        if (filters.stream().anyMatch(this::isDocumentPathFilter)) {
+            ExpressionBuilder expression = new ExpressionBuilder();
+            querySpec.withKeyConditionExpression(expression.keyCondition(hashName, hashValue, rangeCondition))
+                    .withFilterExpression(filterExpression(expression, filters, ConditionalOperator.AND))
+                    .withNameMap(expression.getNameMap())
+                    .withValueMap(expression.getValueMap());
+        } else {
+            querySpec.withHashKey(hashName, hashValue);
+            if (rangeCondition != null) {
+                querySpec.withRangeKeyCondition(rangeCondition);
+            }
+            if (!filters.isEmpty()) {
+                querySpec.withQueryFilters(filters.toArray(new QueryFilter[]{}));
+            }
+        }
+        if (exclusiveStartKey != null) {
+            querySpec.withExclusiveStartKey(PageNavigator.toKeyAttributes(exclusiveStartKey));
+        }
+
+        return querySpec
+                .withMaxPageSize(pageSize.getPageLimit())
+                .withReturnConsumedCapacity(ReturnConsumedCapacity.INDEXES);
+    }
+
+    private RangeKeyCondition rangeKeyCondition(String rangeName, Map<String, SimpleStringProperty> attributeFilterMap) {
+        SimpleStringProperty rangeFilter = rangeName == null ? null : attributeFilterMap.get(rangeName);
+        if (rangeFilter != null && !StringUtils.isNullOrEmpty(rangeFilter.get())) {
+            return new RangeKeyCondition(rangeName).eq(keyValue(rangeName, attributeFilterMap));
         }
+        return null;
+    }
+
+    private boolean isDocumentPathFilter(Filter<?> filter) {
+        return tableModel.getTableDef().getDocumentPaths().contains(filter.getAttribute());
+    }
+
+    private String filterExpression(ExpressionBuilder expression, List<? extends Filter<?>> filters, ConditionalOperator operator) {
+        return filters.stream()
+                .map(filter -> {
+                    String attribute = filter.getAttribute();
+                    DocumentPath path = isDocumentPathFilter(filter) ? DocumentPath.parse(attribute) : DocumentPath.of(attribute);
+                    return "(" + expression.condition(path, filter) + ")";
+                })
+                .collect(Collectors.joining(" " + operator + " "));
+    }
 
-        return querySpec.withMaxPageSize(PAGE_SIZE);
+    /**
+     * @return value of the key attribute filter converted to the attribute type
+     */
+    private Object keyValue(String attribute, Map<String, SimpleStringProperty> attributeFilterMap) {
+        String value = withoutOrPrefix(attributeFilterMap.get(attribute).get()).trim();
+        if (tableModel.getTableDef().getAttributeTypesMap().get(attribute) == Type.NUMBER) {
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                // let DynamoDB report the wrong type
+            }
+        }
+        return value;
     }
 
     private CompletableFuture<ItemCollection<QueryOutcome>> queryTableItems(QuerySpec querySpec) {
         return supplyAsync(() -> {
             LOG.fine(() -> String.format("Query %1s = %2s", table.getTableName(), logAsJson(querySpec)));
             return table.query(querySpec);
-        });
+        }, io("query"));
     }
 
     private CompletableFuture<ItemCollection<QueryOutcome>> queryIndexItems(QuerySpec querySpec, Index index) {
         return supplyAsync(() -> {
             LOG.fine(() -> String.format("Query %1s = %2s", index.getIndexName(), logAsJson(querySpec)));
             return index.query(querySpec);
-        });
+        }, io("query-index"));
     }
 
 
-    private CompletableFuture<Void> delete(List<Item> items) {
-        return runAsync(() -> Observable.fromIterable(items)
-                .buffer(25)
-                .map(list -> {
-                    TableWriteItems deleteItems = new TableWriteItems(table.getTableName());
-                    list.forEach(item -> {
-                        if (range() == null) {
-                            deleteItems.addHashOnlyPrimaryKeyToDelete(hash(), item.get(hash()));
-                        } else {
-                            deleteItems.addHashAndRangePrimaryKeyToDelete(hash(), item.get(hash()), range(), item.get(range()));
-                        }
+    private CompletableFuture<Void> delete(List<Item> items, Job job) {
+        job.setTotal(items.size());
+        return runAsync(() -> writeAll(Observable.fromIterable(items)
+                .map(item -> new WriteRequest(new DeleteRequest(primaryKey(item, hash(), range())))), job
+        ), io("delete"));
+    }
+
+    /**
+     * Send the writes by concurrent batches, the source is read as fast as the batches are accepted
+     */
+    private void writeAll(Observable<WriteRequest> requests, Job job) {
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        try {
+            requests.buffer(AsyncDynamoDB.BATCH_WRITE_LIMIT)
+                    .blockingForEach(batch -> {
+                        job.checkpoint();
+                        batches.add(asyncClient.batchWrite(table.getTableName(), batch).thenAccept(capacity -> {
+                            job.addDone(batch.size());
+                            job.addCapacity(capacity);
+                        }));
                     });
-                    return deleteItems;
-                })
-                .subscribe(documentClient::batchWriteItem)
-        );
+        } catch (RuntimeException e) {
+            // the writes are stopped only when the batches already sent are done
+            CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).exceptionally(throwable -> null).join();
+            throw e;
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
     }
 
     /**
@@ -433,13 +1541,42 @@ public class TableGridController {
         tableModel.getTableDef().setTotalCount(originalTableDescription.getItemCount());
     }
 
-    private void bindToModel(Pair<List<Item>, Page<Item, ?>> pair) {
+    private void bindToModel(Loading loading, Pair<List<Item>, Page<Item, ?>> pair) {
+        if (loading.isCancelled()) {
+            return;
+        }
+        mergeAttributeTypes(pair.getKey());
+        tableModel.setCurrentPage(pair.getValue());
+        tableModel.getPageNavigator().record(0, pair.getKey(), PageNavigator.lastEvaluatedKey(pair.getValue()));
+        tableModel.getPageNavigator().setCurrentIndex(0);
+        tableModel.getRows().setAll(pair.getKey());
+    }
+
+    /**
+     * Add types of new attributes keeping the key attributes first
+     */
+    private void mergeAttributeTypes(List<Item> items) {
         Map<String, Type> attributesTypes = new TreeMap<>(KEYS_FIRST(hash(), range()));
-        attributesTypes.putAll(defineAttributesTypes(pair.getKey()));
+        attributesTypes.putAll(defineAttributesTypes(items));
+        attributesTypes.keySet().removeAll(tableModel.getTableDef().getAttributeTypesMap().keySet());
+        tableModel.getTableDef().getAttributeTypesMap().putAll(attributesTypes);
+    }
 
+    /**
+     * Define types of all attributes except declared in the table by the items
+     */
+    private void redefineAttributeTypes(List<Item> items) {
+        // the sample may be loaded before the table is described
+        Set<String> declared = Optional.ofNullable(tableModel.getOriginalTableDescription())
+                .map(TableDescription::getAttributeDefinitions)
+                .stream()
+                .flatMap(List::stream)
+                .map(AttributeDefinition::getAttributeName)
+                .collect(Collectors.toSet());
+        Map<String, Type> attributesTypes = new TreeMap<>(KEYS_FIRST(hash(), range()));
+        attributesTypes.putAll(defineAttributesTypes(items));
+        attributesTypes.keySet().removeAll(declared);
         tableModel.getTableDef().getAttributeTypesMap().putAll(attributesTypes);
-        tableModel.setCurrentPage(pair.getValue());
-        tableModel.getRows().addAll(pair.getKey());
     }
 
     private void bindToModel(TableDef tableDef) {
@@ -474,4 +1611,53 @@ public class TableGridController {
     public void openUrl(String url) {
         hostServices.showDocument(url);
     }
+
+    /**
+     * One request of OR filters
+     *
+     * @param collection reads the request from the start key, null to read it from the beginning
+     * @param returns    whether the item is returned by this request
+     */
+    private record OrRequest(Function<Map<String, AttributeValue>, ItemCollection<?>> collection, Predicate<Item> returns) {
+    }
+
+    /**
+     * Query of the table when index is null or of the global secondary index
+     *
+     * @param hashValues values of the hash key to query each, null if the hash key filter is a single value
+     * @param hydrate    the index does not project all attributes, its items must be replaced by the table items
+     */
+    private record QueryPlan(Index index, String hashName, String rangeName, List<Object> hashValues, boolean hydrate) {
+
+        boolean isMultiKey() {
+            return hashValues != null;
+        }
+    }
+
+    /**
+     * State of one loading shared with background threads. A stopped loading finishes after the current page,
+     * results of a cancelled loading are not shown anymore.
+     */
+    private static class Loading {
+
+        private volatile boolean stopped;
+        private volatile boolean cancelled;
+
+        void stop() {
+            this.stopped = true;
+        }
+
+        void cancel() {
+            this.cancelled = true;
+            this.stopped = true;
+        }
+
+        boolean isStopped() {
+            return stopped;
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+    }
 }
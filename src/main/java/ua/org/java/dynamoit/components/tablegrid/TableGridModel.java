@@ -41,8 +41,11 @@ public class TableGridModel {
     private final ObservableList<Item> rows = FXCollections.observableArrayList();
     private final IntegerBinding rowsSize = Bindings.createIntegerBinding(rows::size, rows);
     private Page<Item, ?> currentPage;
+    private final PageNavigator pageNavigator = new PageNavigator();
+    private final ScanProgress scanProgress = new ScanProgress();
 
     private final ObservableMap<String, SimpleStringProperty> attributeFilterMap = FXCollections.observableHashMap();
+    private final ObservableMap<String, SimpleStringProperty> filterPreviewMap = FXCollections.observableHashMap();
 
     public TableGridModel(MainModel.ProfileModel profileModel) {
         this.profileModel = profileModel;
@@ -92,6 +95,13 @@ public class TableGridModel {
         return attributeFilterMap;
     }
 
+    /**
+     * Hints shown under the filters being typed, see {@link FilterPreview}
+     */
+    public ObservableMap<String, SimpleStringProperty> getFilterPreviewMap() {
+        return filterPreviewMap;
+    }
+
     public Page<Item, ?> getCurrentPage() {
         return currentPage;
     }
@@ -100,6 +110,14 @@ public class TableGridModel {
         this.currentPage = currentPage;
     }
 
+    public PageNavigator getPageNavigator() {
+        return pageNavigator;
+    }
+
+    public ScanProgress getScanProgress() {
+        return scanProgress;
+    }
+
     public TableDescription getOriginalTableDescription() {
         return originalTableDescription;
     }
@@ -17,6 +17,7 @@
 
 package ua.org.java.dynamoit.components.tablegrid;
 
+import atlantafx.base.theme.Styles;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleStringProperty;
@@ -30,14 +31,18 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
+import org.reactfx.Change;
 import org.reactfx.EventStream;
+import org.reactfx.EventStreams;
 import ua.org.java.dynamoit.components.tablegrid.highlight.Highlighter;
 import ua.org.java.dynamoit.components.thememanager.ThemeManager;
+import ua.org.java.dynamoit.db.CapacityLedger;
 import ua.org.java.dynamoit.utils.DX;
 import ua.org.java.dynamoit.utils.Utils;
 import ua.org.java.dynamoit.widgets.ClearableTextField;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.BiConsumer;
@@ -53,6 +58,7 @@ public class TableGridView extends VBox {
 
     private static final int PADDING = 7 + 7; // left + right paddings
     private static final int FONT_SIZE = 10;
+    private static final Duration PREVIEW_DELAY = Duration.ofMillis(400);
 
     private final TableGridModel tableModel;
     private final ThemeManager themeManager;
@@ -112,6 +118,12 @@ public class TableGridView extends VBox {
                             button.getStyleClass().addAll(BUTTON_ICON);
                             button.setOnAction(event -> reloadData());
                         }),
+                        DX.create(Button::new, button -> {
+                            button.setTooltip(new Tooltip("Load a random sample of the table"));
+                            button.setGraphic(DX.icon("icons/table.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.setOnAction(event -> controller.onLoadSample());
+                        }),
                         DX.create(Button::new, button -> {
                             button.setTooltip(new Tooltip("Compare documents"));
                             button.setGraphic(DX.icon("icons/edit_diff.png"));
@@ -144,7 +156,7 @@ public class TableGridView extends VBox {
                                 fileChooser.setSelectedExtensionFilter(jsonFiles);
                                 File file = fileChooser.showSaveDialog(this.getScene().getWindow());
                                 if (file != null) {
-                                    controller.onSaveToFile(file);
+                                    withinReadBudget(controller.estimateExportReadUnits(), () -> controller.onSaveToFile(file));
                                 }
                             });
                         }),
@@ -173,9 +185,68 @@ public class TableGridView extends VBox {
                             button.getStyleClass().addAll(BUTTON_ICON);
                             button.setOnAction(event -> createTableInfoDialog().show());
                         }),
+                        new Separator(),
+                        DX.create(Button::new, button -> {
+                            button.setTooltip(new Tooltip("Previous page"));
+                            button.setGraphic(DX.icon("icons/arrow_up.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.disableProperty().bind(tableModel.getPageNavigator().hasPreviousProperty().not());
+                            button.setOnAction(event -> controller.onPreviousPage());
+                        }),
+                        DX.create(TextField::new, textField -> {
+                            textField.setTooltip(new Tooltip("Go to page"));
+                            textField.setPrefColumnCount(3);
+                            textField.setAlignment(Pos.CENTER_RIGHT);
+                            tableModel.getPageNavigator().currentIndexProperty().addListener((observable, oldValue, newValue) ->
+                                    textField.setText(newValue.intValue() < 0 ? "" : String.valueOf(newValue.intValue() + 1))
+                            );
+                            textField.setOnAction(event -> {
+                                try {
+                                    controller.onGoToPage(Integer.parseInt(textField.getText().trim()) - 1);
+                                } catch (NumberFormatException e) {
+                                    int index = tableModel.getPageNavigator().getCurrentIndex();
+                                    textField.setText(index < 0 ? "" : String.valueOf(index + 1));
+                                }
+                            });
+                        }),
+                        DX.create(Button::new, button -> {
+                            button.setTooltip(new Tooltip("Next page"));
+                            button.setGraphic(DX.icon("icons/arrow_down.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.disableProperty().bind(tableModel.getPageNavigator().hasNextProperty().not());
+                            button.setOnAction(event -> controller.onNextPage());
+                        }),
                         DX.spacer(),
+                        DX.create(Label::new, label -> {
+                            ScanProgress progress = tableModel.getScanProgress();
+                            label.textProperty().bind(progress.textProperty());
+                            label.visibleProperty().bind(progress.pagesReadProperty().greaterThan(0));
+                            label.managedProperty().bind(label.visibleProperty());
+                        }),
+                        DX.create(Button::new, button -> {
+                            button.setTooltip(new Tooltip("Stop loading, next items can be loaded later"));
+                            button.setGraphic(DX.icon("icons/cross.png"));
+                            button.getStyleClass().addAll(BUTTON_ICON);
+                            button.visibleProperty().bind(tableModel.getScanProgress().runningProperty());
+                            button.managedProperty().bind(button.visibleProperty());
+                            button.setOnAction(event -> controller.onStopLoading());
+                        }),
+                        DX.create(Button::new, button -> {
+                            ScanProgress progress = tableModel.getScanProgress();
+                            button.setText("Parallel");
+                            button.setTooltip(new Tooltip("Continue the scan by parallel segments"));
+                            button.visibleProperty().bind(progress.runningProperty().and(progress.scanProperty()).and(progress.parallelProperty().not()));
+                            button.managedProperty().bind(button.visibleProperty());
+                            button.setOnAction(event -> withinReadBudget(controller.estimateScanReadUnits(), controller::onScanInParallel));
+                        }),
                         DX.create(Label::new, t -> {
                             t.textProperty().bind(concat("Count [", tableModel.rowsSizeProperty(), " of ~", tableModel.getTableDef().totalCountProperty(), "]"));
+                            t.setTooltip(new Tooltip("Double click to count all items matched by the filters in background"));
+                            t.setOnMouseClicked(event -> {
+                                if (event.getClickCount() == 2) {
+                                    withinReadBudget(controller.estimateCountReadUnits(), controller::onCountItems);
+                                }
+                            });
                         })
                 )),
                 DX.create(() -> this.tableView, tableView -> {
@@ -268,11 +339,27 @@ public class TableGridView extends VBox {
         return DX.create(TableColumn::new, filter -> {
             filter.setId(attrName);
             filter.getStyleClass().add("table-column-filter");
-            filter.setGraphic(DX.create(ClearableTextField::new, textField -> {
-                textField.textProperty().bindBidirectional(filterProperty);
-                textField.setOnAction(event -> reloadData());
-                textField.setOnClear(event -> reloadData());
-            }));
+            ClearableTextField textField = DX.create(ClearableTextField::new, field -> {
+                field.textProperty().bindBidirectional(filterProperty);
+                field.setOnAction(event -> reloadData());
+                field.setOnClear(event -> reloadData());
+            });
+            EventStream<String> typing = EventStreams.changesOf(textField.textProperty())
+                    .filter(__ -> textField.isFocused())
+                    .map(Change::getNewValue);
+            typing.subscribe(__ -> controller.onCancelPreview());
+            typing.successionEnds(PREVIEW_DELAY).subscribe(__ -> controller.onPreviewFilter(attrName));
+
+            SimpleStringProperty previewProperty = tableModel.getFilterPreviewMap().computeIfAbsent(attrName, s -> new SimpleStringProperty());
+            filter.setGraphic(DX.create(VBox::new, (VBox box) -> List.of(
+                    textField,
+                    DX.create(Label::new, label -> {
+                        label.getStyleClass().add(Styles.TEXT_SMALL);
+                        label.textProperty().bind(previewProperty);
+                        label.visibleProperty().bind(isNotEmpty(previewProperty));
+                        label.managedProperty().bind(label.visibleProperty());
+                    })
+            )));
             filter.getColumns().add(DX.create((Supplier<TableColumn<Item, String>>) TableColumn::new, column -> {
                 if (attrName.equals(tableModel.getTableDef().getHashAttribute())) {
                     column.setGraphic(DX.icon("icons/key.png"));
@@ -283,8 +370,9 @@ public class TableGridView extends VBox {
                 column.setText(attrName);
                 column.setId(attrName);
                 column.setPrefWidth(200);
+                DocumentPath path = tableModel.getTableDef().getDocumentPaths().contains(attrName) ? DocumentPath.parse(attrName) : DocumentPath.of(attrName);
                 column.setCellValueFactory(param -> {
-                    Object value = param.getValue().get(attrName);
+                    Object value = path.resolve(param.getValue());
                     return new SimpleStringProperty(value != null ? value.toString() : "");
                 });
                 column.setCellFactory(param -> {
@@ -347,6 +435,18 @@ public class TableGridView extends VBox {
                                 }
                             });
                         }),
+                        DX.create(MenuItem::new, menuPath -> {
+                            menuPath.setText("Show nested attribute...");
+                            menuPath.setGraphic(DX.icon("icons/table.png"));
+                            menuPath.setOnAction(__ -> {
+                                TextInputDialog dialog = new TextInputDialog(attrName + ".");
+                                dialog.setTitle("Show nested attribute");
+                                dialog.setHeaderText("Path inside of the document, e.g. address.city or items[0].sku");
+                                dialog.showAndWait()
+                                        .filter(path -> !path.isBlank())
+                                        .ifPresent(controller::onAddDocumentPath);
+                            });
+                        }),
                         DX.create(MenuItem::new, menuEdit -> {
                             menuEdit.setText("Edit document");
                             menuEdit.setGraphic(DX.icon("icons/page_edit.png"));
@@ -412,6 +512,24 @@ public class TableGridView extends VBox {
         }
     }
 
+    /**
+     * Run the action at once if its expected read units fit into the budget, otherwise ask the user
+     */
+    private void withinReadBudget(double readUnits, Runnable action) {
+        CapacityLedger ledger = controller.getLedger();
+        if (ledger.exceedsReadBudget(readUnits)) {
+            Alert confirmation = new Alert(Alert.AlertType.CONFIRMATION, String.format(
+                    "The whole table is read: about %,.0f read units, $%,.2f on demand. The budget of an action is %,.0f read units. Continue?",
+                    readUnits, ledger.cost(readUnits, 0), ledger.getReadBudget()
+            ));
+            confirmation.setHeaderText("Read budget exceeded");
+            if (confirmation.showAndWait().filter(buttonType -> buttonType == ButtonType.OK).isEmpty()) {
+                return;
+            }
+        }
+        action.run();
+    }
+
     private void deleteSelectedItems() {
         List<Item> items = tableView.getSelectionModel().getSelectedItems();
         Alert deleteConfirmation = new Alert(Alert.AlertType.CONFIRMATION, "Do you really want to delete " + items.size() + " item(s)?");
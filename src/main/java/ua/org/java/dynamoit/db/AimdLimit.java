@@ -0,0 +1,64 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Number of requests of a profile allowed at once, adjusted by the responses: every successful response adds
+ * 1/limit (one permit per round of requests), a throttled response halves the limit. Throttled responses of one
+ * round of requests sent together halve the limit once.
+ */
+public class AimdLimit {
+
+    private static final long DECREASE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxLimit;
+    private final LongSupplier nanoTime;
+    private double limit;
+    private long lastDecrease;
+    private boolean decreased;
+
+    public AimdLimit(int maxLimit) {
+        this(maxLimit, System::nanoTime);
+    }
+
+    AimdLimit(int maxLimit, LongSupplier nanoTime) {
+        this.maxLimit = maxLimit;
+        this.nanoTime = nanoTime;
+        this.limit = maxLimit;
+    }
+
+    public synchronized void onSuccess() {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+
+    public synchronized void onThrottle() {
+        long now = nanoTime.getAsLong();
+        if (!decreased || now - lastDecrease >= DECREASE_INTERVAL_NANOS) {
+            limit = Math.max(1, limit / 2);
+            lastDecrease = now;
+            decreased = true;
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.*;
+import ua.org.java.dynamoit.utils.TaskExecutors;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Asynchronous access to DynamoDB for bulk pipelines: imports, deletes and counts. Exports read pages
+ * by the document api instead, their speed is limited by the file writer.
+ * <p>
+ * Every request runs on its own virtual thread over the shared client of the profile, which limits the number of
+ * requests sent at once to its connection pool. At most {@code maxInFlight} requests may be submitted and not yet
+ * finished, a producer that submits more is blocked until one of them finishes, so a pipeline never reads its source
+ * faster than DynamoDB takes the data. Cancelling a returned future interrupts its request.
+ */
+public class AsyncDynamoDB {
+
+    /**
+     * Max number of items of one BatchWriteItem request
+     */
+    public static final int BATCH_WRITE_LIMIT = 25;
+
+    /**
+     * Max number of BatchWriteItem requests sent for one batch, including the retries of unprocessed items
+     */
+    public static final int BATCH_WRITE_ATTEMPTS = 10;
+
+    private static final long BACKOFF_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+
+    private final AmazonDynamoDB client;
+    private final int maxInFlight;
+    private final Semaphore window;
+    private final Executor executor;
+
+    public AsyncDynamoDB(AmazonDynamoDB client, int maxInFlight, String name) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        this.window = new Semaphore(maxInFlight);
+        this.executor = RequestPriority.BULK.executor(CapacityLedger.inherit(TaskExecutors.io(name + "/async")));
+    }
+
+    /**
+     * Run the request in background, blocks while the number of unfinished requests is at the limit
+     */
+    public <T> CompletableFuture<T> submit(Function<AmazonDynamoDB, T> request) {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        future.whenComplete((result, throwable) -> {
+            Thread thread = runner.get();
+            if (future.isCancelled() && thread != null) {
+                thread.interrupt();
+            }
+        });
+        try {
+            executor.execute(() -> {
+                runner.set(Thread.currentThread());
+                try {
+                    if (!future.isCancelled()) {
+                        future.complete(request.apply(client));
+                    }
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    runner.set(null);
+                    Thread.interrupted();
+                    window.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            window.release();
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Write up to {@value BATCH_WRITE_LIMIT} puts or deletes, unprocessed items are sent again after a growing pause
+     * up to {@value BATCH_WRITE_ATTEMPTS} attempts. The retries stop when the future is cancelled.
+     *
+     * @return consumed write capacity units, fails by {@link UnprocessedItemsException} with the items left
+     * by the last attempt
+     */
+    public CompletableFuture<Double> batchWrite(String tableName, List<WriteRequest> requests) {
+        return submit(client -> {
+            Map<String, List<WriteRequest>> pending = Map.of(tableName, requests);
+            long backoffMillis = BACKOFF_MILLIS;
+            double capacityUnits = 0;
+            for (int attempt = 1; ; attempt++) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("BatchWriteItem is cancelled");
+                }
+                BatchWriteItemResult result = client.batchWriteItem(new BatchWriteItemRequest(pending)
+                        .withReturnConsumedCapacity(ReturnConsumedCapacity.INDEXES));
+                if (result.getConsumedCapacity() != null) {
+                    capacityUnits += result.getConsumedCapacity().stream()
+                            .map(ConsumedCapacity::getCapacityUnits)
+                            .filter(Objects::nonNull)
+                            .mapToDouble(Double::doubleValue)
+                            .sum();
+                }
+                if (result.getUnprocessedItems() == null || result.getUnprocessedItems().isEmpty()) {
+                    return capacityUnits;
+                }
+                pending = result.getUnprocessedItems();
+                if (attempt == BATCH_WRITE_ATTEMPTS) {
+                    throw new UnprocessedItemsException("BatchWriteItem", attempt, pending);
+                }
+                sleep(backoffMillis);
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+            }
+        });
+    }
+
+    /**
+     * Count items matched by the scan, segments are scanned at once
+     *
+     * @param request       table and filters, the request itself is not changed
+     * @param totalSegments number of parallel scan segments
+     */
+    public CompletableFuture<Long> count(ScanRequest request, int totalSegments) {
+        return count(request, totalSegments, result -> {
+        });
+    }
+
+    /**
+     * Count items matched by the scan, segments are scanned at once
+     *
+     * @param request       table and filters, the request itself is not changed
+     * @param totalSegments number of parallel scan segments
+     * @param onPage        called with every received page on the thread of its segment
+     */
+    public CompletableFuture<Long> count(ScanRequest request, int totalSegments, Consumer<ScanResult> onPage) {
+        List<CompletableFuture<Long>> segments = IntStream.range(0, totalSegments)
+                .mapToObj(segment -> submit(client -> {
+                    ScanRequest scanRequest = request.clone()
+                            .withSelect(Select.COUNT)
+                            .withSegment(segment)
+                            .withTotalSegments(totalSegments);
+                    long count = 0;
+                    do {
+                        ScanResult result = client.scan(scanRequest);
+                        onPage.accept(result);
+                        count += result.getCount();
+                        scanRequest.setExclusiveStartKey(result.getLastEvaluatedKey());
+                    } while (scanRequest.getExclusiveStartKey() != null);
+                    return count;
+                }))
+                .toList();
+        return CompletableFuture.allOf(segments.toArray(CompletableFuture[]::new))
+                .thenApply(v -> segments.stream().mapToLong(CompletableFuture::join).sum());
+    }
+
+    /**
+     * @return number of submitted and not yet finished requests
+     */
+    public int getInFlight() {
+        return maxInFlight - window.availablePermits();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while retrying unprocessed items");
+        }
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.services.dynamodbv2.model.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.Supplier;
+
+/**
+ * Capacity consumed by the application, accounted for the session, every table and index, and the tabs and jobs
+ * that sent the requests.
+ * <p>
+ * Every request asks for the consumed capacity by indexes. A request is charged to the accounts of its thread, set
+ * by {@link Account#call(Supplier)}; executors made by {@link Account#inherit(Executor)} and {@link #inherit(Executor)}
+ * pass them to the tasks they run.
+ * <p>
+ * The cost is estimated by on-demand prices in USD per million request units, set by the system properties
+ * {@value READ_PRICE_PROPERTY} and {@value WRITE_PRICE_PROPERTY}. Actions that are expected to read more than
+ * {@value READ_BUDGET_PROPERTY} units are confirmed by the user, 0 disables the budget.
+ */
+public class CapacityLedger {
+
+    public static final String READ_PRICE_PROPERTY = "dynamoit.cost.readUnitPrice";
+    public static final String WRITE_PRICE_PROPERTY = "dynamoit.cost.writeUnitPrice";
+    public static final String READ_BUDGET_PROPERTY = "dynamoit.cost.readBudget";
+
+    /**
+     * Tabs and jobs listed by the ledger, the older ones are charged still but only the session and the tables keep
+     * their capacity
+     */
+    static final int MAX_ACTIONS = 100;
+
+    static final Set<String> WRITE_OPERATIONS = Set.of("putItem", "updateItem", "deleteItem", "batchWriteItem", "transactWriteItems");
+
+    private static final ThreadLocal<List<Account>> CHARGED = ThreadLocal.withInitial(List::of);
+
+    public enum Kind {
+        SESSION, TAB, JOB, TABLE, INDEX
+    }
+
+    private final double readUnitPrice;
+    private final double writeUnitPrice;
+    private volatile double readBudget;
+    private final Account session = new Account(Kind.SESSION, "Session");
+    private final List<Account> actions = new CopyOnWriteArrayList<>();
+    private final Map<String, Account> tables = new ConcurrentHashMap<>();
+
+    public CapacityLedger() {
+        this(
+                Double.parseDouble(System.getProperty(READ_PRICE_PROPERTY, "0.125")),
+                Double.parseDouble(System.getProperty(WRITE_PRICE_PROPERTY, "0.625")),
+                Double.parseDouble(System.getProperty(READ_BUDGET_PROPERTY, "0"))
+        );
+    }
+
+    public CapacityLedger(double readUnitPrice, double writeUnitPrice, double readBudget) {
+        this.readUnitPrice = readUnitPrice;
+        this.writeUnitPrice = writeUnitPrice;
+        this.readBudget = readBudget;
+    }
+
+    /**
+     * Create the account of a tab or a job, the oldest account is dropped from the list after {@value MAX_ACTIONS}
+     */
+    public synchronized Account open(Kind kind, String name) {
+        Account account = new Account(kind, name);
+        actions.add(account);
+        while (actions.size() > MAX_ACTIONS) {
+            actions.remove(0);
+        }
+        return account;
+    }
+
+    public Account getSession() {
+        return session;
+    }
+
+    /**
+     * @return the session, the last tabs and jobs in the order they were opened, then tables and indexes by name
+     */
+    public List<Account> getAccounts() {
+        List<Account> accounts = new ArrayList<>();
+        accounts.add(session);
+        accounts.addAll(actions);
+        tables.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> accounts.add(entry.getValue()));
+        return accounts;
+    }
+
+    /**
+     * @return estimated cost in USD
+     */
+    public double cost(double readUnits, double writeUnits) {
+        return (readUnits * readUnitPrice + writeUnits * writeUnitPrice) / 1_000_000;
+    }
+
+    public double cost(Account account) {
+        return cost(account.getReadUnits(), account.getWriteUnits());
+    }
+
+    /**
+     * @return read units an action may consume without confirmation, 0 if there is no budget
+     */
+    public double getReadBudget() {
+        return readBudget;
+    }
+
+    public void setReadBudget(double readBudget) {
+        this.readBudget = readBudget;
+    }
+
+    public boolean exceedsReadBudget(double readUnits) {
+        return readBudget > 0 && readUnits > readBudget;
+    }
+
+    /**
+     * Charge the capacity consumed by the call to the session, its tables and indexes and the accounts of the thread
+     *
+     * @param result response of the call
+     */
+    public void record(String profile, String operation, Object result) {
+        boolean write = WRITE_OPERATIONS.contains(operation);
+        for (ConsumedCapacity capacity : consumedCapacity(result)) {
+            double units = Optional.ofNullable(capacity.getCapacityUnits()).orElse(0.0);
+            String table = profile + "/" + capacity.getTableName();
+            session.add(units, write);
+            tables.computeIfAbsent(table, name -> new Account(Kind.TABLE, name)).add(units, write);
+            indexes(capacity).forEach((index, indexCapacity) -> tables
+                    .computeIfAbsent(table + "/" + index, name -> new Account(Kind.INDEX, name))
+                    .add(Optional.ofNullable(indexCapacity.getCapacityUnits()).orElse(0.0), write));
+            CHARGED.get().forEach(account -> account.add(units, write));
+        }
+    }
+
+    /**
+     * Ask for the capacity consumed by indexes if the request can return it. The request is copied, the caller's
+     * one is left as it is.
+     *
+     * @return arguments of the call with the copied request
+     */
+    static Object[] requestIndexes(Object[] args) {
+        if (args == null || args.length == 0 || !(args[0] instanceof AmazonWebServiceRequest request)) {
+            return args;
+        }
+        String indexes = ReturnConsumedCapacity.INDEXES.toString();
+        AmazonWebServiceRequest copy = request.clone();
+        if (copy instanceof ScanRequest scan) {
+            scan.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof QueryRequest query) {
+            query.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof GetItemRequest get) {
+            get.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof BatchGetItemRequest batchGet) {
+            batchGet.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof PutItemRequest put) {
+            put.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof UpdateItemRequest update) {
+            update.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof DeleteItemRequest delete) {
+            delete.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof BatchWriteItemRequest batchWrite) {
+            batchWrite.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof TransactGetItemsRequest transactGet) {
+            transactGet.setReturnConsumedCapacity(indexes);
+        } else if (copy instanceof TransactWriteItemsRequest transactWrite) {
+            transactWrite.setReturnConsumedCapacity(indexes);
+        } else {
+            return args;
+        }
+        Object[] result = args.clone();
+        result[0] = copy;
+        return result;
+    }
+
+    /**
+     * @return capacity returned by the result of a request which asked for it
+     */
+    static List<ConsumedCapacity> consumedCapacity(Object result) {
+        if (result == null) {
+            return List.of();
+        }
+        try {
+            Object capacity = result.getClass().getMethod("getConsumedCapacity").invoke(result);
+            Collection<?> capacities = capacity instanceof Collection<?> collection ? collection : Collections.singleton(capacity);
+            return capacities.stream()
+                    .filter(ConsumedCapacity.class::isInstance)
+                    .map(ConsumedCapacity.class::cast)
+                    .toList();
+        } catch (ReflectiveOperationException e) {
+            return List.of();
+        }
+    }
+
+    private static Map<String, Capacity> indexes(ConsumedCapacity capacity) {
+        Map<String, Capacity> indexes = new HashMap<>();
+        Optional.ofNullable(capacity.getGlobalSecondaryIndexes()).ifPresent(indexes::putAll);
+        Optional.ofNullable(capacity.getLocalSecondaryIndexes()).ifPresent(indexes::putAll);
+        return indexes;
+    }
+
+    /**
+     * Executor that charges its tasks to the accounts of the code that submits them
+     */
+    public static Executor inherit(Executor executor) {
+        return command -> {
+            List<Account> accounts = CHARGED.get();
+            executor.execute(() -> charge(accounts, command));
+        };
+    }
+
+    private static void charge(List<Account> accounts, Runnable command) {
+        List<Account> previous = CHARGED.get();
+        CHARGED.set(accounts);
+        try {
+            command.run();
+        } finally {
+            CHARGED.set(previous);
+        }
+    }
+
+    public static class Account {
+
+        private final Kind kind;
+        private final String name;
+        private final DoubleAdder readUnits = new DoubleAdder();
+        private final DoubleAdder writeUnits = new DoubleAdder();
+
+        private Account(Kind kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getReadUnits() {
+            return readUnits.sum();
+        }
+
+        public double getWriteUnits() {
+            return writeUnits.sum();
+        }
+
+        private void add(double units, boolean write) {
+            (write ? writeUnits : readUnits).add(units);
+        }
+
+        /**
+         * Charge requests of the supplier to this account besides the accounts already charged
+         */
+        public <T> T call(Supplier<T> supplier) {
+            List<Account> previous = CHARGED.get();
+            CHARGED.set(with(previous));
+            try {
+                return supplier.get();
+            } finally {
+                CHARGED.set(previous);
+            }
+        }
+
+        /**
+         * Executor that charges its tasks to this account and to the accounts of the code that submits them
+         */
+        public Executor inherit(Executor executor) {
+            return command -> {
+                List<Account> accounts = with(CHARGED.get());
+                executor.execute(() -> charge(accounts, command));
+            };
+        }
+
+        private List<Account> with(List<Account> accounts) {
+            if (accounts.contains(this)) {
+                return accounts;
+            }
+            List<Account> result = new ArrayList<>(accounts);
+            result.add(this);
+            return List.copyOf(result);
+        }
+    }
+}
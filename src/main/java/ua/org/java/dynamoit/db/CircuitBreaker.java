@@ -0,0 +1,92 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops requests of a profile when its endpoint keeps failing.
+ * <p>
+ * After {@code failureThreshold} transient errors in a row the circuit opens and requests fail at once with
+ * {@link CircuitOpenException}. When the open duration is over, requests are let through again and the first
+ * response decides: a success closes the circuit, a failure opens it again. Throttling is not a failure, a
+ * throttled endpoint is alive.
+ */
+public class CircuitBreaker {
+
+    public static final String FAILURE_THRESHOLD_PROPERTY = "dynamoit.breaker.failures";
+    public static final String OPEN_DURATION_PROPERTY = "dynamoit.breaker.openSec";
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTime;
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+
+    public CircuitBreaker(String name) {
+        this(name, Integer.getInteger(FAILURE_THRESHOLD_PROPERTY, 5), Duration.ofSeconds(Long.getLong(OPEN_DURATION_PROPERTY, 30)), System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @throws CircuitOpenException if requests are stopped
+     */
+    public synchronized void check() {
+        if (state == State.OPEN) {
+            long remaining = openedAt + openNanos - nanoTime.getAsLong();
+            if (remaining > 0) {
+                throw new CircuitOpenException(name, Duration.ofNanos(remaining));
+            }
+            state = State.HALF_OPEN;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        failures = 0;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        failures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && failures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isOpen() {
+        return state == State.OPEN;
+    }
+}
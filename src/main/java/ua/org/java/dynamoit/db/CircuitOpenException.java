@@ -0,0 +1,37 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonClientException;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of sending a request while the circuit breaker of the profile is open
+ */
+public class CircuitOpenException extends AmazonClientException {
+
+    public CircuitOpenException(String profileName, Duration remaining) {
+        super(String.format("Requests of the profile %s are stopped for %d s after repeated failures of its endpoint", profileName, Math.max(1, remaining.toSeconds())));
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
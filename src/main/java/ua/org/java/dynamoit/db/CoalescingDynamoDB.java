@@ -0,0 +1,117 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.DescribeTableRequest;
+import com.amazonaws.services.dynamodbv2.model.ListTablesRequest;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Client decorator which lets concurrent identical read requests of one profile share a single call, e.g. two tabs
+ * of the same table describe it and scan its first page once. Write requests are passed through.
+ */
+public class CoalescingDynamoDB implements InvocationHandler {
+
+    private static final Set<String> READ_OPERATIONS = Set.of("describeTable", "listTables", "scan", "query", "getItem", "batchGetItem");
+
+    private final AmazonDynamoDB target;
+    private final Object profileKey;
+    private final SingleFlight<List<Object>> singleFlight;
+
+    private CoalescingDynamoDB(AmazonDynamoDB target, Object profileKey, SingleFlight<List<Object>> singleFlight) {
+        this.target = target;
+        this.profileKey = profileKey;
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * @param profileKey   identity of the profile the client belongs to
+     * @param singleFlight shared between clients of all profiles
+     */
+    public static AmazonDynamoDB wrap(AmazonDynamoDB target, Object profileKey, SingleFlight<List<Object>> singleFlight) {
+        return (AmazonDynamoDB) Proxy.newProxyInstance(
+                AmazonDynamoDB.class.getClassLoader(),
+                new Class<?>[]{AmazonDynamoDB.class},
+                new CoalescingDynamoDB(target, profileKey, singleFlight)
+        );
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (!READ_OPERATIONS.contains(method.getName())) {
+            return call(method, args);
+        }
+        List<Object> key = List.of(profileKey, method.getName(), normalize(method.getName(), args));
+        try {
+            return singleFlight.execute(key, () -> {
+                try {
+                    return call(method, args);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CheckedException(e);
+                }
+            });
+        } catch (CheckedException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Bring shortcut overloads to their request form so they are coalesced with equal requests.
+     * Requests are copied because the document api reuses them for the following pages.
+     */
+    static Object normalize(String operation, Object[] args) {
+        if (args == null || args.length == 0) {
+            return operation.equals("listTables") ? new ListTablesRequest() : List.of();
+        }
+        if (args.length == 1 && args[0] instanceof AmazonWebServiceRequest request) {
+            return request.clone();
+        }
+        if (operation.equals("describeTable") && args.length == 1 && args[0] instanceof String tableName) {
+            return new DescribeTableRequest(tableName);
+        }
+        if (operation.equals("listTables") && args.length == 1 && args[0] instanceof String startTableName) {
+            return new ListTablesRequest().withExclusiveStartTableName(startTableName);
+        }
+        return Arrays.asList(args);
+    }
+
+    private static class CheckedException extends RuntimeException {
+        CheckedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.DynamoDB;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ListTablesRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import com.amazonaws.services.dynamodbv2.waiters.AmazonDynamoDBWaiters;
+import ua.org.java.dynamoit.diagnostics.DynamoDBRequestEvent;
+import ua.org.java.dynamoit.model.profile.ProfileDetails;
+import ua.org.java.dynamoit.utils.TaskExecutors;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Clients of profiles keyed by the full profile identity: name, region, endpoint and credentials.
+ * <p>
+ * A handed out client stays valid for the whole application life, the underlying SDK client is created on the first
+ * request, shut down when it has not been used for the idle timeout or when the profile is released, and created
+ * again by the next request.
+ * <p>
+ * Requests of a profile wait for a free permit when the concurrency limit is reached, so any number of tasks can share
+ * a client without running out of pooled connections. Waiting requests are served by their {@link RequestPriority} and
+ * in turns between tables, see {@link RequestScheduler}.
+ * <p>
+ * Failed requests are sent again by the {@link RetryPolicy}, the pauses between attempts do not hold a permit.
+ * Throttling decreases the number of permits of the profile by {@link AimdLimit}, repeated failures of the endpoint
+ * stop its requests by {@link CircuitBreaker}. Every attempt is recorded by the {@link MetricsRegistry} and its
+ * consumed capacity is charged to the {@link CapacityLedger}.
+ */
+public class DynamoDBClientRegistry {
+
+    private static final Logger LOG = Logger.getLogger(DynamoDBClientRegistry.class.getName());
+
+    private static final Set<String> METADATA_OPERATIONS = Set.of("describeTable", "listTables");
+
+    private final Map<ProfileDetails, Entry> entries = new ConcurrentHashMap<>();
+    private final Function<ProfileDetails, AmazonDynamoDB> factory;
+    private final SingleFlight<List<Object>> singleFlight;
+    private final long idleTimeoutNanos;
+    private final int maxConcurrency;
+    private final RetryPolicy retryPolicy;
+    private final HedgedReads hedgedReads;
+    private final MetricsRegistry metrics;
+    private final CapacityLedger ledger;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param maxConcurrency number of requests of one profile running at once
+     */
+    public DynamoDBClientRegistry(Function<ProfileDetails, AmazonDynamoDB> factory, SingleFlight<List<Object>> singleFlight, Duration idleTimeout, int maxConcurrency, RetryPolicy retryPolicy, HedgedReads hedgedReads, MetricsRegistry metrics, CapacityLedger ledger) {
+        this(factory, singleFlight, idleTimeout, maxConcurrency, retryPolicy, hedgedReads, metrics, ledger, System::nanoTime);
+    }
+
+    DynamoDBClientRegistry(Function<ProfileDetails, AmazonDynamoDB> factory, SingleFlight<List<Object>> singleFlight, Duration idleTimeout, int maxConcurrency, RetryPolicy retryPolicy, HedgedReads hedgedReads, MetricsRegistry metrics, CapacityLedger ledger, LongSupplier nanoTime) {
+        this.factory = factory;
+        this.singleFlight = singleFlight;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxConcurrency = maxConcurrency;
+        this.retryPolicy = retryPolicy;
+        this.hedgedReads = hedgedReads;
+        this.metrics = metrics;
+        this.ledger = ledger;
+        this.nanoTime = nanoTime;
+    }
+
+    public AmazonDynamoDB getClient(ProfileDetails profileDetails) {
+        return entry(profileDetails).client;
+    }
+
+    public DynamoDB getDocumentClient(ProfileDetails profileDetails) {
+        return entry(profileDetails).documentClient;
+    }
+
+    /**
+     * Create the client and open connections by cheap concurrent requests, failures are ignored
+     */
+    public CompletableFuture<Void> warmUp(ProfileDetails profileDetails, int connections) {
+        Entry entry = entry(profileDetails);
+        return CompletableFuture.allOf(IntStream.range(0, connections)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                    try {
+                        entry.call(client -> client.listTables(new ListTablesRequest().withLimit(1)));
+                    } catch (RuntimeException e) {
+                        LOG.log(Level.FINE, "Warm up of " + profileDetails.getName() + " failed", e);
+                    }
+                }, TaskExecutors.io(profileDetails.getName() + "/warm-up")))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Shut down the client of the profile as soon as its running requests are finished
+     */
+    public void release(ProfileDetails profileDetails) {
+        Entry entry = entries.get(profileDetails);
+        if (entry != null) {
+            entry.retire();
+        }
+    }
+
+    /**
+     * Shut down clients which have not been used for the idle timeout
+     *
+     * @return number of clients shut down
+     */
+    public int evictIdle() {
+        long now = nanoTime.getAsLong();
+        return (int) entries.values().stream()
+                .filter(entry -> entry.evictIfIdle(now))
+                .count();
+    }
+
+    public void shutdownAll() {
+        entries.values().forEach(Entry::retire);
+    }
+
+    /**
+     * @return state of the circuit breaker of the profile
+     */
+    public CircuitBreaker.State getCircuitState(ProfileDetails profileDetails) {
+        return entry(profileDetails).breaker.getState();
+    }
+
+    /**
+     * @return number of requests of the profile allowed at once, decreased by throttling
+     */
+    public int getConcurrencyLimit(ProfileDetails profileDetails) {
+        return entry(profileDetails).limit.getLimit();
+    }
+
+    /**
+     * @return true if the SDK client of the profile exists
+     */
+    public boolean isOpen(ProfileDetails profileDetails) {
+        Entry entry = entries.get(profileDetails);
+        return entry != null && entry.isOpen();
+    }
+
+    private Entry entry(ProfileDetails profileDetails) {
+        // profile details are mutable, the key must not change while it is in the map
+        return entries.computeIfAbsent(profileDetails.clone(), Entry::new);
+    }
+
+    /**
+     * Descriptions and lists of tables sent by interactive tasks do not compete with the pages of the grid
+     */
+    private static RequestPriority priorityOf(Method method) {
+        RequestPriority priority = RequestPriority.current();
+        if (priority == RequestPriority.INTERACTIVE && METADATA_OPERATIONS.contains(method.getName())) {
+            return RequestPriority.METADATA;
+        }
+        return priority;
+    }
+
+    /**
+     * @return name of the table the request is sent to, the first one for batch requests, empty if there is no table
+     */
+    static String tableOf(Object[] args) {
+        if (args == null || args.length == 0) {
+            return "";
+        }
+        Object request = args[0];
+        if (request instanceof String name) {
+            return name;
+        }
+        if (request instanceof BatchGetItemRequest batch && batch.getRequestItems() != null) {
+            return batch.getRequestItems().keySet().stream().findFirst().orElse("");
+        }
+        if (request instanceof BatchWriteItemRequest batch && batch.getRequestItems() != null) {
+            return batch.getRequestItems().keySet().stream().findFirst().orElse("");
+        }
+        try {
+            Object name = request.getClass().getMethod("getTableName").invoke(request);
+            return name != null ? name.toString() : "";
+        } catch (ReflectiveOperationException e) {
+            return "";
+        }
+    }
+
+    /**
+     * @return name of the index the request reads, empty if it reads the table
+     */
+    static String indexOf(Object[] args) {
+        if (args == null || args.length == 0) {
+            return "";
+        }
+        if (args[0] instanceof ScanRequest request) {
+            return Objects.toString(request.getIndexName(), "");
+        }
+        if (args[0] instanceof QueryRequest request) {
+            return Objects.toString(request.getIndexName(), "");
+        }
+        return "";
+    }
+
+    /**
+     * @return number of items in the response, 0 for responses without items
+     */
+    static int itemsOf(Object result) {
+        if (result instanceof ScanResult scanResult) {
+            return Objects.requireNonNullElse(scanResult.getCount(), 0);
+        }
+        if (result instanceof QueryResult queryResult) {
+            return Objects.requireNonNullElse(queryResult.getCount(), 0);
+        }
+        if (result instanceof GetItemResult getItemResult) {
+            return getItemResult.getItem() == null ? 0 : 1;
+        }
+        if (result instanceof BatchGetItemResult batchGetItemResult && batchGetItemResult.getResponses() != null) {
+            return batchGetItemResult.getResponses().values().stream().mapToInt(List::size).sum();
+        }
+        return 0;
+    }
+
+    private class Entry {
+
+        private final ProfileDetails profileDetails;
+        private final AmazonDynamoDB client;
+        private final DynamoDB documentClient;
+        private final RequestScheduler scheduler = new RequestScheduler(maxConcurrency, Math.max(1, maxConcurrency / 5));
+        private final AimdLimit limit = new AimdLimit(maxConcurrency);
+        private final CircuitBreaker breaker;
+
+        private final Map<String, Consumer<AmazonDynamoDB>> configuration = new LinkedHashMap<>();
+        private AmazonDynamoDB target;
+        private AmazonDynamoDBWaiters waiters;
+        private int active;
+        private boolean retired;
+        private long lastUsed;
+
+        Entry(ProfileDetails profileDetails) {
+            this.profileDetails = profileDetails;
+            this.breaker = new CircuitBreaker(profileDetails.getName());
+            AmazonDynamoDB managed = (AmazonDynamoDB) Proxy.newProxyInstance(
+                    AmazonDynamoDB.class.getClassLoader(),
+                    new Class<?>[]{AmazonDynamoDB.class},
+                    this::invoke
+            );
+            // a hedge is an ordinary request of the profile, it waits for a permit and is retried as well
+            this.client = CoalescingDynamoDB.wrap(hedgedReads.wrap(managed, profileDetails.getName()), profileDetails, singleFlight);
+            this.documentClient = new DynamoDB(client);
+        }
+
+        /**
+         * Requests go through the permits, retries and metrics. Methods of the proxy itself and of the client
+         * configuration are served directly, the configuration is applied again to every new SDK client.
+         */
+        private Object invoke(Object proxy, Method method, Object[] args) {
+            return switch (method.getName()) {
+                case "toString" -> "Managed DynamoDB client of " + profileDetails.getName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "shutdown" -> {
+                    // holders of the client do not own it
+                    retire();
+                    yield null;
+                }
+                case "setRegion", "setEndpoint" -> {
+                    configure(method.getName(), target -> invokeOn(target, method, args));
+                    yield null;
+                }
+                case "waiters" -> waiters((AmazonDynamoDB) proxy);
+                case "getCachedResponseMetadata" -> cachedResponseMetadata(method, args);
+                default -> {
+                    Object[] indexedArgs = CapacityLedger.requestIndexes(args);
+                    yield execute(priorityOf(method), method.getName(), tableOf(args), indexOf(args), target -> invokeOn(target, method, indexedArgs));
+                }
+            };
+        }
+
+        private static Object invokeOn(AmazonDynamoDB target, Method method, Object[] args) {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new UndeclaredThrowableException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Keep the latest call of every configuration method, calls are replayed in order on new SDK clients
+         */
+        private synchronized void configure(String name, Consumer<AmazonDynamoDB> setting) {
+            configuration.remove(name);
+            configuration.put(name, setting);
+            if (target != null) {
+                setting.accept(target);
+            }
+        }
+
+        /**
+         * Waiters poll by the managed client, so their requests wait for permits as well
+         */
+        private synchronized AmazonDynamoDBWaiters waiters(AmazonDynamoDB proxy) {
+            if (waiters == null) {
+                waiters = new AmazonDynamoDBWaiters(proxy);
+            }
+            return waiters;
+        }
+
+        /**
+         * @return metadata cached by the current SDK client, null if the client has been shut down since the request
+         */
+        private synchronized Object cachedResponseMetadata(Method method, Object[] args) {
+            return target == null ? null : invokeOn(target, method, args);
+        }
+
+        <T> T call(Function<AmazonDynamoDB, T> request) {
+            return execute(RequestPriority.METADATA, "listTables", "", "", request);
+        }
+
+        /**
+         * Add the attempt to the metrics, the capacity ledger and the flight recording
+         */
+        private void record(MetricsRegistry.Key key, long start, DynamoDBRequestEvent event, MetricsRegistry.Outcome outcome, Object result) {
+            metrics.record(key, System.nanoTime() - start, outcome, result);
+            ledger.record(key.profile(), key.operation(), result);
+            event.end();
+            if (event.shouldCommit()) {
+                event.profile = key.profile();
+                event.operation = key.operation();
+                event.table = key.table();
+                event.index = key.index();
+                event.outcome = outcome.name();
+                event.items = itemsOf(result);
+                event.capacityUnits = MetricsRegistry.capacityUnits(result);
+                event.bytes = MetricsRegistry.responseBytes(result);
+                event.commit();
+            }
+        }
+
+        private <T> T execute(RequestPriority priority, String operation, String table, String index, Function<AmazonDynamoDB, T> request) {
+            MetricsRegistry.Key key = new MetricsRegistry.Key(profileDetails.getName(), operation, table, index);
+            int throttles = 0;
+            int failures = 0;
+            long delay = 0;
+            while (true) {
+                // the circuit may have been opened by other requests during the pause
+                breaker.check();
+                scheduler.acquire(priority, table);
+                try {
+                    AmazonDynamoDB target = acquire();
+                    DynamoDBRequestEvent event = new DynamoDBRequestEvent();
+                    event.begin();
+                    long start = System.nanoTime();
+                    try {
+                        T result = request.apply(target);
+                        record(key, start, event, MetricsRegistry.Outcome.SUCCESS, result);
+                        limit.onSuccess();
+                        breaker.onSuccess();
+                        return result;
+                    } catch (RuntimeException e) {
+                        boolean throttled = e instanceof AmazonClientException clientException
+                                && RetryPolicy.classify(clientException) == RetryPolicy.ErrorKind.THROTTLING;
+                        record(key, start, event, throttled ? MetricsRegistry.Outcome.THROTTLED : MetricsRegistry.Outcome.ERROR, null);
+                        throw e;
+                    } finally {
+                        release();
+                    }
+                } catch (AmazonClientException e) {
+                    switch (RetryPolicy.classify(e)) {
+                        case THROTTLING -> {
+                            limit.onThrottle();
+                            breaker.onSuccess();
+                            if (++throttles > retryPolicy.maxThrottleRetries()) {
+                                throw e;
+                            }
+                        }
+                        case TRANSIENT -> {
+                            breaker.onFailure();
+                            if (++failures > retryPolicy.maxTransientRetries() || breaker.isOpen()) {
+                                throw e;
+                            }
+                        }
+                        default -> {
+                            if (!(e instanceof AbortedException)) {
+                                breaker.onSuccess();
+                            }
+                            throw e;
+                        }
+                    }
+                    LOG.fine(() -> String.format("Retry %s of %s after %s", table, profileDetails.getName(), e.getMessage()));
+                } finally {
+                    scheduler.release(priority);
+                    scheduler.setPermits(limit.getLimit());
+                }
+                delay = retryPolicy.nextDelay(delay);
+                sleep(delay);
+            }
+        }
+
+        private void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AbortedException(e);
+            }
+        }
+
+        private synchronized AmazonDynamoDB acquire() {
+            if (target == null) {
+                target = factory.apply(profileDetails);
+                configuration.values().forEach(setting -> setting.accept(target));
+            }
+            active++;
+            retired = false;
+            return target;
+        }
+
+        private synchronized void release() {
+            active--;
+            lastUsed = nanoTime.getAsLong();
+            if (retired && active == 0) {
+                close();
+            }
+        }
+
+        synchronized void retire() {
+            if (active == 0) {
+                close();
+            } else {
+                retired = true;
+            }
+        }
+
+        synchronized boolean evictIfIdle(long now) {
+            if (target != null && active == 0 && now - lastUsed >= idleTimeoutNanos) {
+                close();
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean isOpen() {
+            return target != null;
+        }
+
+        private void close() {
+            if (target != null) {
+                LOG.fine(() -> "Shut down the client of " + profileDetails.getName());
+                target.shutdown();
+                target = null;
+            }
+            retired = false;
+        }
+    }
+}
@@ -25,6 +25,9 @@ import javax.inject.Singleton;
 @Module
 public class DynamoDBModule {
 
+    /**
+     * The only instance lives in the application component, other components get it from the builders
+     */
     @Provides
     @Singleton
     public static DynamoDBService dynamoDBService() {
@@ -17,12 +17,14 @@
 
 package ua.org.java.dynamoit.db;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.auth.profile.ProfileCredentialsProvider;
 import com.amazonaws.auth.profile.ProfilesConfigFile;
 import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.profile.path.AwsProfileFileLocationProvider;
+import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
@@ -31,21 +33,109 @@ import ua.org.java.dynamoit.model.profile.LocalProfileDetails;
 import ua.org.java.dynamoit.model.profile.PreconfiguredProfileDetails;
 import ua.org.java.dynamoit.model.profile.ProfileDetails;
 import ua.org.java.dynamoit.model.profile.RemoteProfileDetails;
+import ua.org.java.dynamoit.utils.TaskExecutors;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static ua.org.java.dynamoit.utils.RegionsUtils.ALL_REGIONS;
 
+/**
+ * Clients can be tuned by the system properties {@value MAX_CONNECTIONS_PROPERTY}, {@value MAX_CONCURRENCY_PROPERTY}
+ * (requests of one profile at once, the number of connections by default), {@value TCP_KEEP_ALIVE_PROPERTY},
+ * {@value CONNECTION_IDLE_PROPERTY} (milliseconds a pooled connection may stay idle), {@value CLIENT_IDLE_PROPERTY}
+ * (seconds an unused client lives), {@value WARMUP_CONNECTIONS_PROPERTY} and {@value ASYNC_IN_FLIGHT_PROPERTY}
+ * (requests of bulk pipelines of one profile submitted and not finished).
+ * <p>
+ * Calls of the clients are written to the trace file {@value TRACE_RECORD_PROPERTY}, with their results unless
+ * {@value TRACE_BODIES_PROPERTY} is false. The calls are served by the trace file {@value TRACE_REPLAY_PROPERTY}
+ * instead of DynamoDB, after the traced latencies if {@value TRACE_REPLAY_LATENCY_PROPERTY} is true.
+ */
 public class DynamoDBService {
 
-    private final Map<Integer, AmazonDynamoDB> profileDynamoDBClientMap = new HashMap<>();
-    private final Map<Integer, DynamoDB> profileDocumentClientMap = new HashMap<>();
+    public static final String MAX_CONNECTIONS_PROPERTY = "dynamoit.client.maxConnections";
+    public static final String MAX_CONCURRENCY_PROPERTY = "dynamoit.client.maxConcurrency";
+    public static final String TCP_KEEP_ALIVE_PROPERTY = "dynamoit.client.tcpKeepAlive";
+    public static final String CONNECTION_IDLE_PROPERTY = "dynamoit.client.connectionIdleMs";
+    public static final String CLIENT_IDLE_PROPERTY = "dynamoit.client.idleTimeoutSec";
+    public static final String WARMUP_CONNECTIONS_PROPERTY = "dynamoit.client.warmupConnections";
+    public static final String ASYNC_IN_FLIGHT_PROPERTY = "dynamoit.async.maxInFlight";
+    public static final String TRACE_RECORD_PROPERTY = "dynamoit.trace.record";
+    public static final String TRACE_BODIES_PROPERTY = "dynamoit.trace.bodies";
+    public static final String TRACE_REPLAY_PROPERTY = "dynamoit.trace.replay";
+    public static final String TRACE_REPLAY_LATENCY_PROPERTY = "dynamoit.trace.replayLatency";
+
+    private static final Logger LOG = Logger.getLogger(DynamoDBService.class.getName());
+
+    private final SingleFlight<List<Object>> singleFlight = new SingleFlight<>();
+    private final HedgedReads hedgedReads = HedgedReads.fromSystemProperties();
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final CapacityLedger ledger = new CapacityLedger();
+    private final ClientConfiguration clientConfiguration = new ClientConfiguration()
+            .withMaxConnections(Integer.getInteger(MAX_CONNECTIONS_PROPERTY, ClientConfiguration.DEFAULT_MAX_CONNECTIONS))
+            .withTcpKeepAlive(Boolean.parseBoolean(System.getProperty(TCP_KEEP_ALIVE_PROPERTY, "true")))
+            .withConnectionMaxIdleMillis(Long.getLong(CONNECTION_IDLE_PROPERTY, ClientConfiguration.DEFAULT_CONNECTION_MAX_IDLE_MILLIS))
+            // failed requests are retried by the registry, see RetryPolicy
+            .withRetryPolicy(PredefinedRetryPolicies.NO_RETRY_POLICY);
+    private final DynamoDBClientRegistry clients;
+    private final Map<ProfileDetails, AsyncDynamoDB> asyncClients = new ConcurrentHashMap<>();
+    private final TraceRecorder traceRecorder;
+    private final TraceReplay traceReplay;
+
+    public DynamoDBService() {
+        try {
+            String replayFile = System.getProperty(TRACE_REPLAY_PROPERTY);
+            traceReplay = replayFile == null ? null : TraceReplay.load(Path.of(replayFile), Boolean.getBoolean(TRACE_REPLAY_LATENCY_PROPERTY));
+            String recordFile = System.getProperty(TRACE_RECORD_PROPERTY);
+            traceRecorder = recordFile == null ? null : new TraceRecorder(Path.of(recordFile), Boolean.parseBoolean(System.getProperty(TRACE_BODIES_PROPERTY, "true")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (traceRecorder != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    traceRecorder.close();
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "The trace can't be closed", e);
+                }
+            }, "trace-recorder-close"));
+        }
+
+        Duration idleTimeout = Duration.ofSeconds(Long.getLong(CLIENT_IDLE_PROPERTY, 600));
+        int maxConcurrency = Integer.getInteger(MAX_CONCURRENCY_PROPERTY, clientConfiguration.getMaxConnections());
+        clients = new DynamoDBClientRegistry(this::createTracedClient, singleFlight, idleTimeout, maxConcurrency, RetryPolicy.fromSystemProperties(), hedgedReads, metrics, ledger);
+
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dynamodb-client-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeout.toSeconds() / 2);
+        evictor.scheduleWithFixedDelay(() -> {
+            int evicted = clients.evictIdle();
+            if (evicted > 0) {
+                LOG.fine(() -> "Idle clients shut down: " + evicted);
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
 
     public Stream<ProfileDetails> getAvailableProfiles() {
+        if (traceReplay != null) {
+            return traceReplay.getProfiles();
+        }
         Function<String, String> cutProfilePrefix = profileName -> profileName.startsWith("profile ") ? profileName.substring(8).trim() : profileName;
         // config file contains profile and region values
         Map<String, ProfileDetails> profileMap = new ProfilesConfigFile(AwsProfileFileLocationProvider.DEFAULT_CONFIG_LOCATION_PROVIDER.getLocation()).getAllBasicProfiles()
@@ -74,47 +164,117 @@ public class DynamoDBService {
             } while (lastEvaluatedTableName != null);
 
             return tableNames;
-        });
+        }, TaskExecutors.io(profileDetails.getName() + "/list-tables"));
     }
 
     public AmazonDynamoDB getOrCreateDynamoDBClient(ProfileDetails profileDetails) {
-        return profileDynamoDBClientMap.computeIfAbsent(profileDetails.hashCode(), __ -> {
-            AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard();
-            
-            // Check for test endpoint override
-            String endpointOverride = System.getProperty("aws.dynamodb.endpoint");
-            if (endpointOverride != null && !endpointOverride.isEmpty()) {
-                String region = System.getProperty("aws.region", "us-east-1");
-                String accessKey = System.getProperty("aws.accessKeyId", "fake");
-                String secretKey = System.getProperty("aws.secretAccessKey", "fake");
-                
-                return builder
-                        .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpointOverride, region))
-                        .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey)))
-                        .build();
-            }
-            
-            if (profileDetails instanceof PreconfiguredProfileDetails p) {
-                return builder
-                        .withCredentials(new ProfileCredentialsProvider(p.getName()))
-                        .withRegion(p.getRegion())
-                        .build();
-            } else if (profileDetails instanceof LocalProfileDetails p) {
-                return builder
-                        .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(p.getEndPoint(), ""))
-                        .build();
-            } else if (profileDetails instanceof RemoteProfileDetails p) {
-                return builder
-                        .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(p.getAccessKeyId(), p.getSecretKey())))
-                        .withRegion(p.getRegion())
-                        .build();
-            }
-            throw new RuntimeException("That profile details is not supported");
-        });
+        return clients.getClient(profileDetails);
     }
 
     public DynamoDB getOrCreateDocumentClient(ProfileDetails profileDetails) {
-        return profileDocumentClientMap.computeIfAbsent(profileDetails.hashCode(), key -> new DynamoDB(getOrCreateDynamoDBClient(profileDetails)));
+        return clients.getDocumentClient(profileDetails);
+    }
+
+    /**
+     * @return asynchronous client of the profile for bulk pipelines, one per profile so they share the backpressure
+     */
+    public AsyncDynamoDB getOrCreateAsyncClient(ProfileDetails profileDetails) {
+        return asyncClients.computeIfAbsent(profileDetails.clone(), key -> new AsyncDynamoDB(
+                getOrCreateDynamoDBClient(key),
+                Integer.getInteger(ASYNC_IN_FLIGHT_PROPERTY, 1024),
+                key.getName()
+        ));
+    }
+
+    /**
+     * Create the client of the profile and open connections in background, so the first request does not wait for them
+     */
+    public CompletableFuture<Void> warmUp(ProfileDetails profileDetails) {
+        return clients.warmUp(profileDetails, Integer.getInteger(WARMUP_CONNECTIONS_PROPERTY, 2));
+    }
+
+    /**
+     * Shut down the client of the profile, e.g. when the profile has been switched to another region.
+     * The client is created again if it is still used, running pipelines finish by the released asynchronous client.
+     */
+    public void release(ProfileDetails profileDetails) {
+        asyncClients.remove(profileDetails);
+        clients.release(profileDetails);
+    }
+
+    private AmazonDynamoDB createTracedClient(ProfileDetails profileDetails) {
+        AmazonDynamoDB client = traceReplay != null ? traceReplay.client(profileDetails) : createDynamoDBClient(profileDetails);
+        return traceRecorder != null ? traceRecorder.wrap(client, profileDetails) : client;
+    }
+
+    private AmazonDynamoDB createDynamoDBClient(ProfileDetails profileDetails) {
+        AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard()
+                .withClientConfiguration(clientConfiguration);
+        
+        // Check for test endpoint override
+        String endpointOverride = System.getProperty("aws.dynamodb.endpoint");
+        if (endpointOverride != null && !endpointOverride.isEmpty()) {
+            String region = System.getProperty("aws.region", "us-east-1");
+            String accessKey = System.getProperty("aws.accessKeyId", "fake");
+            String secretKey = System.getProperty("aws.secretAccessKey", "fake");
+            
+            return builder
+                    .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpointOverride, region))
+                    .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(accessKey, secretKey)))
+                    .build();
+        }
+        
+        if (profileDetails instanceof PreconfiguredProfileDetails p) {
+            return builder
+                    .withCredentials(new ProfileCredentialsProvider(p.getName()))
+                    .withRegion(p.getRegion())
+                    .build();
+        } else if (profileDetails instanceof LocalProfileDetails p) {
+            return builder
+                    .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(p.getEndPoint(), ""))
+                    .build();
+        } else if (profileDetails instanceof RemoteProfileDetails p) {
+            return builder
+                    .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(p.getAccessKeyId(), p.getSecretKey())))
+                    .withRegion(p.getRegion())
+                    .build();
+        }
+        throw new RuntimeException("That profile details is not supported");
+    }
+
+    /**
+     * @return number of read requests that joined an identical running request instead of calling DynamoDB
+     */
+    public long getCoalescedRequests() {
+        return singleFlight.getHits();
+    }
+
+    /**
+     * @return number of read requests sent to DynamoDB
+     */
+    public long getExecutedRequests() {
+        return singleFlight.getMisses();
+    }
+
+    /**
+     * @return counters of hedged item lookups: reads, hedges and hedges that won
+     */
+    public HedgedReads getHedgedReads() {
+        return hedgedReads;
+    }
+
+    /**
+     * @return statistics of all calls of all profiles
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return capacity consumed by the session, tables, tabs and jobs
+     */
+    public CapacityLedger getLedger() {
+        return ledger;
     }
 
 }
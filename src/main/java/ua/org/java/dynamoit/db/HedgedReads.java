@@ -0,0 +1,239 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import ua.org.java.dynamoit.utils.TaskExecutors;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hedging of single item lookups (GetItem and BatchGetItem): when a read has not been answered within the p95
+ * latency of the recent reads of the profile, the same read is sent once more and the first response is taken.
+ * <p>
+ * Every read earns a part of a hedge ({@value BUDGET_PROPERTY} percents, 10 by default), a hedge is sent only when a
+ * whole one is earned, so hedges never add more than that part of the load. Hedging is switched on by the system
+ * property {@value ENABLED_PROPERTY}.
+ */
+public class HedgedReads {
+
+    public static final String ENABLED_PROPERTY = "dynamoit.hedge.enabled";
+    public static final String BUDGET_PROPERTY = "dynamoit.hedge.budgetPercent";
+
+    private static final Set<String> OPERATIONS = Set.of("getItem", "batchGetItem");
+    private static final int WINDOW_SIZE = 200;
+    private static final int MIN_SAMPLES = 20;
+    private static final double MAX_TOKENS = 10;
+    private static final long MIN_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final boolean enabled;
+    private final double budgetRatio;
+    private final LongAdder reads = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+
+    public HedgedReads(boolean enabled, double budgetRatio) {
+        this.enabled = enabled;
+        this.budgetRatio = budgetRatio;
+    }
+
+    public static HedgedReads fromSystemProperties() {
+        return new HedgedReads(Boolean.getBoolean(ENABLED_PROPERTY), Integer.getInteger(BUDGET_PROPERTY, 10) / 100.0);
+    }
+
+    /**
+     * @param name used to name threads of the reads
+     * @return client hedging the reads of one profile or the target itself if hedging is off
+     */
+    public AmazonDynamoDB wrap(AmazonDynamoDB target, String name) {
+        if (!enabled) {
+            return target;
+        }
+        return (AmazonDynamoDB) Proxy.newProxyInstance(
+                AmazonDynamoDB.class.getClassLoader(),
+                new Class<?>[]{AmazonDynamoDB.class},
+                new Handler(target, RequestPriority.inherit(CapacityLedger.inherit(TaskExecutors.io(name + "/read"))))
+        );
+    }
+
+    /**
+     * @return number of hedged operations sent
+     */
+    public long getReads() {
+        return reads.sum();
+    }
+
+    /**
+     * @return number of duplicate reads sent
+     */
+    public long getHedges() {
+        return hedges.sum();
+    }
+
+    /**
+     * @return number of duplicate reads answered before the original ones
+     */
+    public long getWins() {
+        return wins.sum();
+    }
+
+    /**
+     * @return part of hedges that won, 0 if there were no hedges
+     */
+    public double getWinRate() {
+        long sent = hedges.sum();
+        return sent == 0 ? 0 : (double) wins.sum() / sent;
+    }
+
+    private class Handler implements InvocationHandler {
+
+        private final AmazonDynamoDB target;
+        private final Executor executor;
+        private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+        private double tokens;
+
+        Handler(AmazonDynamoDB target, Executor executor) {
+            this.target = target;
+            this.executor = executor;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!OPERATIONS.contains(method.getName())) {
+                return call(method, args);
+            }
+            reads.increment();
+            earnToken();
+            LatencyWindow window = latencies.computeIfAbsent(method.getName(), __ -> new LatencyWindow(WINDOW_SIZE, MIN_SAMPLES));
+            OptionalLong p95 = window.percentile(0.95);
+            long start = System.nanoTime();
+            if (p95.isEmpty()) {
+                Object result = call(method, args);
+                window.record(System.nanoTime() - start);
+                return result;
+            }
+
+            CompletableFuture<Object> primary = callAsync(method, args);
+            primary.whenComplete((result, throwable) -> {
+                if (throwable == null) {
+                    window.record(System.nanoTime() - start);
+                }
+            });
+            try {
+                return primary.get(Math.max(p95.getAsLong(), MIN_DELAY_NANOS), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (!spendToken()) {
+                    return await(primary);
+                }
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AbortedException(e);
+            }
+
+            hedges.increment();
+            CompletableFuture<Object> hedge = callAsync(method, copy(args));
+            CompletableFuture<Object> first = new CompletableFuture<>();
+            AtomicBoolean failed = new AtomicBoolean();
+            primary.whenComplete((result, throwable) -> complete(first, failed, result, throwable, false));
+            hedge.whenComplete((result, throwable) -> complete(first, failed, result, throwable, true));
+            return await(first);
+        }
+
+        private void complete(CompletableFuture<Object> first, AtomicBoolean failed, Object result, Throwable throwable, boolean isHedge) {
+            if (throwable == null) {
+                if (first.complete(result) && isHedge) {
+                    wins.increment();
+                }
+            } else if (failed.getAndSet(true)) {
+                // both reads failed
+                first.completeExceptionally(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+            }
+        }
+
+        private synchronized void earnToken() {
+            tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+        }
+
+        private synchronized boolean spendToken() {
+            if (tokens >= 1) {
+                tokens--;
+                return true;
+            }
+            return false;
+        }
+
+        private CompletableFuture<Object> callAsync(Method method, Object[] args) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call(method, args);
+                } catch (RuntimeException | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+
+        private Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Object await(CompletableFuture<Object> future) throws Throwable {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AbortedException(e);
+            }
+        }
+    }
+
+    private static Throwable unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+    }
+
+    /**
+     * The duplicate read gets its own request object, the SDK keeps per request state in it
+     */
+    private static Object[] copy(Object[] args) {
+        if (args != null && args.length == 1 && args[0] instanceof AmazonWebServiceRequest request) {
+            return new Object[]{request.clone()};
+        }
+        return args;
+    }
+}
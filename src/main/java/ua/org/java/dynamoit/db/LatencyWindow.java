@@ -0,0 +1,56 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Latencies of the most recent requests, percentiles are known once enough requests have been recorded
+ */
+public class LatencyWindow {
+
+    private final long[] samples;
+    private final int minSamples;
+    private int count;
+    private int next;
+
+    public LatencyWindow(int size, int minSamples) {
+        this.samples = new long[size];
+        this.minSamples = minSamples;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * @param percentile from 0 to 1, e.g. 0.95
+     * @return latency in nanoseconds or empty if there are less samples than needed
+     */
+    public synchronized OptionalLong percentile(double percentile) {
+        if (count < minSamples) {
+            return OptionalLong.empty();
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return OptionalLong.of(sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)]);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonWebServiceResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of DynamoDB calls by profile, operation, table and index: calls, errors, throttled calls, latency
+ * percentiles, bytes of responses and consumed read and write capacity. Every attempt of a retried request is a call.
+ */
+public class MetricsRegistry {
+
+    public enum Outcome {
+        SUCCESS, THROTTLED, ERROR
+    }
+
+    public record Key(String profile, String operation, String table, String index) {
+    }
+
+    public record Snapshot(Key key, long calls, long errors, long throttles, long p50Micros, long p95Micros,
+                           long p99Micros, long maxMicros, long bytes, double readCapacity, double writeCapacity) {
+    }
+
+    private final Map<Key, OperationMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * @param result response of the call, null if it failed
+     */
+    public void record(Key key, long latencyNanos, Outcome outcome, Object result) {
+        OperationMetrics operation = metrics.computeIfAbsent(key, __ -> new OperationMetrics());
+        operation.calls.increment();
+        operation.latency.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        switch (outcome) {
+            case THROTTLED -> operation.throttles.increment();
+            case ERROR -> operation.errors.increment();
+            default -> {
+                operation.bytes.add(responseBytes(result));
+                double capacity = capacityUnits(result);
+                if (CapacityLedger.WRITE_OPERATIONS.contains(key.operation())) {
+                    operation.writeCapacity.add(capacity);
+                } else {
+                    operation.readCapacity.add(capacity);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return statistics sorted by profile, table, index and operation
+     */
+    public List<Snapshot> snapshot() {
+        return metrics.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparing((Snapshot snapshot) -> snapshot.key().profile())
+                        .thenComparing(snapshot -> snapshot.key().table())
+                        .thenComparing(snapshot -> snapshot.key().index())
+                        .thenComparing(snapshot -> snapshot.key().operation()))
+                .toList();
+    }
+
+    public void reset() {
+        metrics.clear();
+    }
+
+    public String toJson() {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode array = mapper.createArrayNode();
+        for (Snapshot snapshot : snapshot()) {
+            ObjectNode node = array.addObject();
+            node.put("profile", snapshot.key().profile());
+            node.put("operation", snapshot.key().operation());
+            node.put("table", snapshot.key().table());
+            node.put("index", snapshot.key().index());
+            node.put("calls", snapshot.calls());
+            node.put("errors", snapshot.errors());
+            node.put("throttles", snapshot.throttles());
+            ObjectNode latency = node.putObject("latencyMicros");
+            latency.put("p50", snapshot.p50Micros());
+            latency.put("p95", snapshot.p95Micros());
+            latency.put("p99", snapshot.p99Micros());
+            latency.put("max", snapshot.maxMicros());
+            node.put("bytes", snapshot.bytes());
+            node.put("readCapacityUnits", snapshot.readCapacity());
+            node.put("writeCapacityUnits", snapshot.writeCapacity());
+        }
+        try {
+            return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(array);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return content length of the response, 0 if it is unknown
+     */
+    static long responseBytes(Object result) {
+        if (result instanceof AmazonWebServiceResult<?> webServiceResult && webServiceResult.getSdkHttpMetadata() != null) {
+            String length = webServiceResult.getSdkHttpMetadata().getHttpHeaders().get("Content-Length");
+            if (length != null) {
+                try {
+                    return Long.parseLong(length.trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return capacity consumed by the call, returned by results of requests which asked for it
+     */
+    static double capacityUnits(Object result) {
+        return CapacityLedger.consumedCapacity(result).stream()
+                .map(ConsumedCapacity::getCapacityUnits)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sum();
+    }
+
+    private static class OperationMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder throttles = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final DoubleAdder readCapacity = new DoubleAdder();
+        private final DoubleAdder writeCapacity = new DoubleAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        Snapshot snapshot(Key key) {
+            return new Snapshot(key, calls.sum(), errors.sum(), throttles.sum(),
+                    latency.percentile(0.5), latency.percentile(0.95), latency.percentile(0.99), latency.getMax(),
+                    bytes.sum(), readCapacity.sum(), writeCapacity.sum());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Priority class of requests. The priority belongs to the thread that sends the request, executors made by
+ * {@link #executor(Executor)} and {@link #inherit(Executor)} pass it to the tasks they run.
+ */
+public enum RequestPriority {
+
+    /**
+     * Pages of the grid, lookups the user is waiting for
+     */
+    INTERACTIVE(8),
+    /**
+     * Table descriptions, lists of tables
+     */
+    METADATA(4),
+    /**
+     * Exports, imports, bulk deletes and counts, they get what is left by the others
+     */
+    BULK(1);
+
+    private static final ThreadLocal<RequestPriority> CURRENT = new ThreadLocal<>();
+
+    private final int weight;
+
+    RequestPriority(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return share of permits the class gets relative to other classes waiting at the same time
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return priority of the current thread, {@link #INTERACTIVE} if it has not been set
+     */
+    public static RequestPriority current() {
+        RequestPriority priority = CURRENT.get();
+        return priority != null ? priority : INTERACTIVE;
+    }
+
+    public <T> T call(Supplier<T> supplier) {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return supplier.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    public void run(Runnable runnable) {
+        call(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * @return executor running the tasks with this priority
+     */
+    public Executor executor(Executor executor) {
+        return command -> executor.execute(() -> run(command));
+    }
+
+    /**
+     * @return executor running the tasks with the priority of the thread that submits them
+     */
+    public static Executor inherit(Executor executor) {
+        return command -> current().executor(executor).execute(command);
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AbortedException;
+
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out a limited number of permits to send requests of one profile.
+ * <p>
+ * When requests have to wait, the permits are shared between priority classes in proportion to their weights
+ * (stride scheduling) and, within a class, in turns between tables. Bulk requests never take the last reserved
+ * permits, so a foreground request finds a free one even while an export runs.
+ */
+public class RequestScheduler {
+
+    private final int reserved;
+    private int permits;
+    private int bulkPermits;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<RequestPriority, LinkedHashMap<String, Deque<Waiter>>> queues = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Double> passes = new EnumMap<>(RequestPriority.class);
+    private final Map<RequestPriority, Integer> running = new EnumMap<>(RequestPriority.class);
+    private double virtualTime;
+    private int waiting;
+
+    /**
+     * @param permits  number of requests running at once
+     * @param reserved number of permits bulk requests can not take, bulk requests get at least one permit
+     */
+    public RequestScheduler(int permits, int reserved) {
+        this.reserved = reserved;
+        this.permits = permits;
+        this.bulkPermits = Math.max(1, permits - reserved);
+        for (RequestPriority priority : RequestPriority.values()) {
+            queues.put(priority, new LinkedHashMap<>());
+            passes.put(priority, 0.0);
+            running.put(priority, 0);
+        }
+    }
+
+    /**
+     * Wait for a permit, it must be returned by {@link #release(RequestPriority)}
+     *
+     * @throws AbortedException if the thread is interrupted while waiting
+     */
+    public void acquire(RequestPriority priority, String table) {
+        lock.lock();
+        try {
+            if (waiting == 0 && canRun(priority)) {
+                grant(priority);
+                return;
+            }
+            Deque<Waiter> queue = queues.get(priority).computeIfAbsent(table, __ -> new ArrayDeque<>());
+            if (queues.get(priority).values().stream().allMatch(Deque::isEmpty)) {
+                // an idle class does not collect credit for the time it has not been waiting
+                passes.put(priority, Math.max(passes.get(priority), virtualTime));
+            }
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            waiting++;
+            dispatch();
+            while (!waiter.granted) {
+                try {
+                    waiter.condition.await();
+                } catch (InterruptedException e) {
+                    if (!waiter.granted) {
+                        queue.remove(waiter);
+                        waiting--;
+                        Thread.currentThread().interrupt();
+                        throw new AbortedException(e);
+                    }
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(RequestPriority priority) {
+        lock.lock();
+        try {
+            running.merge(priority, -1, Integer::sum);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change the number of permits, running requests keep theirs when it is decreased
+     */
+    public void setPermits(int permits) {
+        lock.lock();
+        try {
+            if (this.permits != permits) {
+                this.permits = permits;
+                this.bulkPermits = Math.max(1, permits - reserved);
+                dispatch();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getPermits() {
+        lock.lock();
+        try {
+            return permits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of requests waiting for a permit
+     */
+    public int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        while (waiting > 0) {
+            RequestPriority next = null;
+            for (RequestPriority priority : RequestPriority.values()) {
+                boolean hasWaiters = queues.get(priority).values().stream().anyMatch(queue -> !queue.isEmpty());
+                if (hasWaiters && canRun(priority) && (next == null || passes.get(priority) < passes.get(next))) {
+                    next = priority;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            virtualTime = passes.get(next);
+            passes.put(next, virtualTime + 1.0 / next.getWeight());
+
+            // the table served now goes to the end of the turn
+            LinkedHashMap<String, Deque<Waiter>> tables = queues.get(next);
+            String table = tables.entrySet().stream().filter(entry -> !entry.getValue().isEmpty()).findFirst().orElseThrow().getKey();
+            Deque<Waiter> queue = tables.remove(table);
+            Waiter waiter = queue.removeFirst();
+            if (!queue.isEmpty()) {
+                tables.put(table, queue);
+            }
+            waiting--;
+            grant(next);
+            waiter.granted = true;
+            waiter.condition.signal();
+        }
+    }
+
+    private boolean canRun(RequestPriority priority) {
+        int total = running.values().stream().mapToInt(Integer::intValue).sum();
+        if (priority == RequestPriority.BULK) {
+            return total < permits && running.get(RequestPriority.BULK) < bulkPermits;
+        }
+        return total < permits;
+    }
+
+    private void grant(RequestPriority priority) {
+        running.merge(priority, 1, Integer::sum);
+    }
+
+    private static class Waiter {
+        private final Condition condition;
+        private boolean granted;
+
+        Waiter(Condition condition) {
+            this.condition = condition;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.retry.RetryUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries of failed requests, used instead of the retry policy of the SDK.
+ * <p>
+ * Throttling and transient errors (5xx responses, broken connections) have separate budgets: a throttled request
+ * may be sent again many times since the table recovers by itself, a failing endpoint is given up quickly.
+ * Pauses between attempts follow the decorrelated jitter: a random value between the base delay and three times
+ * the previous pause, limited by the max delay.
+ * <p>
+ * Defaults can be changed by the system properties {@value BASE_DELAY_PROPERTY}, {@value MAX_DELAY_PROPERTY}
+ * (milliseconds), {@value THROTTLE_RETRIES_PROPERTY} and {@value TRANSIENT_RETRIES_PROPERTY}.
+ */
+public record RetryPolicy(long baseDelayMillis, long maxDelayMillis, int maxThrottleRetries, int maxTransientRetries) {
+
+    public static final String BASE_DELAY_PROPERTY = "dynamoit.retry.baseDelayMs";
+    public static final String MAX_DELAY_PROPERTY = "dynamoit.retry.maxDelayMs";
+    public static final String THROTTLE_RETRIES_PROPERTY = "dynamoit.retry.throttleRetries";
+    public static final String TRANSIENT_RETRIES_PROPERTY = "dynamoit.retry.transientRetries";
+
+    public enum ErrorKind {
+        THROTTLING, TRANSIENT, PERMANENT
+    }
+
+    public static RetryPolicy fromSystemProperties() {
+        return new RetryPolicy(
+                Long.getLong(BASE_DELAY_PROPERTY, 25),
+                Long.getLong(MAX_DELAY_PROPERTY, 5000),
+                Integer.getInteger(THROTTLE_RETRIES_PROPERTY, 10),
+                Integer.getInteger(TRANSIENT_RETRIES_PROPERTY, 3)
+        );
+    }
+
+    /**
+     * @param previousDelayMillis previous pause, 0 before the first retry
+     * @return pause before the next attempt
+     */
+    public long nextDelay(long previousDelayMillis) {
+        long upper = Math.max(baseDelayMillis + 1, Math.min(maxDelayMillis, previousDelayMillis * 3) + 1);
+        return Math.min(maxDelayMillis, ThreadLocalRandom.current().nextLong(baseDelayMillis, upper));
+    }
+
+    public static ErrorKind classify(AmazonClientException e) {
+        if (e instanceof AbortedException || e instanceof CircuitOpenException) {
+            return ErrorKind.PERMANENT;
+        }
+        if (RetryUtils.isThrottlingException(e)) {
+            return ErrorKind.THROTTLING;
+        }
+        if (e instanceof AmazonServiceException serviceException) {
+            return serviceException.getStatusCode() >= 500 || RetryUtils.isRetryableServiceException(serviceException) ? ErrorKind.TRANSIENT : ErrorKind.PERMANENT;
+        }
+        return e.isRetryable() ? ErrorKind.TRANSIENT : ErrorKind.PERMANENT;
+    }
+}
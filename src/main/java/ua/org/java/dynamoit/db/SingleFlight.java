@@ -0,0 +1,89 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent identical calls share one execution: the first caller of a key runs the call, callers that come
+ * while it is running wait for its result or exception. Nothing is cached after the call is finished.
+ *
+ * @param <K> key of the call, must implement equals and hashCode
+ */
+public class SingleFlight<K> {
+
+    private final Map<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(K key, Supplier<V> call) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            hits.increment();
+            try {
+                return (V) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        misses.increment();
+        try {
+            V value = call.get();
+            // a caller that comes after this point must not get the result of the call made before it
+            inFlight.remove(key, future);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of calls that joined an already running call
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of calls that have been executed
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
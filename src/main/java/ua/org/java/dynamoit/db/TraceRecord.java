@@ -0,0 +1,42 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import java.io.Serializable;
+
+/**
+ * One call of a DynamoDB client written to a trace
+ *
+ * @param offsetMillis time of the call since the start of the trace
+ * @param operation    name of the client method
+ * @param table        table of the request, empty if there is no single table
+ * @param request      arguments of the call, their string representation identifies the request
+ * @param response     result of the call, null if it failed or bodies are not traced
+ * @param errorClass   class of the exception of the failed call, null if it has not failed
+ * @param errorCode    error code of the failed call, null if it has not failed
+ * @param statusCode   http status of the failed call, 0 if there was no response
+ * @param errorMessage message of the failed call, nullable
+ */
+public record TraceRecord(long offsetMillis, String profile, String region, String operation, String table,
+                          String request, long latencyNanos, Serializable response, String errorClass, String errorCode,
+                          int statusCode, String errorMessage) implements Serializable {
+
+    public boolean isFailed() {
+        return errorClass != null;
+    }
+}
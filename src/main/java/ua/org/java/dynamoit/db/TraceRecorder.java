@@ -0,0 +1,149 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceResult;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import ua.org.java.dynamoit.model.profile.ProfileDetails;
+import ua.org.java.dynamoit.model.profile.ProfileDetailsWithRegion;
+
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes every call of the wrapped clients to a gzipped stream of serialized {@link TraceRecord}s. Every record is
+ * flushed, so the trace of a crashed session is readable up to the last call.
+ *
+ * @see TraceReplay
+ */
+public class TraceRecorder implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(TraceRecorder.class.getName());
+
+    private static final Set<String> NOT_TRACED = Set.of("shutdown", "getCachedResponseMetadata", "setEndpoint", "setRegion", "waiters");
+
+    private final boolean bodies;
+    private final long startNanos = System.nanoTime();
+    private final ObjectOutputStream out;
+    private boolean closed;
+
+    /**
+     * @param bodies write results of the calls, without them the trace holds timings only and can't be replayed
+     */
+    public TraceRecorder(Path file, boolean bodies) throws IOException {
+        this.bodies = bodies;
+        this.out = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file)), true));
+    }
+
+    public AmazonDynamoDB wrap(AmazonDynamoDB target, ProfileDetails profileDetails) {
+        String region = profileDetails instanceof ProfileDetailsWithRegion details ? details.getRegion() : "";
+        return (AmazonDynamoDB) Proxy.newProxyInstance(
+                AmazonDynamoDB.class.getClassLoader(),
+                new Class<?>[]{AmazonDynamoDB.class},
+                (proxy, method, args) -> {
+                    if (NOT_TRACED.contains(method.getName())) {
+                        return invoke(target, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        Object result = invoke(target, method, args);
+                        write(new TraceRecord(millisSinceStart(start), profileDetails.getName(), region, method.getName(),
+                                DynamoDBClientRegistry.tableOf(args), requestOf(args), System.nanoTime() - start,
+                                bodies ? body(result) : null, null, null, 0, null));
+                        return result;
+                    } catch (AmazonServiceException e) {
+                        write(new TraceRecord(millisSinceStart(start), profileDetails.getName(), region, method.getName(),
+                                DynamoDBClientRegistry.tableOf(args), requestOf(args), System.nanoTime() - start,
+                                null, e.getClass().getName(), e.getErrorCode(), e.getStatusCode(), e.getErrorMessage()));
+                        throw e;
+                    } catch (AmazonClientException e) {
+                        write(new TraceRecord(millisSinceStart(start), profileDetails.getName(), region, method.getName(),
+                                DynamoDBClientRegistry.tableOf(args), requestOf(args), System.nanoTime() - start,
+                                null, e.getClass().getName(), null, 0, e.getMessage()));
+                        throw e;
+                    }
+                }
+        );
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            out.close();
+        }
+    }
+
+    private long millisSinceStart(long nanos) {
+        return (nanos - startNanos) / 1_000_000;
+    }
+
+    private synchronized void write(TraceRecord record) {
+        if (closed) {
+            return;
+        }
+        try {
+            out.writeObject(record);
+            // the stream must not keep references to written records
+            out.reset();
+            out.flush();
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "The call can't be traced: " + record.operation(), e);
+        }
+    }
+
+    static String requestOf(Object[] args) {
+        return args == null ? "[]" : Arrays.deepToString(args);
+    }
+
+    /**
+     * @return copy of the result without the http metadata that can't be serialized, null if the result can't be serialized
+     */
+    static Serializable body(Object result) {
+        if (result instanceof AmazonWebServiceResult<?> webServiceResult) {
+            try {
+                AmazonWebServiceResult<?> copy = (AmazonWebServiceResult<?>) result.getClass().getMethod("clone").invoke(webServiceResult);
+                copy.setSdkHttpMetadata(null);
+                copy.setSdkResponseMetadata(null);
+                return copy instanceof Serializable serializable ? serializable : null;
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+        return result instanceof Serializable serializable ? serializable : null;
+    }
+
+    private static Object invoke(AmazonDynamoDB target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import ua.org.java.dynamoit.model.profile.PreconfiguredProfileDetails;
+import ua.org.java.dynamoit.model.profile.ProfileDetails;
+
+import java.io.*;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static ua.org.java.dynamoit.utils.RegionsUtils.ALL_REGIONS;
+
+/**
+ * Serves calls of the clients by the responses of a trace written by {@link TraceRecorder}, no request leaves the
+ * application.
+ * <p>
+ * A call is answered by the next unused record of the same profile, operation and arguments; the last one is
+ * repeated when all of them are used. Calls that differ from the trace, e.g. by an adapted page size, get the next
+ * record of the same operation and table. Calls with neither of them fail with ResourceNotFoundException.
+ */
+public class TraceReplay {
+
+    /**
+     * Classes a trace may hold, the trace is read from a file which is not necessarily written by the application
+     */
+    private static final ObjectInputFilter TRACE_FILTER = ObjectInputFilter.Config.createFilter(String.join(";",
+            "maxdepth=32",
+            "maxarray=1000000",
+            TraceRecord.class.getName(),
+            "com.amazonaws.services.dynamodbv2.model.*",
+            "com.amazonaws.internal.SdkInternalList",
+            "com.amazonaws.internal.SdkInternalMap",
+            "java.lang.*",
+            "java.util.*",
+            "java.math.*",
+            "!*"
+    ));
+
+    private final boolean withLatency;
+    private final List<TraceRecord> records;
+    private final Map<List<String>, Cursor> byRequest = new HashMap<>();
+    private final Map<List<String>, Cursor> byTable = new HashMap<>();
+
+    /**
+     * @param withLatency answer after the latency of the traced call
+     */
+    public TraceReplay(List<TraceRecord> records, boolean withLatency) {
+        this.records = List.copyOf(records);
+        this.withLatency = withLatency;
+        for (TraceRecord record : records) {
+            byRequest.computeIfAbsent(List.of(record.profile(), record.operation(), record.request()), __ -> new Cursor()).add(record);
+            byTable.computeIfAbsent(List.of(record.profile(), record.operation(), record.table()), __ -> new Cursor()).add(record);
+        }
+    }
+
+    /**
+     * Read the trace, a trace cut by a crash is read up to the last complete record. Only the classes of the records
+     * and of the DynamoDB results are read.
+     */
+    public static TraceReplay load(Path file, boolean withLatency) throws IOException {
+        List<TraceRecord> records = new ArrayList<>();
+        try (ObjectInputStream in = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+            in.setObjectInputFilter(TRACE_FILTER);
+            while (true) {
+                records.add((TraceRecord) in.readObject());
+            }
+        } catch (EOFException e) {
+            // end of the trace
+        } catch (ClassNotFoundException | ClassCastException | InvalidClassException e) {
+            throw new IOException("Not a trace file: " + file, e);
+        }
+        return new TraceReplay(records, withLatency);
+    }
+
+    public List<TraceRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * @return profiles met in the trace
+     */
+    public Stream<ProfileDetails> getProfiles() {
+        Map<String, ProfileDetails> profiles = new LinkedHashMap<>();
+        records.forEach(record -> profiles.computeIfAbsent(record.profile(), name -> new PreconfiguredProfileDetails(
+                name,
+                record.region() == null || record.region().isEmpty() ? ALL_REGIONS.get(0) : record.region()
+        )));
+        return profiles.values().stream();
+    }
+
+    public AmazonDynamoDB client(ProfileDetails profileDetails) {
+        return (AmazonDynamoDB) Proxy.newProxyInstance(
+                AmazonDynamoDB.class.getClassLoader(),
+                new Class<?>[]{AmazonDynamoDB.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "shutdown", "setEndpoint", "setRegion", "getCachedResponseMetadata" -> {
+                            return null;
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "toString" -> {
+                            return "TraceReplay(" + profileDetails.getName() + ")";
+                        }
+                    }
+                    TraceRecord record = next(profileDetails.getName(), method.getName(), DynamoDBClientRegistry.tableOf(args), TraceRecorder.requestOf(args));
+                    if (withLatency) {
+                        try {
+                            TimeUnit.NANOSECONDS.sleep(record.latencyNanos());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new AbortedException(e);
+                        }
+                    }
+                    if (record.isFailed()) {
+                        throw error(record);
+                    }
+                    if (record.response() != null) {
+                        return record.response();
+                    }
+                    // the trace has no bodies
+                    return method.getReturnType().getDeclaredConstructor().newInstance();
+                }
+        );
+    }
+
+    private synchronized TraceRecord next(String profile, String operation, String table, String request) {
+        Cursor cursor = byRequest.get(List.of(profile, operation, request));
+        if (cursor == null) {
+            cursor = byTable.get(List.of(profile, operation, table));
+        }
+        if (cursor == null) {
+            AmazonServiceException exception = new AmazonServiceException("The request is not in the trace: " + operation + " " + request);
+            exception.setErrorCode("ResourceNotFoundException");
+            exception.setStatusCode(400);
+            exception.setErrorType(AmazonServiceException.ErrorType.Client);
+            throw exception;
+        }
+        return cursor.next();
+    }
+
+    private static AmazonClientException error(TraceRecord record) {
+        if (record.errorCode() == null) {
+            return new AmazonClientException(record.errorMessage());
+        }
+        AmazonServiceException exception = new AmazonServiceException(record.errorMessage());
+        exception.setErrorCode(record.errorCode());
+        exception.setStatusCode(record.statusCode());
+        exception.setErrorType(record.statusCode() >= 500 ? AmazonServiceException.ErrorType.Service : AmazonServiceException.ErrorType.Client);
+        return exception;
+    }
+
+    private static class Cursor {
+        private final List<TraceRecord> records = new ArrayList<>();
+        private int position;
+
+        void add(TraceRecord record) {
+            records.add(record);
+        }
+
+        TraceRecord next() {
+            TraceRecord record = records.get(Math.min(position, records.size() - 1));
+            position++;
+            return record;
+        }
+    }
+}
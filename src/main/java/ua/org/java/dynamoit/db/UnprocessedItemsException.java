@@ -0,0 +1,50 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonClientException;
+
+import java.util.Map;
+
+/**
+ * Thrown when a batch request still has unprocessed items or keys after the allowed number of attempts
+ */
+public class UnprocessedItemsException extends AmazonClientException {
+
+    private final transient Map<String, ?> unprocessed;
+
+    /**
+     * @param unprocessed items or keys left by the last attempt by table names
+     */
+    public UnprocessedItemsException(String operation, int attempts, Map<String, ?> unprocessed) {
+        super(String.format("%s has left unprocessed items after %d attempts", operation, attempts));
+        this.unprocessed = unprocessed;
+    }
+
+    /**
+     * @return write requests or keys and attributes which have not been processed by table names
+     */
+    public Map<String, ?> getUnprocessed() {
+        return unprocessed;
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
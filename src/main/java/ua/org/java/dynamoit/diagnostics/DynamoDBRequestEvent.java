@@ -0,0 +1,60 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One attempt of a DynamoDB request made by the client of a profile
+ */
+@Name("ua.org.java.dynamoit.DynamoDBRequest")
+@Label("DynamoDB Request")
+@Category({"DynamoIt", "DynamoDB"})
+@Description("Attempt of a DynamoDB request, retried requests produce several events")
+public class DynamoDBRequestEvent extends Event {
+
+    @Label("Profile")
+    public String profile;
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Table")
+    public String table;
+
+    @Label("Index")
+    public String index;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Items")
+    public int items;
+
+    @Label("Capacity Units")
+    public double capacityUnits;
+
+    @Label("Response Size")
+    @DataAmount
+    public long bytes;
+}
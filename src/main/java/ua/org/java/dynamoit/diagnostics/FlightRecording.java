@@ -0,0 +1,90 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Flight recording of the application: the JDK default settings (GC, threads, I/O) plus the DynamoIt events.
+ * The recording keeps the last {@value MAX_AGE_MINUTES} minutes, so it can be dumped right after a slowdown.
+ * <p>
+ * The threshold of slow ui tasks can be changed by the system property {@value FX_THRESHOLD_PROPERTY} (milliseconds).
+ */
+public class FlightRecording {
+
+    public static final String FX_THRESHOLD_PROPERTY = "dynamoit.jfr.fxThresholdMs";
+
+    private static final int MAX_AGE_MINUTES = 15;
+
+    private final Duration fxThreshold;
+    private Recording recording;
+
+    public FlightRecording() {
+        this(Duration.ofMillis(Long.getLong(FX_THRESHOLD_PROPERTY, 50)));
+    }
+
+    public FlightRecording(Duration fxThreshold) {
+        this.fxThreshold = fxThreshold;
+    }
+
+    /**
+     * Start a new recording unless one is running
+     */
+    public synchronized void start() throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        Recording newRecording = new Recording(Configuration.getConfiguration("default"));
+        newRecording.setName("DynamoIt");
+        newRecording.setMaxAge(Duration.ofMinutes(MAX_AGE_MINUTES));
+        newRecording.enable(DynamoDBRequestEvent.class);
+        newRecording.enable(PageMergeEvent.class);
+        newRecording.enable(FxTaskEvent.class).withThreshold(fxThreshold);
+        newRecording.start();
+        recording = newRecording;
+    }
+
+    /**
+     * Write the recorded events to the file, the recording goes on
+     *
+     * @throws IllegalStateException if the recording has not been started
+     */
+    public synchronized void dump(Path file) throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("The recording has not been started");
+        }
+        recording.dump(file);
+    }
+
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Task of the ui thread that took longer than the threshold, the ui does not respond while it runs
+ */
+@Name("ua.org.java.dynamoit.FxTask")
+@Label("Slow FX Task")
+@Category({"DynamoIt", "UI"})
+@Description("Task run on the JavaFX application thread longer than the threshold")
+@Threshold(FxTaskEvent.DEFAULT_THRESHOLD)
+public class FxTaskEvent extends Event {
+
+    static final String DEFAULT_THRESHOLD = "50 ms";
+
+    @Label("Task")
+    public String task;
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Items of a received page merged into the rows of a table grid on the ui thread
+ */
+@Name("ua.org.java.dynamoit.PageMerge")
+@Label("Page Merge")
+@Category({"DynamoIt", "UI"})
+@Description("Items of a received page merged into the table grid")
+public class PageMergeEvent extends Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Items")
+    public int items;
+
+    @Label("Scanned Items")
+    public int scannedItems;
+
+    @Label("Capacity Units")
+    public double capacityUnits;
+
+    @Label("Rows")
+    public int rows;
+}
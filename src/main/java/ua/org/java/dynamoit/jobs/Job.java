@@ -0,0 +1,220 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.jobs;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Long running background work: export, import, bulk delete, patch or count.
+ * <p>
+ * The work reports processed items, the expected total when it is known and consumed capacity, and calls
+ * {@link #checkpoint()} between its steps. A checkpoint blocks while the job is paused and throws
+ * {@link CancellationException} when the job is cancelled. All methods can be called from any thread.
+ */
+public class Job {
+
+    public enum State {
+        RUNNING, PAUSED, CANCELLED, COMPLETED, FAILED
+    }
+
+    private final String name;
+    private final LongSupplier nanoTime;
+    private final AtomicLong done = new AtomicLong();
+    private final DoubleAdder capacity = new DoubleAdder();
+    private final List<Runnable> cancelListeners = new CopyOnWriteArrayList<>();
+    private volatile long total = -1;
+    private volatile State state = State.RUNNING;
+    private long activeNanos;
+    private long resumedAt;
+
+    public Job(String name) {
+        this(name, System::nanoTime);
+    }
+
+    Job(String name, LongSupplier nanoTime) {
+        this.name = name;
+        this.nanoTime = nanoTime;
+        this.resumedAt = nanoTime.getAsLong();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state == State.CANCELLED || state == State.COMPLETED || state == State.FAILED;
+    }
+
+    /**
+     * @param total expected number of items, negative if unknown
+     */
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void addDone(long items) {
+        done.addAndGet(items);
+    }
+
+    public long getDone() {
+        return done.get();
+    }
+
+    public void addCapacity(double capacityUnits) {
+        capacity.add(capacityUnits);
+    }
+
+    public double getCapacity() {
+        return capacity.sum();
+    }
+
+    public synchronized void pause() {
+        if (state == State.RUNNING) {
+            activeNanos += nanoTime.getAsLong() - resumedAt;
+            state = State.PAUSED;
+        }
+    }
+
+    public synchronized void resume() {
+        if (state == State.PAUSED) {
+            resumedAt = nanoTime.getAsLong();
+            state = State.RUNNING;
+            notifyAll();
+        }
+    }
+
+    public void cancel() {
+        synchronized (this) {
+            if (isFinished()) {
+                return;
+            }
+            stop(State.CANCELLED);
+            notifyAll();
+        }
+        cancelListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Register an action stopping the work at once, e.g. cancelling its futures
+     */
+    public void onCancel(Runnable listener) {
+        cancelListeners.add(listener);
+    }
+
+    /**
+     * Wait while the job is paused
+     *
+     * @throws CancellationException if the job is cancelled or the thread is interrupted
+     */
+    public void checkpoint() {
+        if (state == State.RUNNING) {
+            return;
+        }
+        synchronized (this) {
+            while (state == State.PAUSED) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException(name + " is interrupted");
+                }
+            }
+            if (state == State.CANCELLED) {
+                throw new CancellationException(name + " is cancelled");
+            }
+        }
+    }
+
+    /**
+     * Called when the work is over, a cancelled job stays cancelled
+     */
+    public synchronized void finish(Throwable throwable) {
+        if (!isFinished()) {
+            stop(throwable == null ? State.COMPLETED : State.FAILED);
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return items per second of the time the job has not been paused
+     */
+    public double getThroughput() {
+        long nanos;
+        synchronized (this) {
+            nanos = state == State.RUNNING ? activeNanos + nanoTime.getAsLong() - resumedAt : activeNanos;
+        }
+        return nanos > 0 ? done.get() * 1e9 / nanos : 0;
+    }
+
+    /**
+     * @return time left at the current throughput, empty if the total is unknown or nothing has been done yet
+     */
+    public Optional<Duration> getEta() {
+        double throughput = getThroughput();
+        if (total < 0 || throughput <= 0 || isFinished()) {
+            return Optional.empty();
+        }
+        long remaining = Math.max(0, total - done.get());
+        return Optional.of(Duration.ofMillis((long) (remaining / throughput * 1000)));
+    }
+
+    /**
+     * @return part of the work done from 0 to 1, negative if the total is unknown
+     */
+    public double getProgress() {
+        if (state == State.COMPLETED) {
+            return 1;
+        }
+        return total > 0 ? Math.min(1, (double) done.get() / total) : -1;
+    }
+
+    public String getStatusText() {
+        StringBuilder text = new StringBuilder(String.format("%,d", done.get()));
+        if (total >= 0) {
+            text.append(String.format(" of %,d", total));
+        }
+        text.append(String.format(" items | %,.0f items/s | %,.1f capacity units", getThroughput(), getCapacity()));
+        getEta().ifPresent(eta -> text.append(String.format(" | ETA %d:%02d", eta.toMinutes(), eta.toSecondsPart())));
+        if (state != State.RUNNING) {
+            text.append(" | ").append(state.name().toLowerCase());
+        }
+        return text.toString();
+    }
+
+    private void stop(State newState) {
+        if (state == State.RUNNING) {
+            activeNanos += nanoTime.getAsLong() - resumedAt;
+        }
+        state = newState;
+    }
+}
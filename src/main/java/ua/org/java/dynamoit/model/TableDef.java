@@ -24,6 +24,8 @@ import javafx.collections.ObservableMap;
 import ua.org.java.dynamoit.components.tablegrid.Attributes;
 
 import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TableDef {
 
@@ -32,6 +34,10 @@ public class TableDef {
     private final SimpleStringProperty rangeAttribute = new SimpleStringProperty();
     private final ObservableMap<String, Attributes.Type> attributeTypesMap = FXCollections.observableMap(new LinkedHashMap<>());
     private final SimpleLongProperty totalCount = new SimpleLongProperty();
+    /**
+     * Attributes of the map which are paths inside of documents, e.g. address.city
+     */
+    private final Set<String> documentPaths = ConcurrentHashMap.newKeySet();
 
     public TableDef(String name) {
         this.name = name;
@@ -61,6 +67,10 @@ public class TableDef {
         return attributeTypesMap;
     }
 
+    public Set<String> getDocumentPaths() {
+        return documentPaths;
+    }
+
     public SimpleLongProperty totalCountProperty() {
         return totalCount;
     }
@@ -0,0 +1,197 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.*;
+
+/**
+ * Handler that hands records over to a background thread which publishes them to the target handlers, so the logging
+ * code does not wait for formatting and output.
+ * <p>
+ * Records are kept in a bounded ring buffer. When it is full, new records are dropped instead of blocking the logging
+ * thread, and the number of dropped records is logged later. Targets see the name of the thread that logged
+ * the record by {@link #threadName()}. The message is formatted with its parameters before the record is buffered,
+ * so parameters changed later by the logging code are not seen. The source class and method are not inferred.
+ * <p>
+ * Configured by the logging properties {@code ua.org.java.dynamoit.utils.AsyncLogHandler.handlers} (class names of
+ * the targets separated by spaces or commas), {@code .capacity} (records in the buffer, 8192 by default) and
+ * {@code .level}.
+ */
+public class AsyncLogHandler extends Handler {
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int BATCH_SIZE = 256;
+    private static final ThreadLocal<String> SOURCE_THREAD = new ThreadLocal<>();
+    private static final Formatter MESSAGE_FORMATTER = new SimpleFormatter();
+
+    private final ArrayBlockingQueue<Entry> buffer;
+    private final List<Handler> targets;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    public AsyncLogHandler() {
+        this(capacityProperty(), targetsProperty());
+        String level = LogManager.getLogManager().getProperty(AsyncLogHandler.class.getName() + ".level");
+        if (level != null) {
+            setLevel(Level.parse(level.trim()));
+        }
+    }
+
+    public AsyncLogHandler(int capacity, List<Handler> targets) {
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.targets = List.copyOf(targets);
+        this.worker = new Thread(this::drain, "async-log-handler");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * @return name of the thread that logged the record being published, or the current thread
+     */
+    public static String threadName() {
+        String name = SOURCE_THREAD.get();
+        return name != null ? name : Thread.currentThread().getName();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        if (record.getParameters() != null && record.getParameters().length > 0) {
+            record.setMessage(MESSAGE_FORMATTER.formatMessage(record));
+            record.setParameters(null);
+        }
+        if (!buffer.offer(new Entry(record, Thread.currentThread().getName()))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return number of records dropped because the buffer was full
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public void flush() {
+        // the worker flushes the targets whenever the buffer becomes empty
+    }
+
+    /**
+     * Publish the buffered records and close the targets
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        targets.forEach(Handler::close);
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(BATCH_SIZE);
+        long reportedDrops = 0;
+        while (true) {
+            Entry first;
+            try {
+                first = buffer.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+            }
+            if (first == null) {
+                if (closed && buffer.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            batch.add(first);
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            batch.forEach(this::publishToTargets);
+            batch.clear();
+
+            long drops = dropped.get();
+            if (drops > reportedDrops) {
+                LogRecord warning = new LogRecord(Level.WARNING, (drops - reportedDrops) + " log records have been dropped, the log buffer is full");
+                warning.setLoggerName(AsyncLogHandler.class.getName());
+                publishToTargets(new Entry(warning, worker.getName()));
+                reportedDrops = drops;
+            }
+            if (buffer.isEmpty()) {
+                targets.forEach(Handler::flush);
+            }
+        }
+    }
+
+    private void publishToTargets(Entry entry) {
+        SOURCE_THREAD.set(entry.threadName());
+        try {
+            for (Handler target : targets) {
+                try {
+                    target.publish(entry.record());
+                } catch (RuntimeException e) {
+                    reportError(null, e, ErrorManager.WRITE_FAILURE);
+                }
+            }
+        } finally {
+            SOURCE_THREAD.remove();
+        }
+    }
+
+    private static int capacityProperty() {
+        String capacity = LogManager.getLogManager().getProperty(AsyncLogHandler.class.getName() + ".capacity");
+        try {
+            return capacity != null ? Integer.parseInt(capacity.trim()) : DEFAULT_CAPACITY;
+        } catch (NumberFormatException e) {
+            return DEFAULT_CAPACITY;
+        }
+    }
+
+    private static List<Handler> targetsProperty() {
+        String names = LogManager.getLogManager().getProperty(AsyncLogHandler.class.getName() + ".handlers");
+        List<Handler> handlers = new ArrayList<>();
+        if (names == null) {
+            handlers.add(new ConsoleHandler());
+            return handlers;
+        }
+        for (String name : names.trim().split("[\\s,]+")) {
+            try {
+                handlers.add((Handler) Class.forName(name, true, AsyncLogHandler.class.getClassLoader()).getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                System.err.println("Log handler " + name + " can't be created: " + e);
+            }
+        }
+        return handlers;
+    }
+
+    private record Entry(LogRecord record, String threadName) {
+    }
+}
@@ -18,9 +18,13 @@
 package ua.org.java.dynamoit.utils;
 
 import javafx.application.Platform;
+import ua.org.java.dynamoit.diagnostics.FxTaskEvent;
 
 import java.util.concurrent.Executor;
 
+/**
+ * Runs tasks on the ui thread, tasks that take too long are reported to the flight recorder
+ */
 public class FXExecutor implements Executor {
 
     private static final FXExecutor INSTANCE = new FXExecutor();
@@ -31,7 +35,19 @@ public class FXExecutor implements Executor {
 
     @Override
     public void execute(Runnable command) {
-        Platform.runLater(command);
+        Platform.runLater(() -> {
+            FxTaskEvent event = new FxTaskEvent();
+            event.begin();
+            try {
+                command.run();
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.task = command.getClass().getName();
+                    event.commit();
+                }
+            }
+        });
     }
 
 }
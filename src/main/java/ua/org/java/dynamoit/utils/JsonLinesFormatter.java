@@ -0,0 +1,73 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.utils;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.logging.Formatter;
+import java.util.logging.LogRecord;
+
+/**
+ * Writes every record as a single line JSON object with the fields time, level, logger, thread, message and thrown.
+ */
+public class JsonLinesFormatter extends Formatter {
+
+    @Override
+    public String format(LogRecord record) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"time\":\"").append(record.getInstant()).append('"');
+        sb.append(",\"level\":\"").append(record.getLevel().getName()).append('"');
+        appendField(sb, "logger", record.getLoggerName());
+        appendField(sb, "thread", AsyncLogHandler.threadName());
+        appendField(sb, "message", formatMessage(record));
+        if (record.getThrown() != null) {
+            StringWriter sw = new StringWriter();
+            try (PrintWriter pw = new PrintWriter(sw)) {
+                record.getThrown().printStackTrace(pw);
+            }
+            appendField(sb, "thrown", sw.toString());
+        }
+        return sb.append('}').append(System.lineSeparator()).toString();
+    }
+
+    private static void appendField(StringBuilder sb, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        sb.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.utils;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executors of the background work instead of the common pool.
+ * <p>
+ * Blocking DynamoDB I/O runs on virtual threads, one per task, so long exports do not take threads from anything else.
+ * The number of concurrent requests of a profile is limited by its client, not here, because tasks wait for each other.
+ * CPU bound work runs on a bounded pool of platform threads. Every task is named, the name is the thread name
+ * printed by {@link ThreadNameSimpleFormatter}.
+ */
+public final class TaskExecutors {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    private static final int CPU_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService CPU_POOL = new ThreadPoolExecutor(CPU_THREADS, CPU_THREADS, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "cpu-" + SEQUENCE.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private TaskExecutors() {
+    }
+
+    /**
+     * @param name task name, the thread is named io:name#n
+     */
+    public static Executor io(String name) {
+        return command -> Thread.ofVirtual()
+                .name("io:" + name + "#" + SEQUENCE.incrementAndGet())
+                .start(command);
+    }
+
+    /**
+     * @param name task name, the pool thread is named cpu:name while it runs the task
+     */
+    public static Executor cpu(String name) {
+        return command -> CPU_POOL.execute(() -> {
+            Thread thread = Thread.currentThread();
+            String poolName = thread.getName();
+            thread.setName("cpu:" + name);
+            try {
+                command.run();
+            } finally {
+                thread.setName(poolName);
+            }
+        });
+    }
+}
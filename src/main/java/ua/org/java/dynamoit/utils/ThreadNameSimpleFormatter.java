@@ -21,24 +21,35 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.Optional;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.logging.Formatter;
 import java.util.logging.LogManager;
 import java.util.logging.LogRecord;
 import java.util.logging.SimpleFormatter;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * {@link SimpleFormatter} with the name of the logging thread as the 7th argument.
+ * <p>
+ * The format is parsed once. Strings, padded strings and the date and time conversions used by the default format
+ * are written directly, anything else falls back to {@link String#format}.
+ */
 public class ThreadNameSimpleFormatter extends Formatter {
 
-    private String format;
+    private static final Pattern SPECIFIER = Pattern.compile("%(\\d+\\$)?([-#+ 0,(<]*)(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+
+    private List<Segment> segments;
 
     public ThreadNameSimpleFormatter() {
-        this.format = LogManager.getLogManager().getProperty("ua.org.java.dynamoit.utils.ThreadNameSimpleFormatter.format");
+        setFormat(LogManager.getLogManager().getProperty("ua.org.java.dynamoit.utils.ThreadNameSimpleFormatter.format"));
     }
 
     public void setFormat(String format) {
-        this.format = format;
+        this.segments = parse(format != null ? format : "[%1$tF %1$tT] [%4$-7s] [%7$s] %5$s %n");
     }
 
     /**
@@ -46,36 +57,132 @@ public class ThreadNameSimpleFormatter extends Formatter {
      */
     @Override
     public String format(LogRecord record) {
-        ZonedDateTime zdt = record.getInstant().atZone(ZoneId.systemDefault());
-
-        String source = Stream.of(Optional.ofNullable(record.getSourceClassName()), Optional.ofNullable(record.getSourceMethodName()))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.joining(" "));
+        String source = record.getSourceClassName();
+        if (source == null) {
+            source = "";
+        }
+        if (record.getSourceMethodName() != null) {
+            source = source.isEmpty() ? record.getSourceMethodName() : source + " " + record.getSourceMethodName();
+        }
 
-        String message = formatMessage(record);
+        String throwable = "";
+        if (record.getThrown() != null) {
+            StringWriter sw = new StringWriter();
+            try (PrintWriter pw = new PrintWriter(sw)) {
+                pw.println();
+                record.getThrown().printStackTrace(pw);
+            }
+            throwable = sw.toString();
+        }
 
-        String throwable = Optional.ofNullable(record.getThrown())
-                .map(thrown -> {
-                    StringWriter sw = new StringWriter();
-                    try (PrintWriter pw = new PrintWriter(sw)) {
-                        pw.println();
-                        record.getThrown().printStackTrace(pw);
-                    }
-                    return sw.toString();
-                }).orElse("");
-
-        String threadName = Thread.currentThread().getName();
-
-        return String.format(format,
-                zdt,
+        Object[] args = {
+                record.getInstant().atZone(ZoneId.systemDefault()),
                 source,
                 record.getLoggerName(),
                 record.getLevel().getLocalizedName(),
-                message,
+                formatMessage(record),
                 throwable,
-                threadName
-                );
+                AsyncLogHandler.threadName()
+        };
+        StringBuilder sb = new StringBuilder(128);
+        for (Segment segment : segments) {
+            segment.append(sb, args);
+        }
+        return sb.toString();
+    }
+
+    static List<Segment> parse(String format) {
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = SPECIFIER.matcher(format);
+        int position = 0;
+        int ordinaryIndex = 0;
+        int lastIndex = 0;
+        while (matcher.find()) {
+            if (matcher.start() > position) {
+                segments.add(literal(format.substring(position, matcher.start())));
+            }
+            position = matcher.end();
+
+            String flags = matcher.group(2);
+            String conversion = matcher.group(6);
+            if (conversion.equals("%") || conversion.equals("n")) {
+                segments.add(literal(conversion.equals("n") ? System.lineSeparator() : "%"));
+                continue;
+            }
+
+            int index;
+            if (matcher.group(1) != null) {
+                index = Integer.parseInt(matcher.group(1).substring(0, matcher.group(1).length() - 1));
+            } else if (flags.contains("<")) {
+                index = lastIndex;
+            } else {
+                index = ++ordinaryIndex;
+            }
+            lastIndex = index;
+            int argument = index - 1;
+
+            int width = matcher.group(3) != null ? Integer.parseInt(matcher.group(3)) : 0;
+            boolean plain = matcher.group(4) == null && (flags.isEmpty() || flags.equals("-"));
+            if (plain && matcher.group(5) == null && conversion.equals("s")) {
+                boolean left = flags.equals("-");
+                segments.add((sb, args) -> pad(sb, String.valueOf(args[argument]), width, left));
+                continue;
+            }
+            DateTimeFormatter formatter = plain && width == 0 && "t".equals(matcher.group(5)) ? dateTimeFormatter(conversion) : null;
+            if (formatter != null) {
+                segments.add((sb, args) -> formatter.formatTo((ZonedDateTime) args[argument], sb));
+                continue;
+            }
+
+            String specifier = "%" + index + "$" + flags.replace("<", "") + nonNull(matcher.group(3)) + nonNull(matcher.group(4))
+                    + nonNull(matcher.group(5)) + conversion;
+            segments.add((sb, args) -> sb.append(String.format(specifier, args)));
+        }
+        if (position < format.length()) {
+            segments.add(literal(format.substring(position)));
+        }
+        return segments;
+    }
+
+    private static Segment literal(String text) {
+        return (sb, args) -> sb.append(text);
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+
+    private static DateTimeFormatter dateTimeFormatter(String conversion) {
+        return switch (conversion) {
+            case "F" -> DateTimeFormatter.ofPattern("yyyy-MM-dd", Locale.ROOT);
+            case "T" -> DateTimeFormatter.ofPattern("HH:mm:ss", Locale.ROOT);
+            case "R" -> DateTimeFormatter.ofPattern("HH:mm", Locale.ROOT);
+            case "H" -> DateTimeFormatter.ofPattern("HH", Locale.ROOT);
+            case "M" -> DateTimeFormatter.ofPattern("mm", Locale.ROOT);
+            case "S" -> DateTimeFormatter.ofPattern("ss", Locale.ROOT);
+            case "L" -> DateTimeFormatter.ofPattern("SSS", Locale.ROOT);
+            case "Y" -> DateTimeFormatter.ofPattern("yyyy", Locale.ROOT);
+            case "m" -> DateTimeFormatter.ofPattern("MM", Locale.ROOT);
+            case "d" -> DateTimeFormatter.ofPattern("dd", Locale.ROOT);
+            default -> null;
+        };
+    }
+
+    private static void pad(StringBuilder sb, String value, int width, boolean left) {
+        if (!left) {
+            sb.append(" ".repeat(Math.max(0, width - value.length())));
+        }
+        sb.append(value);
+        if (left) {
+            sb.append(" ".repeat(Math.max(0, width - value.length())));
+        }
+    }
+
+    /**
+     * Part of the parsed format
+     */
+    interface Segment {
+        void append(StringBuilder sb, Object[] args);
     }
 
 }
@@ -147,6 +147,18 @@ public class Utils {
         return event.isAltDown() || event.isShiftDown() || event.isControlDown() || event.isMetaDown();
     }
 
+    /**
+     * @return primary key attributes of the item in the low level representation
+     */
+    public static Map<String, AttributeValue> primaryKey(Item item, String hashKeyName, String rangeKeyName) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        key.put(hashKeyName, ItemUtils.toAttributeValue(item.get(hashKeyName)));
+        if (rangeKeyName != null) {
+            key.put(rangeKeyName, ItemUtils.toAttributeValue(item.get(rangeKeyName)));
+        }
+        return key;
+    }
+
     public static Map<String, AttributeValue> rawJsonToMap(String json) throws JsonProcessingException {
         return OBJECT_MAPPER.readValue(json, new TypeReference<>() {
         });
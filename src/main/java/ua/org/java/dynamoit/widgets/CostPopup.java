@@ -0,0 +1,130 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.widgets;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Popup;
+import javafx.util.Duration;
+import ua.org.java.dynamoit.db.CapacityLedger;
+import ua.org.java.dynamoit.utils.DX;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Popover with the capacity consumed by the session, tabs, jobs, tables and indexes and its estimated cost.
+ * The read budget of a single action is changed here.
+ */
+public class CostPopup extends Popup {
+
+    private static final Duration REFRESH_PERIOD = Duration.seconds(1);
+
+    private final CapacityLedger ledger;
+    private final TableView<CapacityLedger.Account> tableView = new TableView<>();
+    private final SimpleStringProperty sessionCost = new SimpleStringProperty();
+
+    public CostPopup(CapacityLedger ledger) {
+        this.ledger = ledger;
+        setAutoHide(true);
+
+        tableView.setPrefSize(700, 300);
+        tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        tableView.getColumns().addAll(List.of(
+                column("Kind", account -> account.getKind().name().toLowerCase()),
+                column("Name", CapacityLedger.Account::getName),
+                column("RCU", account -> String.format("%,.1f", account.getReadUnits())),
+                column("WCU", account -> String.format("%,.1f", account.getWriteUnits())),
+                column("Cost, $", account -> String.format("%,.4f", ledger.cost(account)))
+        ));
+        tableView.getColumns().get(1).setPrefWidth(300);
+
+        getContent().add(DX.create(VBox::new, (VBox vBox) -> {
+            vBox.setPadding(new Insets(6));
+            vBox.setSpacing(6);
+            vBox.setStyle("-fx-background-color: -color-bg-default; -fx-border-color: -color-border-default;");
+            VBox.setVgrow(tableView, Priority.ALWAYS);
+            return List.of(
+                    tableView,
+                    DX.create(HBox::new, (HBox hBox) -> {
+                        hBox.setAlignment(Pos.CENTER_LEFT);
+                        hBox.setSpacing(6);
+                        TextField budget = new TextField(ledger.getReadBudget() > 0 ? String.format("%.0f", ledger.getReadBudget()) : "");
+                        budget.setPromptText("no budget");
+                        budget.setPrefColumnCount(8);
+                        budget.setTooltip(new Tooltip("Actions expected to read more units are confirmed, empty for no budget"));
+                        budget.setOnAction(event -> applyBudget(budget));
+                        budget.focusedProperty().addListener((observable, oldValue, focused) -> {
+                            if (!focused) {
+                                applyBudget(budget);
+                            }
+                        });
+                        return List.of(
+                                new Label("Prices of on-demand request units, provisioned tables are billed by capacity"),
+                                DX.spacer(),
+                                new Label("Read budget of an action, RCU"),
+                                budget
+                        );
+                    })
+            );
+        }));
+
+        Timeline timeline = new Timeline(new KeyFrame(REFRESH_PERIOD, event -> refresh()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+        timeline.play();
+        refresh();
+    }
+
+    /**
+     * @return estimated cost of the session, e.g. "$0.0012"
+     */
+    public SimpleStringProperty sessionCostProperty() {
+        return sessionCost;
+    }
+
+    private void refresh() {
+        sessionCost.set(String.format("$%,.4f", ledger.cost(ledger.getSession())));
+        if (isShowing()) {
+            tableView.getItems().setAll(ledger.getAccounts());
+        }
+    }
+
+    private void applyBudget(TextField budget) {
+        String text = budget.getText().trim();
+        try {
+            ledger.setReadBudget(text.isEmpty() ? 0 : Double.parseDouble(text));
+        } catch (NumberFormatException e) {
+            budget.setText(ledger.getReadBudget() > 0 ? String.format("%.0f", ledger.getReadBudget()) : "");
+        }
+    }
+
+    private static TableColumn<CapacityLedger.Account, String> column(String title, Function<CapacityLedger.Account, String> value) {
+        TableColumn<CapacityLedger.Account, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(value.apply(param.getValue())));
+        return column;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.widgets;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+import ua.org.java.dynamoit.EventBus;
+import ua.org.java.dynamoit.jobs.Job;
+import ua.org.java.dynamoit.utils.DX;
+
+import java.util.List;
+
+import static atlantafx.base.theme.Styles.BUTTON_ICON;
+
+/**
+ * List of background jobs with their progress, pause/resume and cancel buttons.
+ * Jobs are changed by their own threads, so the list is redrawn periodically.
+ */
+public class JobsPanel extends VBox {
+
+    private static final Duration REFRESH_PERIOD = Duration.millis(500);
+
+    private final SimpleIntegerProperty runningCount = new SimpleIntegerProperty();
+    private final ListView<Job> listView = new ListView<>();
+
+    public JobsPanel(EventBus eventBus) {
+        setPrefHeight(160);
+        setPadding(new Insets(3));
+        getChildren().addAll(
+                DX.create(HBox::new, (HBox header) -> {
+                    header.setAlignment(Pos.CENTER_LEFT);
+                    header.setSpacing(6);
+                    return List.of(
+                            new Label("Jobs"),
+                            DX.spacer(),
+                            DX.create(Button::new, button -> {
+                                button.setText("Clear finished");
+                                button.setOnAction(event -> eventBus.clearFinishedJobs());
+                            })
+                    );
+                }),
+                DX.create(() -> listView, listView -> {
+                    VBox.setVgrow(listView, Priority.ALWAYS);
+                    listView.setItems(eventBus.getJobs());
+                    listView.setPlaceholder(new Label("No jobs"));
+                    listView.setCellFactory(param -> new JobCell());
+                })
+        );
+
+        Timeline timeline = new Timeline(new KeyFrame(REFRESH_PERIOD, event -> {
+            runningCount.set((int) eventBus.getJobs().stream().filter(job -> !job.isFinished()).count());
+            if (isVisible()) {
+                listView.refresh();
+            }
+        }));
+        timeline.setCycleCount(Animation.INDEFINITE);
+        timeline.play();
+    }
+
+    /**
+     * @return number of jobs not finished yet
+     */
+    public SimpleIntegerProperty runningCountProperty() {
+        return runningCount;
+    }
+
+    private static class JobCell extends ListCell<Job> {
+
+        private final Label name = new Label();
+        private final Label status = new Label();
+        private final ProgressBar progressBar = new ProgressBar();
+        private final Button pauseButton = new Button();
+        private final Button cancelButton = new Button();
+        private final HBox graphic = DX.create(HBox::new, (HBox hBox) -> {
+            hBox.setAlignment(Pos.CENTER_LEFT);
+            hBox.setSpacing(6);
+            return List.of(
+                    DX.create(VBox::new, (VBox vBox) -> {
+                        HBox.setHgrow(vBox, Priority.ALWAYS);
+                        return List.of(name, status);
+                    }),
+                    progressBar,
+                    pauseButton,
+                    cancelButton
+            );
+        });
+
+        JobCell() {
+            progressBar.setPrefWidth(150);
+            pauseButton.setPrefWidth(70);
+            cancelButton.setGraphic(DX.icon("icons/cross.png"));
+            cancelButton.getStyleClass().addAll(BUTTON_ICON);
+            cancelButton.setTooltip(new Tooltip("Cancel the job"));
+        }
+
+        @Override
+        protected void updateItem(Job job, boolean empty) {
+            super.updateItem(job, empty);
+            if (empty || job == null) {
+                setGraphic(null);
+                return;
+            }
+            name.setText(job.getName());
+            status.setText(job.getStatusText());
+            progressBar.setProgress(job.isFinished() && job.getProgress() < 0 ? 0 : job.getProgress());
+            pauseButton.setText(job.getState() == Job.State.PAUSED ? "Resume" : "Pause");
+            pauseButton.setDisable(job.isFinished());
+            pauseButton.setOnAction(event -> {
+                if (job.getState() == Job.State.PAUSED) {
+                    job.resume();
+                } else {
+                    job.pause();
+                }
+                updateItem(job, false);
+            });
+            cancelButton.setDisable(job.isFinished());
+            cancelButton.setOnAction(event -> {
+                job.cancel();
+                updateItem(job, false);
+            });
+            setGraphic(graphic);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.widgets;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
+import javafx.stage.Popup;
+import javafx.util.Duration;
+import ua.org.java.dynamoit.EventBus;
+import ua.org.java.dynamoit.db.DynamoDBService;
+import ua.org.java.dynamoit.db.HedgedReads;
+import ua.org.java.dynamoit.db.MetricsRegistry;
+import ua.org.java.dynamoit.utils.DX;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Popover with the statistics of DynamoDB calls, refreshed while it is shown.
+ */
+public class MetricsPopup extends Popup {
+
+    private static final Duration REFRESH_PERIOD = Duration.seconds(1);
+
+    private final DynamoDBService dynamoDBService;
+    private final TableView<MetricsRegistry.Snapshot> tableView = new TableView<>();
+    private final Label summary = new Label();
+    private final Timeline timeline;
+
+    public MetricsPopup(DynamoDBService dynamoDBService, EventBus eventBus) {
+        this.dynamoDBService = dynamoDBService;
+        setAutoHide(true);
+
+        tableView.setPrefSize(900, 300);
+        tableView.setPlaceholder(new Label("No requests yet"));
+        tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        tableView.getColumns().addAll(List.of(
+                column("Profile", snapshot -> snapshot.key().profile()),
+                column("Table", snapshot -> snapshot.key().table()),
+                column("Index", snapshot -> snapshot.key().index()),
+                column("Operation", snapshot -> snapshot.key().operation()),
+                column("Calls", snapshot -> String.format("%,d", snapshot.calls())),
+                column("Errors", snapshot -> String.format("%,d", snapshot.errors())),
+                column("Throttled", snapshot -> String.format("%,d", snapshot.throttles())),
+                column("p50 ms", snapshot -> millis(snapshot.p50Micros())),
+                column("p95 ms", snapshot -> millis(snapshot.p95Micros())),
+                column("p99 ms", snapshot -> millis(snapshot.p99Micros())),
+                column("Max ms", snapshot -> millis(snapshot.maxMicros())),
+                column("KB", snapshot -> String.format("%,.1f", snapshot.bytes() / 1024.0)),
+                column("RCU", snapshot -> String.format("%,.1f", snapshot.readCapacity())),
+                column("WCU", snapshot -> String.format("%,.1f", snapshot.writeCapacity()))
+        ));
+
+        getContent().add(DX.create(VBox::new, (VBox vBox) -> {
+            vBox.setPadding(new Insets(6));
+            vBox.setSpacing(6);
+            vBox.setStyle("-fx-background-color: -color-bg-default; -fx-border-color: -color-border-default;");
+            VBox.setVgrow(tableView, Priority.ALWAYS);
+            return List.of(
+                    tableView,
+                    DX.create(HBox::new, (HBox hBox) -> {
+                        hBox.setAlignment(Pos.CENTER_LEFT);
+                        hBox.setSpacing(6);
+                        return List.of(
+                                summary,
+                                DX.spacer(),
+                                DX.create(Button::new, button -> {
+                                    button.setText("Reset");
+                                    button.setOnAction(event -> {
+                                        dynamoDBService.getMetrics().reset();
+                                        refresh();
+                                    });
+                                }),
+                                DX.create(Button::new, button -> {
+                                    button.setText("Export JSON");
+                                    button.setOnAction(event -> {
+                                        FileChooser fileChooser = new FileChooser();
+                                        fileChooser.setInitialFileName("metrics.json");
+                                        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Json files", "*.json"));
+                                        File file = fileChooser.showSaveDialog(getOwnerWindow());
+                                        if (file != null) {
+                                            String json = dynamoDBService.getMetrics().toJson();
+                                            eventBus.activity(
+                                                    CompletableFuture.runAsync(() -> write(file, json)),
+                                                    "Can't export the metrics",
+                                                    "The file " + file + " can't be written"
+                                            );
+                                        }
+                                    });
+                                })
+                        );
+                    })
+            );
+        }));
+
+        timeline = new Timeline(new KeyFrame(REFRESH_PERIOD, event -> refresh()));
+        timeline.setCycleCount(Animation.INDEFINITE);
+        setOnShown(event -> {
+            refresh();
+            timeline.play();
+        });
+        setOnHidden(event -> timeline.stop());
+    }
+
+    private void refresh() {
+        tableView.getItems().setAll(dynamoDBService.getMetrics().snapshot());
+        HedgedReads hedgedReads = dynamoDBService.getHedgedReads();
+        summary.setText(String.format("Coalesced %,d of %,d reads | hedged %,d, won %.0f%%",
+                dynamoDBService.getCoalescedRequests(),
+                dynamoDBService.getCoalescedRequests() + dynamoDBService.getExecutedRequests(),
+                hedgedReads.getHedges(),
+                hedgedReads.getWinRate() * 100
+        ));
+    }
+
+    private static TableColumn<MetricsRegistry.Snapshot, String> column(String title, Function<MetricsRegistry.Snapshot, String> value) {
+        TableColumn<MetricsRegistry.Snapshot, String> column = new TableColumn<>(title);
+        column.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(value.apply(param.getValue())));
+        return column;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%,.1f", micros / 1000.0);
+    }
+
+    private static void write(File file, String json) {
+        try {
+            Files.writeString(file.toPath(), json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class AdaptivePageSizeTest {
+
+    private static final long MB = 1024 * 1024;
+
+    @Test
+    public void testInitialValues() {
+        AdaptivePageSize pageSize = new AdaptivePageSize(1000, 8 * MB);
+        assertEquals(AdaptivePageSize.INITIAL_SIZE, pageSize.getPageLimit());
+        assertEquals(AdaptivePageSize.INITIAL_SIZE, pageSize.getBatchSize());
+        assertEquals(Integer.MAX_VALUE, pageSize.getPagesPerBatch());
+    }
+
+    @Test
+    public void testLargeItemsShrinkPage() {
+        AdaptivePageSize pageSize = new AdaptivePageSize(1000, 8 * MB);
+        // 3 items of 300 KB fill one response
+        pageSize.record(3, 3, 900 * 1024, null, 400);
+
+        assertEquals(3, pageSize.getPageLimit());
+        assertEquals(27, pageSize.getBatchSize());
+        assertEquals(2, pageSize.getPagesPerBatch());
+    }
+
+    @Test
+    public void testSmallFastItemsGrowPage() {
+        AdaptivePageSize pageSize = new AdaptivePageSize(1000, 8 * MB);
+        for (int i = 0; i < 5; i++) {
+            pageSize.record(pageSize.getPageLimit(), pageSize.getPageLimit(), 200L * pageSize.getPageLimit(), null, 50);
+        }
+        assertEquals(1000, pageSize.getPageLimit());
+        assertEquals(5000, pageSize.getBatchSize());
+    }
+
+    @Test
+    public void testSlowPagesShrinkPage() {
+        AdaptivePageSize pageSize = new AdaptivePageSize(1000, 8 * MB);
+        pageSize.record(100, 100, 100 * 1024, null, 4000);
+        assertEquals(50, pageSize.getPageLimit());
+        assertEquals(1, pageSize.getPagesPerBatch());
+    }
+
+    @Test
+    public void testConsumedCapacityDefinesScannedSize() {
+        AdaptivePageSize pageSize = new AdaptivePageSize(1000, 8 * MB);
+        // sparse filter: 1 item out of 100 scanned, 128 capacity units = 1 MB read
+        pageSize.record(1, 100, 100, 128.0, 1000);
+        assertEquals(100, pageSize.getPageLimit());
+    }
+
+    @Test
+    public void testEstimateSize() {
+        Item item = new Item()
+                .withString("id", "abc")
+                .withNumber("n", 1)
+                .withBoolean("b", true)
+                .withList("l", List.of("x", "y"))
+                .withMap("m", Map.of("k", "v"));
+        assertEquals(2 + 3 + 1 + 21 + 1 + 1 + 1 + 7 + 1 + 6, AdaptivePageSize.estimateSize(item));
+    }
+
+}
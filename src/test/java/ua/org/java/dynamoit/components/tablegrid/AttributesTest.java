@@ -17,10 +17,15 @@
 
 package ua.org.java.dynamoit.components.tablegrid;
 
+import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.ScanFilter;
 import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
 import static org.junit.Assert.*;
 
 public class AttributesTest {
@@ -51,5 +56,48 @@ public class AttributesTest {
         scanFilter = Attributes.attributeValueToFilter("name", "**", Attributes.Type.STRING, ScanFilter::new);
         assertEquals(ComparisonOperator.EQ, scanFilter.getComparisonOperator());
     }
-}
 
+    @Test
+    public void testValueWithCommasIsEqualCondition() {
+        ScanFilter scanFilter = Attributes.attributeValueToFilter("name", "Doe, John", Attributes.Type.STRING, ScanFilter::new);
+        assertEquals(ComparisonOperator.EQ, scanFilter.getComparisonOperator());
+        assertArrayEquals(new Object[]{"Doe, John"}, scanFilter.getValues());
+
+        scanFilter = Attributes.attributeValueToFilter("name", "\"Doe, John\"", Attributes.Type.STRING, ScanFilter::new);
+        assertEquals(ComparisonOperator.EQ, scanFilter.getComparisonOperator());
+        assertArrayEquals(new Object[]{"\"Doe, John\""}, scanFilter.getValues());
+
+        scanFilter = Attributes.attributeValueToFilter("name", "[Doe, John]", Attributes.Type.STRING, ScanFilter::new);
+        assertEquals(ComparisonOperator.IN, scanFilter.getComparisonOperator());
+        assertArrayEquals(new Object[]{"Doe", "John"}, scanFilter.getValues());
+    }
+
+    @Test
+    public void testDefineAttributesTypesByMajority() {
+        Map<String, Attributes.Type> types = Attributes.defineAttributesTypes(List.of(
+                new Item().withString("age", "unknown").withBoolean("active", true),
+                new Item().withNumber("age", 30).withString("active", "yes"),
+                new Item().withNumber("age", 40)
+        ));
+        assertEquals(Attributes.Type.NUMBER, types.get("age"));
+        assertEquals(Attributes.Type.STRING, types.get("active"));
+    }
+
+    @Test
+    public void testOrFilter() {
+        assertTrue(Attributes.isOrFilter(" |john"));
+        assertFalse(Attributes.isOrFilter("john|doe"));
+        assertFalse(Attributes.isOrFilter(null));
+        assertEquals("john", Attributes.withoutOrPrefix("|john"));
+        assertEquals("john", Attributes.withoutOrPrefix("john"));
+
+        ScanFilter scanFilter = Attributes.attributeValueToFilter("name", "|^John", Attributes.Type.STRING, ScanFilter::new);
+        assertEquals(ComparisonOperator.BEGINS_WITH, scanFilter.getComparisonOperator());
+    }
+
+    @Test
+    public void testDefineType() {
+        assertEquals(Attributes.Type.NUMBER, Attributes.defineType(Stream.of(1, 2, "three", null, null)));
+        assertEquals(Attributes.Type.STRING, Attributes.defineType(Stream.of((Object) null)));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DocumentPathTest {
+
+    @Test
+    public void testParse() {
+        DocumentPath path = DocumentPath.parse("items[0].sku");
+        assertEquals("items", path.getAttribute());
+        assertEquals(List.of(
+                new DocumentPath.Element("items", -1),
+                new DocumentPath.Element(null, 0),
+                new DocumentPath.Element("sku", -1)
+        ), path.getElements());
+
+        assertEquals(3, DocumentPath.parse("matrix[1][2]").getElements().size());
+        assertEquals(2, DocumentPath.parse("address.city").getElements().size());
+    }
+
+    @Test
+    public void testMalformed() {
+        for (String path : List.of("", ".city", "address.", "address..city", "[0]", "items[", "items[a]", "items[-1]")) {
+            try {
+                DocumentPath.parse(path);
+                fail(path);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void testResolve() {
+        Item item = new Item()
+                .withMap("address", Map.of("city", "Kyiv"))
+                .withList("items", List.of(Map.of("sku", "A1"), Map.of("sku", "B2")));
+
+        assertEquals("Kyiv", DocumentPath.parse("address.city").resolve(item));
+        assertEquals("B2", DocumentPath.parse("items[1].sku").resolve(item));
+        assertNull(DocumentPath.parse("items[5].sku").resolve(item));
+        assertNull(DocumentPath.parse("address[0]").resolve(item));
+        assertNull(DocumentPath.parse("missing.value").resolve(item));
+    }
+
+    @Test
+    public void testTopLevelNameIsNotParsed() {
+        Item item = new Item().withNumber("a.b", 1);
+        assertEquals(new BigDecimal(1), DocumentPath.of("a.b").resolve(item));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.RangeKeyCondition;
+import com.amazonaws.services.dynamodbv2.document.ScanFilter;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ExpressionBuilderTest {
+
+    @Test
+    public void testConditions() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        assertEquals("#n0.#n1 = :v0", builder.condition(DocumentPath.parse("address.city"), new ScanFilter("address.city").eq("Kyiv")));
+        assertEquals("begins_with(#n2[0].#n3, :v1)", builder.condition(DocumentPath.parse("items[0].sku"), new ScanFilter("items[0].sku").beginsWith("A")));
+        assertEquals("attribute_not_exists(#n0)", builder.condition(DocumentPath.of("address"), new ScanFilter("address").notExist()));
+        assertEquals("#n4 IN (:v2, :v3)", builder.condition(DocumentPath.of("id"), new ScanFilter("id").in("a", "b")));
+
+        assertEquals(Map.of("#n0", "address", "#n1", "city", "#n2", "items", "#n3", "sku", "#n4", "id"), builder.getNameMap());
+        assertEquals(Map.of(":v0", "Kyiv", ":v1", "A", ":v2", "a", ":v3", "b"), builder.getValueMap());
+    }
+
+    @Test
+    public void testKeyCondition() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        assertEquals("#n0 = :v0", builder.keyCondition("id", "a", null));
+        assertEquals("#n0 = :v1 AND #n1 BETWEEN :v2 AND :v3", builder.keyCondition("id", "a", new RangeKeyCondition("sort").between(1, 5)));
+    }
+
+    @Test
+    public void testEmptyValueMap() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        builder.condition(DocumentPath.of("address"), new ScanFilter("address").exists());
+        assertNull(builder.getValueMap());
+    }
+}
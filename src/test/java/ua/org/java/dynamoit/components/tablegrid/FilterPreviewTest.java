@@ -0,0 +1,41 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FilterPreviewTest {
+
+    @Test
+    public void testComplete() {
+        assertEquals("12 matches / scan", new FilterPreview(true, 12, 500, true, null, 10_000).text());
+        assertEquals("3 matches / query", new FilterPreview(false, 3, 3, true, null, 10_000).text());
+    }
+
+    @Test
+    public void testScanIsExtrapolated() {
+        assertEquals("≈200 matches / scan", new FilterPreview(true, 20, 1000, false, null, 10_000).text());
+        assertEquals("≥20 matches / scan", new FilterPreview(true, 20, 1000, false, null, 0).text());
+    }
+
+    @Test
+    public void testQueryIsNotExtrapolated() {
+        assertEquals("≥7 matches / uses index byName", new FilterPreview(false, 7, 1000, false, "byName", 10_000).text());
+    }
+}
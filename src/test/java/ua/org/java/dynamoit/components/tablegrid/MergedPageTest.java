@@ -0,0 +1,82 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import javafx.util.Pair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MergedPageTest {
+
+    @Test
+    public void testFirstPageStartsLimitedRequests() {
+        MergedPage.Cursor cursor = MergedPage.Cursor.of(null, 5, 3);
+        assertEquals(List.of(0, 1, 2), new ArrayList<>(cursor.startKeys().keySet()));
+        assertTrue(cursor.startKeys().values().stream().allMatch(key -> key == null));
+        assertEquals(3, cursor.nextRequest());
+    }
+
+    @Test
+    public void testRequestsContinueByBookmark() {
+        MergedPage.Cursor cursor = MergedPage.Cursor.of(null, 5, 3);
+        Map<Integer, Map<String, AttributeValue>> lastKeys = new HashMap<>();
+        lastKeys.put(0, null);
+        lastKeys.put(1, key("b"));
+        lastKeys.put(2, null);
+        Map<String, AttributeValue> bookmark = cursor.nextBookmark(lastKeys);
+
+        MergedPage page = new MergedPage(List.of(), bookmark);
+        assertTrue(page.hasNextPage());
+        assertEquals(bookmark, PageNavigator.lastEvaluatedKey(page));
+
+        cursor = MergedPage.Cursor.of(bookmark, 5, 3);
+        assertEquals(List.of(1, 3, 4), new ArrayList<>(cursor.startKeys().keySet()));
+        assertEquals(key("b"), cursor.startKeys().get(1));
+        assertNull(cursor.startKeys().get(3));
+        assertEquals(5, cursor.nextRequest());
+
+        lastKeys = new HashMap<>();
+        lastKeys.put(1, key("c"));
+        bookmark = cursor.nextBookmark(lastKeys);
+        cursor = MergedPage.Cursor.of(bookmark, 5, 3);
+        assertEquals(List.of(1), new ArrayList<>(cursor.startKeys().keySet()));
+
+        assertNull(cursor.nextBookmark(new HashMap<>()));
+    }
+
+    @Test
+    public void testAllPages() {
+        MergedPage.Request request = startKey -> startKey == null ?
+                new Pair<>(List.of(new Item().withString("id", "a")), key("a")) :
+                new Pair<>(List.of(new Item().withString("id", "b")), null);
+        List<String> ids = new ArrayList<>();
+        MergedPage.allPages(request).get().forEach(page -> page.forEach(item -> ids.add(item.getString("id"))));
+        assertEquals(List.of("a", "b"), ids);
+    }
+
+    private static Map<String, AttributeValue> key(String value) {
+        return Map.of("id", new AttributeValue(value));
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import org.junit.Test;
+import ua.org.java.dynamoit.jobs.Job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.*;
+
+public class OrderedPagesTest {
+
+    @Test
+    public void testItemsInSourceOrder() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            List<Supplier<Iterable<List<Item>>>> sources = List.of(
+                    source(List.of(items(0, 1), List.of(), items(2))),
+                    source(List.of()),
+                    source(List.of(items(3, 4), items(5)))
+            );
+            OrderedPages pages = new OrderedPages(sources, 2, 1, executor, new Job("test"));
+            assertEquals(List.of(0, 1, 2, 3, 4, 5), StreamSupport.stream(pages.spliterator(), false).map(item -> item.getInt("id")).toList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrencyIsBounded() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            AtomicInteger started = new AtomicInteger();
+            List<Supplier<Iterable<List<Item>>>> sources = IntStream.range(0, 6)
+                    .<Supplier<Iterable<List<Item>>>>mapToObj(i -> () -> {
+                        started.incrementAndGet();
+                        return List.of(items(i));
+                    })
+                    .toList();
+            OrderedPages pages = new OrderedPages(sources, 2, 1, executor, new Job("test"));
+            var iterator = pages.iterator();
+            assertEquals(0, iterator.next().getInt("id"));
+            assertTrue(started.get() <= 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testCancelledJob() {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            Job job = new Job("test");
+            List<List<Item>> infinite = new ArrayList<>();
+            IntStream.range(0, 100).forEach(i -> infinite.add(items(i)));
+            OrderedPages pages = new OrderedPages(List.of(source(infinite)), 1, 1, executor, job);
+            var iterator = pages.iterator();
+            iterator.next();
+            job.cancel();
+            while (iterator.hasNext()) {
+                iterator.next();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Supplier<Iterable<List<Item>>> source(List<List<Item>> pages) {
+        return () -> pages;
+    }
+
+    private static List<Item> items(int... ids) {
+        return IntStream.of(ids).mapToObj(id -> new Item().withInt("id", id)).toList();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.document.KeyAttribute;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PageNavigatorTest {
+
+    private static Map<String, AttributeValue> key(String value) {
+        return Map.of("id", new AttributeValue(value));
+    }
+
+    private static List<Item> items(String... ids) {
+        return Arrays.stream(ids).map(id -> new Item().withString("id", id)).toList();
+    }
+
+    @Test
+    public void testBookmarks() {
+        PageNavigator navigator = new PageNavigator();
+        assertTrue(navigator.isBookmarked(0));
+        assertFalse(navigator.isBookmarked(1));
+        assertTrue(navigator.getBookmark(0).isEmpty());
+
+        navigator.record(0, items("1", "2"), key("2"));
+        navigator.setCurrentIndex(0);
+        assertTrue(navigator.hasNext());
+        assertFalse(navigator.hasPrevious());
+        assertEquals(key("2"), navigator.getBookmark(1).orElseThrow());
+
+        navigator.record(1, items("3"), null);
+        navigator.setCurrentIndex(1);
+        assertFalse(navigator.hasNext());
+        assertTrue(navigator.hasPrevious());
+        assertTrue(navigator.isLastPageReached());
+        assertEquals(1, navigator.getLastBookmarkedIndex());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecordNotBookmarkedPage() {
+        new PageNavigator().record(1, items("1"), null);
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        PageNavigator navigator = new PageNavigator(2);
+        navigator.record(0, items("1"), key("1"));
+        navigator.record(1, items("2"), key("2"));
+        navigator.getCached(0);
+        navigator.record(2, items("3"), key("3"));
+
+        assertTrue(navigator.getCached(0).isPresent());
+        assertTrue(navigator.getCached(1).isEmpty());
+        assertEquals(items("3"), navigator.getCached(2).orElseThrow());
+        // evicted page is still reachable by its bookmark
+        assertEquals(key("1"), navigator.getBookmark(1).orElseThrow());
+    }
+
+    @Test
+    public void testLastPageEvictsFollowingPages() {
+        PageNavigator navigator = new PageNavigator();
+        navigator.record(0, items("1"), key("1"));
+        navigator.record(1, items("2"), key("2"));
+        navigator.record(2, items("3"), null);
+
+        // items after the first page have been deleted
+        navigator.record(0, items("1"), null);
+        assertEquals(0, navigator.getLastBookmarkedIndex());
+        assertTrue(navigator.getCached(1).isEmpty());
+        assertTrue(navigator.getCached(2).isEmpty());
+    }
+
+    @Test
+    public void testMovedBookmarkEvictsFollowingPages() {
+        PageNavigator navigator = new PageNavigator();
+        navigator.record(0, items("1"), key("1"));
+        navigator.record(1, items("2"), key("2"));
+        navigator.record(2, items("3"), null);
+
+        navigator.record(0, items("1", "2"), key("2"));
+        assertEquals(key("2"), navigator.getBookmark(1).orElseThrow());
+        assertEquals(1, navigator.getLastBookmarkedIndex());
+        assertFalse(navigator.isLastPageReached());
+        assertTrue(navigator.getCached(1).isEmpty());
+        assertTrue(navigator.getCached(2).isEmpty());
+    }
+
+    @Test
+    public void testReset() {
+        PageNavigator navigator = new PageNavigator();
+        navigator.record(0, items("1"), key("1"));
+        navigator.setCurrentIndex(0);
+        navigator.reset();
+
+        assertEquals(-1, navigator.getCurrentIndex());
+        assertEquals(0, navigator.getLastBookmarkedIndex());
+        assertTrue(navigator.getCached(0).isEmpty());
+        assertFalse(navigator.hasNext());
+    }
+
+    @Test
+    public void testToKeyAttributes() {
+        KeyAttribute[] attributes = PageNavigator.toKeyAttributes(Map.of("count", new AttributeValue().withN("10")));
+        assertEquals(1, attributes.length);
+        assertEquals("count", attributes[0].getName());
+        assertEquals(new BigDecimal("10"), attributes[0].getValue());
+    }
+
+    @Test
+    public void testLastEvaluatedKeyWithoutPage() {
+        assertNull(PageNavigator.lastEvaluatedKey(null));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class RandomSampleTest {
+
+    @Test
+    public void testTotalSegments() {
+        assertEquals(RandomSample.UNKNOWN_COUNT_SEGMENTS, RandomSample.totalSegments(null));
+        assertEquals(RandomSample.UNKNOWN_COUNT_SEGMENTS, RandomSample.totalSegments(0L));
+        assertEquals(1, RandomSample.totalSegments(5L));
+        assertEquals(100, RandomSample.totalSegments(1000L));
+        assertEquals(RandomSample.MAX_TOTAL_SEGMENTS, RandomSample.totalSegments(100_000_000_000L));
+    }
+
+    @Test
+    public void testSegmentsAreNotRepeated() {
+        RandomSample sample = new RandomSample(100, 100_000_000L, new Random(1));
+
+        List<Integer> first = sample.nextSegments(0);
+        assertEquals(20, first.size());
+        first.forEach(segment -> assertTrue(segment >= 0 && segment < sample.getTotalSegments()));
+
+        List<Integer> second = sample.nextSegments(95);
+        assertEquals(2, second.size());
+        Set<Integer> all = new HashSet<>(first);
+        all.addAll(second);
+        assertEquals(22, all.size());
+    }
+
+    @Test
+    public void testStopsWhenCompleteOrExhausted() {
+        RandomSample complete = new RandomSample(100, 100_000_000L, new Random(1));
+        assertTrue(complete.nextSegments(100).isEmpty());
+
+        RandomSample small = new RandomSample(100, 30L, new Random(1));
+        assertEquals(List.of(0, 1, 2), small.nextSegments(0));
+        assertTrue(small.nextSegments(30).isEmpty());
+    }
+}
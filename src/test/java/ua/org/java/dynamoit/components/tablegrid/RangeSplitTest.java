@@ -0,0 +1,78 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RangeSplitTest {
+
+    @Test
+    public void testIntegerBoundaries() {
+        List<Object> boundaries = RangeSplit.boundaries(new BigDecimal(0), new BigDecimal(100), 4);
+        assertEquals(List.of(new BigDecimal(0), new BigDecimal(25), new BigDecimal(50), new BigDecimal(75), new BigDecimal(100)), boundaries);
+    }
+
+    @Test
+    public void testNarrowRangeHasDistinctBoundaries() {
+        List<Object> boundaries = RangeSplit.boundaries(new BigDecimal(1), new BigDecimal(3), 8);
+        assertEquals(List.of(new BigDecimal(1), new BigDecimal(2), new BigDecimal(3)), boundaries);
+    }
+
+    @Test
+    public void testDecimalBoundaries() {
+        List<Object> boundaries = RangeSplit.boundaries(new BigDecimal("0.5"), new BigDecimal("1.5"), 2);
+        assertEquals(3, boundaries.size());
+        assertEquals(0, new BigDecimal("1.0").compareTo((BigDecimal) boundaries.get(1)));
+    }
+
+    @Test
+    public void testStringBoundaries() {
+        List<Object> boundaries = RangeSplit.boundaries("order#2020-01-01", "order#2024-12-31", 8);
+        assertEquals("order#2020-01-01", boundaries.get(0));
+        assertEquals("order#2024-12-31", boundaries.get(boundaries.size() - 1));
+        assertTrue(boundaries.size() > 2);
+        for (int i = 1; i < boundaries.size(); i++) {
+            String previous = (String) boundaries.get(i - 1);
+            String current = (String) boundaries.get(i);
+            assertTrue(current.startsWith("order#202"));
+            assertTrue(Arrays.compareUnsigned(previous.getBytes(StandardCharsets.UTF_8), current.getBytes(StandardCharsets.UTF_8)) < 0);
+        }
+    }
+
+    @Test
+    public void testNotSplittable() {
+        assertTrue(RangeSplit.boundaries(null, "a", 4).isEmpty());
+        assertTrue(RangeSplit.boundaries("a", "a", 4).isEmpty());
+        assertTrue(RangeSplit.boundaries("b", "a", 4).isEmpty());
+        assertTrue(RangeSplit.boundaries(new byte[]{1}, new byte[]{2}, 4).isEmpty());
+        assertTrue(RangeSplit.boundaries(new BigDecimal(1), new BigDecimal(100), 1).isEmpty());
+    }
+
+    @Test
+    public void testBelongsToPrevious() {
+        assertTrue(RangeSplit.belongsToPrevious(new BigDecimal("25.0"), new BigDecimal(25)));
+        assertFalse(RangeSplit.belongsToPrevious(new BigDecimal(26), new BigDecimal(25)));
+        assertTrue(RangeSplit.belongsToPrevious("b", "b"));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ScanProgressTest {
+
+    @Test
+    public void testAddPage() {
+        ScanProgress progress = new ScanProgress();
+        progress.addPage(100, 5, 12.5);
+        progress.addPage(50, 0, 6);
+
+        assertEquals(150, progress.getScannedCount());
+        assertEquals(5, progress.getMatchedCount());
+        assertEquals(2, progress.getPagesRead());
+        assertEquals(18.5, progress.getConsumedCapacity(), 0.001);
+        assertEquals(String.format("Scanned %,d | matched %,d | pages %,d | %,.1f RCU", 150, 5, 2, 18.5), progress.textProperty().get());
+
+        progress.addCapacity(1.5);
+        assertEquals(20, progress.getConsumedCapacity(), 0.001);
+        assertEquals(2, progress.getPagesRead());
+    }
+
+    @Test
+    public void testReset() {
+        ScanProgress progress = new ScanProgress();
+        progress.setScan(true);
+        progress.setParallel(true);
+        progress.setRunning(true);
+        progress.addPage(100, 5, 12.5);
+
+        progress.reset();
+
+        assertEquals(0, progress.getScannedCount());
+        assertEquals(0, progress.getPagesRead());
+        assertFalse(progress.isScan());
+        assertFalse(progress.isParallel());
+        assertTrue(progress.isRunning());
+    }
+}
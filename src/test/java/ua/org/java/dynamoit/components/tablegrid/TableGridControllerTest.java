@@ -17,12 +17,17 @@
 
 package ua.org.java.dynamoit.components.tablegrid;
 
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.Page;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
 import javafx.application.HostServices;
+import javafx.beans.property.SimpleStringProperty;
 import javafx.util.Pair;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -30,16 +35,27 @@ import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 import ua.org.java.dynamoit.EventBus;
 import ua.org.java.dynamoit.components.main.MainModel;
+import ua.org.java.dynamoit.db.AsyncDynamoDB;
+import ua.org.java.dynamoit.db.CapacityLedger;
 import ua.org.java.dynamoit.db.DynamoDBService;
+import ua.org.java.dynamoit.jobs.Job;
 import ua.org.java.dynamoit.model.TableDef;
 import ua.org.java.dynamoit.model.profile.PreconfiguredProfileDetails;
+import ua.org.java.dynamoit.model.profile.ProfileDetails;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.easymock.EasyMock.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @PrepareForTest(HostServices.class)
 @RunWith(PowerMockRunner.class)
@@ -68,6 +84,8 @@ public class TableGridControllerTest {
         DynamoDBService dynamoDBService = mock(DynamoDBService.class);
         expect(dynamoDBService.getOrCreateDynamoDBClient(context.profileDetails())).andReturn(amazonDynamoDB);
         expect(dynamoDBService.getOrCreateDocumentClient(context.profileDetails())).andReturn(dynamoDB);
+        expect(dynamoDBService.getOrCreateAsyncClient(context.profileDetails())).andReturn(null);
+        expect(dynamoDBService.getLedger()).andReturn(new CapacityLedger());
 
         Page<Item, Object> page = mock(Page.class);
         HostServices hostServices = mock(HostServices.class);
@@ -94,4 +112,66 @@ public class TableGridControllerTest {
         assertEquals(model.getRowsSize(), 2);
         assertEquals(model.getCurrentPage(), page);
     }
+
+    @Test
+    public void onSaveToFileOfKeyList() throws Exception {
+        TableGridContext context = new TableGridContext(new PreconfiguredProfileDetails("profile1", "region1"), "table1");
+        MainModel mainModel = new MainModel();
+        mainModel.addProfile(context.profileDetails());
+        TableDef tableDef = new TableDef("table1");
+        tableDef.setHashAttribute("id");
+        TableGridModel model = new TableGridModel(mainModel.getAvailableProfiles().get("profile1"));
+        model.setTableDef(tableDef);
+        model.getAttributeFilterMap().put("id", new SimpleStringProperty("[a,b]"));
+
+        CountDownLatch release = new CountDownLatch(1);
+        AmazonDynamoDB client = new AbstractAmazonDynamoDB() {
+            @Override
+            public BatchGetItemResult batchGetItem(BatchGetItemRequest request) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                List<Map<String, AttributeValue>> items = request.getRequestItems().get("table1").getKeys().stream()
+                        .map(key -> Map.of("id", key.get("id")))
+                        .collect(Collectors.toList());
+                return new BatchGetItemResult().withResponses(Map.of("table1", items)).withUnprocessedKeys(Map.of());
+            }
+        };
+        DynamoDBService dynamoDBService = new DynamoDBService() {
+            @Override
+            public AmazonDynamoDB getOrCreateDynamoDBClient(ProfileDetails profileDetails) {
+                return client;
+            }
+
+            @Override
+            public DynamoDB getOrCreateDocumentClient(ProfileDetails profileDetails) {
+                return new DynamoDB(client);
+            }
+
+            @Override
+            public AsyncDynamoDB getOrCreateAsyncClient(ProfileDetails profileDetails) {
+                return new AsyncDynamoDB(client, 16, profileDetails.getName());
+            }
+        };
+        EventBus eventBus = new EventBus(Runnable::run);
+        TableGridController controller = new TableGridController(context, model, dynamoDBService, eventBus, Runnable::run, null);
+
+        File file = File.createTempFile("dynamoit", ".json");
+        try {
+            // the caller stands for the ui thread, it must not wait for the items
+            CompletableFuture.runAsync(() -> controller.onSaveToFile(file)).get(2, TimeUnit.SECONDS);
+            release.countDown();
+
+            for (int i = 0; i < 50 && eventBus.getJobs().stream().noneMatch(Job::isFinished); i++) {
+                Thread.sleep(100);
+            }
+            assertTrue(eventBus.getJobs().get(0).isFinished());
+            assertEquals("[{\"id\":\"a\"},{\"id\":\"b\"}]", Files.readString(file.toPath()).replaceAll("\\s", ""));
+        } finally {
+            release.countDown();
+            Files.deleteIfExists(file.toPath());
+        }
+    }
 }
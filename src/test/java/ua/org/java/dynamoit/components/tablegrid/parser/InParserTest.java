@@ -0,0 +1,55 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.components.tablegrid.parser;
+
+import com.amazonaws.services.dynamodbv2.document.QueryFilter;
+import com.amazonaws.services.dynamodbv2.model.ComparisonOperator;
+import org.junit.Test;
+import ua.org.java.dynamoit.components.tablegrid.Attributes;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+public class InParserTest {
+
+    @Test
+    public void test() {
+        assertTrue(new InParser<QueryFilter>("[a,b]", Attributes.Type.STRING, null).matches());
+        assertTrue(new InParser<QueryFilter>("[a\nb]", Attributes.Type.STRING, null).matches());
+        assertTrue(new InParser<QueryFilter>("[a]", Attributes.Type.STRING, null).matches());
+        assertFalse(new InParser<QueryFilter>("a,b", Attributes.Type.STRING, null).matches());
+        assertFalse(new InParser<QueryFilter>("a\nb", Attributes.Type.STRING, null).matches());
+        assertFalse(new InParser<QueryFilter>("[a,b", Attributes.Type.STRING, null).matches());
+        assertFalse(new InParser<QueryFilter>("a", Attributes.Type.STRING, null).matches());
+        assertFalse(new InParser<QueryFilter>("", Attributes.Type.STRING, null).matches());
+    }
+
+    @Test
+    public void testParse() {
+        InParser<QueryFilter> parser = new InParser<>("[ id1, id2 ,\nid3,,id1\n]", Attributes.Type.STRING, new QueryFilter("id"));
+        assertTrue(parser.matches());
+        QueryFilter filter = parser.parse();
+        assertEquals(ComparisonOperator.IN, filter.getComparisonOperator());
+        assertArrayEquals(new Object[]{"id1", "id2", "id3"}, filter.getValues());
+
+        parser = new InParser<>("[1,2]", Attributes.Type.NUMBER, new QueryFilter("id"));
+        assertTrue(parser.matches());
+        assertArrayEquals(new Object[]{new BigDecimal(1), new BigDecimal(2)}, parser.parse().getValues());
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class AimdLimitTest {
+
+    @Test
+    public void testAdditiveIncreaseMultiplicativeDecrease() {
+        AtomicLong now = new AtomicLong();
+        AimdLimit limit = new AimdLimit(16, now::get);
+
+        limit.onThrottle();
+        assertEquals(8, limit.getLimit());
+        // throttles of the same round are counted once
+        limit.onThrottle();
+        assertEquals(8, limit.getLimit());
+
+        now.set(TimeUnit.SECONDS.toNanos(1));
+        limit.onThrottle();
+        assertEquals(4, limit.getLimit());
+
+        // about one permit per round of requests
+        for (int i = 0; i < 5; i++) {
+            limit.onSuccess();
+        }
+        assertEquals(5, limit.getLimit());
+
+        for (int i = 0; i < 1000; i++) {
+            limit.onSuccess();
+        }
+        assertEquals(16, limit.getLimit());
+    }
+}
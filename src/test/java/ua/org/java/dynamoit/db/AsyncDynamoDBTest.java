@@ -0,0 +1,145 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AsyncDynamoDBTest {
+
+    @Test
+    public void testSubmitBlocksWhenWindowIsFull() throws Exception {
+        AsyncDynamoDB async = new AsyncDynamoDB(new AbstractAmazonDynamoDB() {
+        }, 2, "test");
+        CountDownLatch release = new CountDownLatch(1);
+        async.submit(client -> await(release));
+        async.submit(client -> await(release));
+        assertEquals(2, async.getInFlight());
+
+        CompletableFuture<CompletableFuture<Integer>> third = CompletableFuture.supplyAsync(() -> async.submit(client -> 3));
+        Thread.sleep(100);
+        assertFalse(third.isDone());
+
+        release.countDown();
+        assertEquals(3, (int) third.get(5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testBatchWriteRetriesUnprocessedItems() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        AsyncDynamoDB async = new AsyncDynamoDB(new AbstractAmazonDynamoDB() {
+            @Override
+            public synchronized BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+                List<WriteRequest> requests = request.getRequestItems().get("table");
+                sizes.add(requests.size());
+                return new BatchWriteItemResult()
+                        .withConsumedCapacity(new ConsumedCapacity().withTableName("table").withCapacityUnits((double) requests.size()))
+                        .withUnprocessedItems(requests.size() > 1 ? Map.of("table", requests.subList(1, requests.size())) : Map.of());
+            }
+        }, 10, "test");
+
+        List<WriteRequest> requests = List.of(
+                new WriteRequest(new DeleteRequest(Map.of("id", new AttributeValue("1")))),
+                new WriteRequest(new DeleteRequest(Map.of("id", new AttributeValue("2")))),
+                new WriteRequest(new DeleteRequest(Map.of("id", new AttributeValue("3"))))
+        );
+        assertEquals(6.0, async.batchWrite("table", requests).get(5, TimeUnit.SECONDS), 0.001);
+        assertEquals(List.of(3, 2, 1), sizes);
+    }
+
+    @Test
+    public void testBatchWriteFailsWithLeftoverItems() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        AsyncDynamoDB async = new AsyncDynamoDB(new AbstractAmazonDynamoDB() {
+            @Override
+            public BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+                attempts.incrementAndGet();
+                return new BatchWriteItemResult().withUnprocessedItems(request.getRequestItems());
+            }
+        }, 10, "test");
+
+        List<WriteRequest> requests = List.of(new WriteRequest(new DeleteRequest(Map.of("id", new AttributeValue("1")))));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> async.batchWrite("table", requests).get(30, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof UnprocessedItemsException);
+        assertEquals(Map.of("table", requests), ((UnprocessedItemsException) e.getCause()).getUnprocessed());
+        assertEquals(AsyncDynamoDB.BATCH_WRITE_ATTEMPTS, attempts.get());
+    }
+
+    @Test
+    public void testCancelStopsBatchWriteRetries() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch firstAttempt = new CountDownLatch(1);
+        AsyncDynamoDB async = new AsyncDynamoDB(new AbstractAmazonDynamoDB() {
+            @Override
+            public BatchWriteItemResult batchWriteItem(BatchWriteItemRequest request) {
+                attempts.incrementAndGet();
+                firstAttempt.countDown();
+                return new BatchWriteItemResult().withUnprocessedItems(request.getRequestItems());
+            }
+        }, 1, "test");
+
+        CompletableFuture<Double> future = async.batchWrite("table", List.of(new WriteRequest(new DeleteRequest(Map.of("id", new AttributeValue("1"))))));
+        assertTrue(firstAttempt.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        // the window is free again as soon as the retry loop has stopped
+        assertEquals(1, (int) async.submit(client -> 1).get(5, TimeUnit.SECONDS));
+        assertTrue(attempts.get() < AsyncDynamoDB.BATCH_WRITE_ATTEMPTS);
+    }
+
+    @Test
+    public void testCountSumsSegmentsAndPages() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        AsyncDynamoDB async = new AsyncDynamoDB(new AbstractAmazonDynamoDB() {
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                requests.incrementAndGet();
+                assertEquals(Select.COUNT.toString(), request.getSelect());
+                // every segment has two pages of 5 items
+                return request.getExclusiveStartKey() == null ?
+                        new ScanResult().withCount(5).withLastEvaluatedKey(Map.of("id", new AttributeValue("5"))) :
+                        new ScanResult().withCount(5);
+            }
+        }, 10, "test");
+
+        ScanRequest request = new ScanRequest("table");
+        assertEquals(40L, (long) async.count(request, 4).get(5, TimeUnit.SECONDS));
+        assertEquals(8, requests.get());
+        assertNull(request.getSelect());
+    }
+
+    private static Integer await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.services.dynamodbv2.model.*;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class CapacityLedgerTest {
+
+    @Test
+    public void testRecord() throws Exception {
+        CapacityLedger ledger = new CapacityLedger(0.25, 1.25, 0);
+        CapacityLedger.Account tab = ledger.open(CapacityLedger.Kind.TAB, "default/Table");
+        CapacityLedger.Account job = ledger.open(CapacityLedger.Kind.JOB, "Export");
+
+        QueryResult query = new QueryResult().withConsumedCapacity(new ConsumedCapacity()
+                .withTableName("Table")
+                .withCapacityUnits(3.0)
+                .withGlobalSecondaryIndexes(Map.of("byName", new Capacity().withCapacityUnits(2.0))));
+        tab.call(() -> {
+            ledger.record("default", "query", query);
+            return null;
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            BatchWriteItemResult write = new BatchWriteItemResult().withConsumedCapacity(new ConsumedCapacity().withTableName("Table").withCapacityUnits(4.0));
+            // the job is passed to the task, the tab is added by the executor
+            job.call(() -> CompletableFuture.runAsync(() -> ledger.record("default", "batchWriteItem", write), tab.inherit(executorService))).get();
+        } finally {
+            executorService.shutdown();
+        }
+        // no account is charged beside the session and the table
+        ledger.record("default", "getItem", new GetItemResult().withConsumedCapacity(new ConsumedCapacity().withTableName("Other").withCapacityUnits(0.5)));
+
+        assertEquals(3.5, ledger.getSession().getReadUnits(), 0);
+        assertEquals(4, ledger.getSession().getWriteUnits(), 0);
+        assertEquals(3, tab.getReadUnits(), 0);
+        assertEquals(4, tab.getWriteUnits(), 0);
+        assertEquals(0, job.getReadUnits(), 0);
+        assertEquals(4, job.getWriteUnits(), 0);
+
+        List<String> names = ledger.getAccounts().stream().map(CapacityLedger.Account::getName).toList();
+        assertEquals(List.of("Session", "default/Table", "Export", "default/Other", "default/Table", "default/Table/byName"), names);
+        CapacityLedger.Account index = ledger.getAccounts().get(5);
+        assertEquals(CapacityLedger.Kind.INDEX, index.getKind());
+        assertEquals(2, index.getReadUnits(), 0);
+
+        assertEquals((3.5 * 0.25 + 4 * 1.25) / 1_000_000, ledger.cost(ledger.getSession()), 1e-12);
+    }
+
+    @Test
+    public void testReadBudget() {
+        CapacityLedger ledger = new CapacityLedger(0.25, 1.25, 0);
+        assertFalse(ledger.exceedsReadBudget(1_000_000));
+        ledger.setReadBudget(100);
+        assertFalse(ledger.exceedsReadBudget(100));
+        assertTrue(ledger.exceedsReadBudget(101));
+    }
+
+    @Test
+    public void testAccountsAreLimited() {
+        CapacityLedger ledger = new CapacityLedger(0.25, 1.25, 0);
+        CapacityLedger.Account first = ledger.open(CapacityLedger.Kind.JOB, "Export 0");
+        for (int i = 1; i <= CapacityLedger.MAX_ACTIONS; i++) {
+            ledger.open(CapacityLedger.Kind.JOB, "Export " + i);
+        }
+
+        List<CapacityLedger.Account> accounts = ledger.getAccounts();
+        assertEquals(CapacityLedger.MAX_ACTIONS + 1, accounts.size());
+        assertFalse(accounts.contains(first));
+        assertEquals("Export 1", accounts.get(1).getName());
+    }
+
+    @Test
+    public void testRequestIndexes() {
+        ScanRequest scan = new ScanRequest("Table").withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        Object[] args = CapacityLedger.requestIndexes(new Object[]{scan});
+        assertEquals("INDEXES", ((ScanRequest) args[0]).getReturnConsumedCapacity());
+        assertEquals("Table", ((ScanRequest) args[0]).getTableName());
+        // the caller's request is not changed
+        assertEquals("TOTAL", scan.getReturnConsumedCapacity());
+
+        PutItemRequest put = new PutItemRequest();
+        assertEquals("INDEXES", ((PutItemRequest) CapacityLedger.requestIndexes(new Object[]{put})[0]).getReturnConsumedCapacity());
+        assertNull(put.getReturnConsumedCapacity());
+
+        // shortcut overloads and requests without capacity are left as they are
+        Object[] shortcut = {"Table"};
+        assertSame(shortcut, CapacityLedger.requestIndexes(shortcut));
+        assertNull(CapacityLedger.requestIndexes(null));
+    }
+}
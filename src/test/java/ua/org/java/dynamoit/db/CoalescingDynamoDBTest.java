@@ -0,0 +1,100 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.*;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CoalescingDynamoDBTest {
+
+    @Test
+    public void testNormalize() {
+        assertEquals(new DescribeTableRequest("table"), CoalescingDynamoDB.normalize("describeTable", new Object[]{"table"}));
+        assertEquals(new ListTablesRequest(), CoalescingDynamoDB.normalize("listTables", null));
+        assertEquals(new ScanRequest("table"), CoalescingDynamoDB.normalize("scan", new Object[]{new ScanRequest("table")}));
+        assertEquals(List.of("table", List.of("a")), CoalescingDynamoDB.normalize("scan", new Object[]{"table", List.of("a")}));
+    }
+
+    @Test
+    public void testConcurrentDescribeTableIsCoalesced() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        AmazonDynamoDB target = new AbstractAmazonDynamoDB() {
+            @Override
+            public DescribeTableResult describeTable(DescribeTableRequest request) {
+                calls.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new DescribeTableResult().withTable(new TableDescription().withTableName(request.getTableName()));
+            }
+        };
+        SingleFlight<List<Object>> singleFlight = new SingleFlight<>();
+        AmazonDynamoDB client = CoalescingDynamoDB.wrap(target, 1, singleFlight);
+
+        CompletableFuture<DescribeTableResult> first = CompletableFuture.supplyAsync(() -> client.describeTable("table"));
+        while (calls.get() == 0) {
+            Thread.sleep(1);
+        }
+        CompletableFuture<DescribeTableResult> second = CompletableFuture.supplyAsync(() -> client.describeTable(new DescribeTableRequest("table")));
+        while (singleFlight.getHits() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testWritesAndErrorsArePassedThrough() {
+        AmazonDynamoDB target = new AbstractAmazonDynamoDB() {
+            @Override
+            public DeleteItemResult deleteItem(DeleteItemRequest request) {
+                return new DeleteItemResult();
+            }
+
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                throw new ResourceNotFoundException("no table");
+            }
+        };
+        SingleFlight<List<Object>> singleFlight = new SingleFlight<>();
+        AmazonDynamoDB client = CoalescingDynamoDB.wrap(target, 1, singleFlight);
+
+        assertNotNull(client.deleteItem(new DeleteItemRequest()));
+        assertEquals(0, singleFlight.getMisses());
+        try {
+            client.scan(new ScanRequest("table"));
+            fail("Exception expected");
+        } catch (ResourceNotFoundException e) {
+            assertEquals(1, singleFlight.getMisses());
+        }
+    }
+}
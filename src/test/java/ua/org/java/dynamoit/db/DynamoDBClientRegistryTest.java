@@ -0,0 +1,303 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ListTablesRequest;
+import com.amazonaws.services.dynamodbv2.model.ListTablesResult;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import org.junit.Test;
+import ua.org.java.dynamoit.model.profile.LocalProfileDetails;
+import ua.org.java.dynamoit.model.profile.PreconfiguredProfileDetails;
+import ua.org.java.dynamoit.model.profile.ProfileDetails;
+import ua.org.java.dynamoit.utils.TaskExecutors;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class DynamoDBClientRegistryTest {
+
+    private static final RetryPolicy RETRY = new RetryPolicy(1, 2, 3, 2);
+
+    private final List<FakeClient> created = new ArrayList<>();
+    private final AtomicLong now = new AtomicLong();
+    private final DynamoDBClientRegistry registry = new DynamoDBClientRegistry(profile -> {
+        FakeClient client = new FakeClient();
+        created.add(client);
+        return client;
+    }, new SingleFlight<>(), Duration.ofSeconds(10), 2, RETRY, new HedgedReads(false, 0), new MetricsRegistry(), new CapacityLedger(), now::get);
+
+    @Test
+    public void testClientsAreKeyedByFullIdentity() {
+        PreconfiguredProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        AmazonDynamoDB client = registry.getClient(profile);
+        assertSame(client, registry.getClient(new PreconfiguredProfileDetails("default", "us-east-1")));
+        assertNotSame(client, registry.getClient(new PreconfiguredProfileDetails("default", "eu-west-1")));
+        assertNotSame(client, registry.getClient(new LocalProfileDetails("default", "http://localhost:8000")));
+
+        // changing region of the profile does not change the client registered before
+        profile.setRegion("eu-west-1");
+        assertSame(registry.getClient(new PreconfiguredProfileDetails("default", "eu-west-1")), registry.getClient(profile));
+        assertTrue(created.isEmpty());
+    }
+
+    @Test
+    public void testReleaseShutsDownAndClientIsRecreated() {
+        ProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        AmazonDynamoDB client = registry.getClient(profile);
+        client.listTables(new ListTablesRequest());
+        assertTrue(registry.isOpen(profile));
+
+        registry.release(profile);
+        assertFalse(registry.isOpen(profile));
+        assertTrue(created.get(0).shutdown);
+
+        client.listTables(new ListTablesRequest());
+        assertEquals(2, created.size());
+    }
+
+    @Test
+    public void testShutdownByHolderIsIgnored() {
+        ProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        registry.getClient(profile).listTables(new ListTablesRequest());
+        registry.getDocumentClient(profile).shutdown();
+        assertFalse(registry.isOpen(profile));
+        registry.getClient(profile).listTables(new ListTablesRequest());
+        assertTrue(registry.isOpen(profile));
+    }
+
+    @Test
+    public void testObjectMethodsDoNotCreateClient() {
+        ProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        AmazonDynamoDB client = registry.getClient(profile);
+        assertTrue(client.toString().contains("default"));
+        assertEquals(client.hashCode(), client.hashCode());
+        assertEquals(client, client);
+        assertNotEquals(client, registry.getClient(new PreconfiguredProfileDetails("default", "eu-west-1")));
+        assertNull(client.getCachedResponseMetadata(new ListTablesRequest()));
+        assertTrue(created.isEmpty());
+    }
+
+    @Test
+    public void testConfigurationIsKeptAcrossClients() {
+        ProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        AmazonDynamoDB client = registry.getClient(profile);
+        client.setEndpoint("http://localhost:8000");
+        assertTrue(created.isEmpty());
+
+        client.listTables(new ListTablesRequest());
+        assertEquals("http://localhost:8000", created.get(0).endpoint);
+
+        client.setEndpoint("http://localhost:8001");
+        assertEquals("http://localhost:8001", created.get(0).endpoint);
+
+        registry.release(profile);
+        client.listTables(new ListTablesRequest());
+        assertEquals("http://localhost:8001", created.get(1).endpoint);
+        assertSame(client.waiters(), client.waiters());
+    }
+
+    @Test
+    public void testIdleEviction() {
+        ProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        registry.getClient(profile).listTables(new ListTablesRequest());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(0, registry.evictIdle());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertEquals(1, registry.evictIdle());
+        assertFalse(registry.isOpen(profile));
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        ProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        registry.warmUp(profile, 2).get(5, TimeUnit.SECONDS);
+        assertTrue(registry.isOpen(profile));
+        assertEquals(1, created.size());
+        assertEquals(2, created.get(0).requests);
+    }
+
+    @Test
+    public void testConcurrencyIsLimitedPerProfile() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        DynamoDBClientRegistry registry = new DynamoDBClientRegistry(profile -> new AbstractAmazonDynamoDB() {
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return new ScanResult();
+            }
+        }, new SingleFlight<>(), Duration.ofSeconds(10), 2, RETRY, new HedgedReads(false, 0), new MetricsRegistry(), new CapacityLedger());
+
+        AmazonDynamoDB client = registry.getClient(new PreconfiguredProfileDetails("default", "us-east-1"));
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> client.scan(new ScanRequest("table" + i)), TaskExecutors.io("test")))
+                .toArray(CompletableFuture[]::new)
+        ).get(5, TimeUnit.SECONDS);
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void testThrottledRequestIsRetriedAndLimitIsDecreased() {
+        AtomicInteger attempts = new AtomicInteger();
+        MetricsRegistry metrics = new MetricsRegistry();
+        DynamoDBClientRegistry registry = new DynamoDBClientRegistry(profile -> new AbstractAmazonDynamoDB() {
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                if (attempts.incrementAndGet() <= 2) {
+                    throw error("ProvisionedThroughputExceededException", 400);
+                }
+                return new ScanResult().withCount(1);
+            }
+        }, new SingleFlight<>(), Duration.ofSeconds(10), 8, RETRY, new HedgedReads(false, 0), metrics, new CapacityLedger());
+        PreconfiguredProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+
+        assertEquals(1, (int) registry.getClient(profile).scan(new ScanRequest("table").withIndexName("index")).getCount());
+        assertEquals(3, attempts.get());
+        MetricsRegistry.Snapshot snapshot = metrics.snapshot().get(0);
+        assertEquals(new MetricsRegistry.Key("default", "scan", "table", "index"), snapshot.key());
+        assertEquals(3, snapshot.calls());
+        assertEquals(2, snapshot.throttles());
+        assertTrue(registry.getConcurrencyLimit(profile) < 8);
+        assertEquals(CircuitBreaker.State.CLOSED, registry.getCircuitState(profile));
+    }
+
+    @Test
+    public void testRetryBudgets() {
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicReference<AmazonServiceException> error = new AtomicReference<>();
+        DynamoDBClientRegistry registry = new DynamoDBClientRegistry(profile -> new AbstractAmazonDynamoDB() {
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                attempts.incrementAndGet();
+                throw error.get();
+            }
+        }, new SingleFlight<>(), Duration.ofSeconds(10), 2, RETRY, new HedgedReads(false, 0), new MetricsRegistry(), new CapacityLedger());
+        AmazonDynamoDB client = registry.getClient(new PreconfiguredProfileDetails("default", "us-east-1"));
+
+        error.set(error("ThrottlingException", 400));
+        assertThrows(AmazonServiceException.class, () -> client.scan(new ScanRequest("table")));
+        assertEquals(4, attempts.getAndSet(0));
+
+        error.set(error("InternalServerError", 500));
+        assertThrows(AmazonServiceException.class, () -> client.scan(new ScanRequest("table")));
+        assertEquals(3, attempts.getAndSet(0));
+
+        error.set(error("ValidationException", 400));
+        assertThrows(AmazonServiceException.class, () -> client.scan(new ScanRequest("table")));
+        assertEquals(1, attempts.getAndSet(0));
+    }
+
+    @Test
+    public void testFailingEndpointOpensCircuit() {
+        AtomicInteger attempts = new AtomicInteger();
+        DynamoDBClientRegistry registry = new DynamoDBClientRegistry(profile -> new AbstractAmazonDynamoDB() {
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                attempts.incrementAndGet();
+                throw error("ServiceUnavailable", 503);
+            }
+        }, new SingleFlight<>(), Duration.ofSeconds(10), 2, RETRY, new HedgedReads(false, 0), new MetricsRegistry(), new CapacityLedger());
+        PreconfiguredProfileDetails profile = new PreconfiguredProfileDetails("default", "us-east-1");
+        AmazonDynamoDB client = registry.getClient(profile);
+
+        // 3 attempts of each request, the fifth failure in a row opens the circuit
+        assertThrows(AmazonServiceException.class, () -> client.scan(new ScanRequest("table")));
+        assertEquals(CircuitBreaker.State.CLOSED, registry.getCircuitState(profile));
+        assertThrows(AmazonServiceException.class, () -> client.scan(new ScanRequest("table")));
+        assertEquals(5, attempts.get());
+        assertEquals(CircuitBreaker.State.OPEN, registry.getCircuitState(profile));
+
+        int sent = attempts.get();
+        assertThrows(CircuitOpenException.class, () -> client.scan(new ScanRequest("table")));
+        assertEquals(sent, attempts.get());
+    }
+
+    @Test
+    public void testItemsOf() {
+        assertEquals(2, DynamoDBClientRegistry.itemsOf(new ScanResult().withCount(2)));
+        assertEquals(1, DynamoDBClientRegistry.itemsOf(new GetItemResult().withItem(Map.of("id", new AttributeValue("1")))));
+        assertEquals(0, DynamoDBClientRegistry.itemsOf(new GetItemResult()));
+        assertEquals(3, DynamoDBClientRegistry.itemsOf(new BatchGetItemResult().withResponses(Map.of(
+                "a", List.of(Map.of(), Map.of()),
+                "b", List.of(Map.of())
+        ))));
+        assertEquals(0, DynamoDBClientRegistry.itemsOf(null));
+    }
+
+    @Test
+    public void testTableOf() {
+        assertEquals("t1", DynamoDBClientRegistry.tableOf(new Object[]{new ScanRequest("t1")}));
+        assertEquals("t2", DynamoDBClientRegistry.tableOf(new Object[]{"t2"}));
+        assertEquals("t3", DynamoDBClientRegistry.tableOf(new Object[]{new BatchWriteItemRequest(Map.of("t3", List.of()))}));
+        assertEquals("", DynamoDBClientRegistry.tableOf(new Object[]{new ListTablesRequest()}));
+        assertEquals("", DynamoDBClientRegistry.tableOf(null));
+    }
+
+    private static AmazonServiceException error(String code, int status) {
+        AmazonServiceException e = new AmazonServiceException(code);
+        e.setErrorCode(code);
+        e.setStatusCode(status);
+        return e;
+    }
+
+    private static class FakeClient extends AbstractAmazonDynamoDB {
+        private volatile boolean shutdown;
+        private volatile int requests;
+        private volatile String endpoint;
+
+        @Override
+        public void setEndpoint(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public synchronized ListTablesResult listTables(ListTablesRequest request) {
+            requests++;
+            return new ListTablesResult();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+    }
+}
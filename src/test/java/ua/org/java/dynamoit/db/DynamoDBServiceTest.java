@@ -0,0 +1,39 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.db;
+
+import org.junit.Test;
+import ua.org.java.dynamoit.model.profile.PreconfiguredProfileDetails;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class DynamoDBServiceTest {
+
+    @Test
+    public void testReleaseDropsAsyncClient() {
+        DynamoDBService service = new DynamoDBService();
+        PreconfiguredProfileDetails profile = new PreconfiguredProfileDetails("default", "eu-west-1");
+
+        AsyncDynamoDB asyncClient = service.getOrCreateAsyncClient(profile);
+        assertSame(asyncClient, service.getOrCreateAsyncClient(profile.clone()));
+
+        service.release(profile);
+        assertNotSame(asyncClient, service.getOrCreateAsyncClient(profile));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HedgedReadsTest {
+
+    private static final int WARM_UP = 20;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AmazonDynamoDB target = new AbstractAmazonDynamoDB() {
+        @Override
+        public GetItemResult getItem(GetItemRequest request) {
+            // the first read after warm up is slow, its hedge is fast
+            int call = calls.incrementAndGet();
+            sleep(call == WARM_UP + 1 ? 2000 : 1);
+            return new GetItemResult().withItem(Map.of("call", new AttributeValue().withN(String.valueOf(call))));
+        }
+    };
+
+    @Test
+    public void testSlowReadIsHedged() {
+        HedgedReads hedgedReads = new HedgedReads(true, 1);
+        AmazonDynamoDB client = hedgedReads.wrap(target, "test");
+        warmUp(client);
+
+        long start = System.currentTimeMillis();
+        GetItemResult result = client.getItem(new GetItemRequest("table", Map.of("id", new AttributeValue("1"))));
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(String.valueOf(WARM_UP + 2), result.getItem().get("call").getN());
+        assertEquals(1, hedgedReads.getHedges());
+        assertEquals(1, hedgedReads.getWins());
+        assertEquals(1.0, hedgedReads.getWinRate(), 0.001);
+    }
+
+    @Test
+    public void testNoHedgeWithoutBudget() {
+        HedgedReads hedgedReads = new HedgedReads(true, 0);
+        AmazonDynamoDB client = hedgedReads.wrap(target, "test");
+        warmUp(client);
+
+        GetItemResult result = client.getItem(new GetItemRequest("table", Map.of("id", new AttributeValue("1"))));
+        assertEquals(String.valueOf(WARM_UP + 1), result.getItem().get("call").getN());
+        assertEquals(0, hedgedReads.getHedges());
+        assertEquals(WARM_UP + 1, hedgedReads.getReads());
+    }
+
+    @Test
+    public void testDisabled() {
+        assertSame(target, new HedgedReads(false, 1).wrap(target, "test"));
+    }
+
+    private static void warmUp(AmazonDynamoDB client) {
+        for (int i = 0; i < WARM_UP; i++) {
+            client.getItem(new GetItemRequest("table", Map.of("id", new AttributeValue("1"))));
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
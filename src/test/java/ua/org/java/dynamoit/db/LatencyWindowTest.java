@@ -0,0 +1,47 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import org.junit.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyWindowTest {
+
+    @Test
+    public void testPercentile() {
+        LatencyWindow window = new LatencyWindow(100, 10);
+        for (int i = 1; i <= 9; i++) {
+            window.record(i);
+        }
+        assertEquals(OptionalLong.empty(), window.percentile(0.95));
+
+        for (int i = 10; i <= 100; i++) {
+            window.record(i);
+        }
+        assertEquals(OptionalLong.of(95), window.percentile(0.95));
+        assertEquals(OptionalLong.of(50), window.percentile(0.5));
+
+        // the oldest samples are replaced
+        for (int i = 0; i < 100; i++) {
+            window.record(1000);
+        }
+        assertEquals(OptionalLong.of(1000), window.percentile(0.5));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testRecord() {
+        MetricsRegistry registry = new MetricsRegistry();
+        MetricsRegistry.Key query = new MetricsRegistry.Key("default", "query", "Table", "Index");
+        MetricsRegistry.Key write = new MetricsRegistry.Key("default", "batchWriteItem", "Table", "");
+
+        registry.record(query, TimeUnit.MILLISECONDS.toNanos(10), MetricsRegistry.Outcome.SUCCESS,
+                new QueryResult().withConsumedCapacity(new ConsumedCapacity().withCapacityUnits(2.5)));
+        registry.record(query, TimeUnit.MILLISECONDS.toNanos(30), MetricsRegistry.Outcome.THROTTLED, null);
+        registry.record(query, TimeUnit.MILLISECONDS.toNanos(20), MetricsRegistry.Outcome.ERROR, null);
+        registry.record(write, TimeUnit.MILLISECONDS.toNanos(5), MetricsRegistry.Outcome.SUCCESS,
+                new BatchWriteItemResult().withConsumedCapacity(
+                        new ConsumedCapacity().withCapacityUnits(1.0),
+                        new ConsumedCapacity().withCapacityUnits(2.0)
+                ));
+
+        List<MetricsRegistry.Snapshot> snapshots = registry.snapshot();
+        assertEquals(2, snapshots.size());
+
+        MetricsRegistry.Snapshot writeSnapshot = snapshots.get(0);
+        assertEquals(write, writeSnapshot.key());
+        assertEquals(1, writeSnapshot.calls());
+        assertEquals(3.0, writeSnapshot.writeCapacity(), 0);
+        assertEquals(0, writeSnapshot.readCapacity(), 0);
+
+        MetricsRegistry.Snapshot querySnapshot = snapshots.get(1);
+        assertEquals(query, querySnapshot.key());
+        assertEquals(3, querySnapshot.calls());
+        assertEquals(1, querySnapshot.errors());
+        assertEquals(1, querySnapshot.throttles());
+        assertEquals(2.5, querySnapshot.readCapacity(), 0);
+        assertEquals(30_000, querySnapshot.maxMicros());
+        assertEquals(20_000, querySnapshot.p50Micros(), 20_000 / 16.0);
+
+        registry.reset();
+        assertEquals(List.of(), registry.snapshot());
+    }
+
+    @Test
+    public void testToJson() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.record(new MetricsRegistry.Key("default", "getItem", "Table", ""), TimeUnit.MILLISECONDS.toNanos(4), MetricsRegistry.Outcome.SUCCESS, null);
+
+        JsonNode json = new ObjectMapper().readTree(registry.toJson());
+        assertEquals(1, json.size());
+        assertEquals("getItem", json.get(0).get("operation").asText());
+        assertEquals(1, json.get(0).get("calls").asLong());
+        assertEquals(4000, json.get(0).get("latencyMicros").get("max").asLong());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AbortedException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class RequestSchedulerTest {
+
+    @Test
+    public void testFreePermitIsGrantedAtOnce() {
+        RequestScheduler scheduler = new RequestScheduler(2, 0);
+        scheduler.acquire(RequestPriority.BULK, "t");
+        scheduler.acquire(RequestPriority.INTERACTIVE, "t");
+        assertEquals(0, scheduler.getWaiting());
+        scheduler.release(RequestPriority.BULK);
+        scheduler.release(RequestPriority.INTERACTIVE);
+    }
+
+    @Test
+    public void testClassesShareByWeight() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        scheduler.acquire(RequestPriority.INTERACTIVE, "t");
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(waiter(scheduler, RequestPriority.BULK, "t", order));
+            threads.add(waiter(scheduler, RequestPriority.INTERACTIVE, "t", order));
+        }
+        awaitWaiting(scheduler, 16);
+        scheduler.release(RequestPriority.INTERACTIVE);
+        join(threads);
+
+        assertEquals(16, order.size());
+        assertEquals(8, order.subList(0, 9).stream().filter(name -> name.startsWith("INTERACTIVE")).count());
+    }
+
+    @Test
+    public void testTablesTakeTurns() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        scheduler.acquire(RequestPriority.BULK, "a");
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            threads.add(waiter(scheduler, RequestPriority.BULK, "a", order));
+            awaitWaiting(scheduler, i + 1);
+        }
+        threads.add(waiter(scheduler, RequestPriority.BULK, "b", order));
+        awaitWaiting(scheduler, 4);
+        scheduler.release(RequestPriority.BULK);
+        join(threads);
+
+        assertEquals(List.of("BULK:a", "BULK:b", "BULK:a", "BULK:a"), order);
+    }
+
+    @Test
+    public void testBulkLeavesReservedPermits() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(2, 1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        scheduler.acquire(RequestPriority.BULK, "t");
+
+        Thread bulk = waiter(scheduler, RequestPriority.BULK, "t", order);
+        awaitWaiting(scheduler, 1);
+        // the second permit is reserved for the foreground
+        scheduler.acquire(RequestPriority.INTERACTIVE, "t");
+        assertEquals(1, scheduler.getWaiting());
+        scheduler.release(RequestPriority.INTERACTIVE);
+        assertEquals(1, scheduler.getWaiting());
+
+        scheduler.release(RequestPriority.BULK);
+        join(List.of(bulk));
+        assertEquals(List.of("BULK:t"), order);
+    }
+
+    @Test
+    public void testInterruptedWaiterLeavesQueue() throws Exception {
+        RequestScheduler scheduler = new RequestScheduler(1, 0);
+        scheduler.acquire(RequestPriority.INTERACTIVE, "t");
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = Thread.ofVirtual().start(() -> {
+            try {
+                scheduler.acquire(RequestPriority.INTERACTIVE, "t");
+            } catch (Throwable e) {
+                error.set(e);
+            }
+        });
+        awaitWaiting(scheduler, 1);
+        thread.interrupt();
+        thread.join(5000);
+
+        assertTrue(error.get() instanceof AbortedException);
+        assertEquals(0, scheduler.getWaiting());
+        scheduler.release(RequestPriority.INTERACTIVE);
+        scheduler.acquire(RequestPriority.BULK, "t");
+    }
+
+    private static Thread waiter(RequestScheduler scheduler, RequestPriority priority, String table, List<String> order) {
+        return Thread.ofVirtual().start(() -> {
+            scheduler.acquire(priority, table);
+            order.add(priority + ":" + table);
+            scheduler.release(priority);
+        });
+    }
+
+    private static void awaitWaiting(RequestScheduler scheduler, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (scheduler.getWaiting() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, scheduler.getWaiting());
+    }
+
+    private static void join(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join(5000);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.SdkClientException;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static ua.org.java.dynamoit.db.RetryPolicy.ErrorKind.*;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void testDecorrelatedJitter() {
+        RetryPolicy policy = new RetryPolicy(10, 1000, 10, 3);
+        long delay = 0;
+        for (int i = 0; i < 100; i++) {
+            long next = policy.nextDelay(delay);
+            assertTrue(next >= 10);
+            assertTrue(next <= Math.max(10, Math.min(1000, delay * 3)));
+            delay = next;
+        }
+    }
+
+    @Test
+    public void testClassify() {
+        assertEquals(THROTTLING, RetryPolicy.classify(error("ProvisionedThroughputExceededException", 400)));
+        assertEquals(THROTTLING, RetryPolicy.classify(error("ThrottlingException", 400)));
+        assertEquals(TRANSIENT, RetryPolicy.classify(error("InternalServerError", 500)));
+        assertEquals(PERMANENT, RetryPolicy.classify(error("ValidationException", 400)));
+        assertEquals(TRANSIENT, RetryPolicy.classify(new SdkClientException("Unable to execute HTTP request", new IOException())));
+        assertEquals(PERMANENT, RetryPolicy.classify(new AbortedException()));
+    }
+
+    private static AmazonServiceException error(String code, int status) {
+        AmazonServiceException e = new AmazonServiceException(code);
+        e.setErrorCode(code);
+        e.setStatusCode(status);
+        return e;
+    }
+}
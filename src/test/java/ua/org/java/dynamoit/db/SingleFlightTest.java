@@ -0,0 +1,87 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsShareExecution() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return calls.incrementAndGet();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", calls::incrementAndGet));
+        while (singleFlight.getHits() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertEquals(1, (int) first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, (int) second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, singleFlight.getHits());
+        assertEquals(1, singleFlight.getMisses());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    public void testFinishedCallIsNotCached() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals(1, (int) singleFlight.execute("key", calls::incrementAndGet));
+        assertEquals(2, (int) singleFlight.execute("key", calls::incrementAndGet));
+        assertEquals(0, singleFlight.getHits());
+        assertEquals(2, singleFlight.getMisses());
+    }
+
+    @Test
+    public void testExceptionIsRethrown() {
+        SingleFlight<String> singleFlight = new SingleFlight<>();
+        try {
+            singleFlight.execute("key", () -> {
+                throw new IllegalArgumentException("failed");
+            });
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
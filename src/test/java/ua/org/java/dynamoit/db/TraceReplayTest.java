@@ -0,0 +1,146 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.db;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AbstractAmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.amazonaws.services.dynamodbv2.model.ScanRequest;
+import com.amazonaws.services.dynamodbv2.model.ScanResult;
+import org.junit.Test;
+import ua.org.java.dynamoit.model.profile.PreconfiguredProfileDetails;
+import ua.org.java.dynamoit.model.profile.ProfileDetails;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+public class TraceReplayTest {
+
+    private final PreconfiguredProfileDetails profile = new PreconfiguredProfileDetails("default", "eu-west-1");
+
+    @Test
+    public void testRecordAndReplay() throws Exception {
+        AmazonDynamoDB target = new AbstractAmazonDynamoDB() {
+            @Override
+            public ScanResult scan(ScanRequest request) {
+                return new ScanResult()
+                        .withItems(List.of(Map.of("id", new AttributeValue(String.valueOf(request.getLimit())))))
+                        .withCount(1);
+            }
+
+            @Override
+            public GetItemResult getItem(GetItemRequest request) {
+                AmazonServiceException exception = new AmazonServiceException("Rate exceeded");
+                exception.setErrorCode("ThrottlingException");
+                exception.setStatusCode(400);
+                throw exception;
+            }
+        };
+
+        Path file = Files.createTempFile("dynamoit", ".trace");
+        try {
+            try (TraceRecorder recorder = new TraceRecorder(file, true)) {
+                AmazonDynamoDB client = recorder.wrap(target, profile);
+                client.scan(new ScanRequest("Table").withLimit(10));
+                client.scan(new ScanRequest("Table").withLimit(20));
+                assertThrows(AmazonServiceException.class, () -> client.getItem(new GetItemRequest("Table", Map.of())));
+            }
+
+            TraceReplay replay = TraceReplay.load(file, false);
+            assertEquals(3, replay.getRecords().size());
+            assertEquals(List.of(profile), replay.getProfiles().toList());
+
+            AmazonDynamoDB client = replay.client(profile);
+            assertEquals("20", client.scan(new ScanRequest("Table").withLimit(20)).getItems().get(0).get("id").getS());
+            assertEquals("10", client.scan(new ScanRequest("Table").withLimit(10)).getItems().get(0).get("id").getS());
+            // unknown limit falls back to the records of the table
+            assertEquals(1, (int) client.scan(new ScanRequest("Table").withLimit(30)).getCount());
+
+            AmazonServiceException throttled = assertThrows(AmazonServiceException.class, () -> client.getItem(new GetItemRequest("Table", Map.of())));
+            assertEquals("ThrottlingException", throttled.getErrorCode());
+            assertEquals(400, throttled.getStatusCode());
+
+            AmazonServiceException missing = assertThrows(AmazonServiceException.class, () -> client.scan(new ScanRequest("Other")));
+            assertEquals("ResourceNotFoundException", missing.getErrorCode());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testTraceWithoutBodies() throws Exception {
+        TraceRecord record = new TraceRecord(0, "default", "", "scan", "Table", "[]", 1_000, null, null, null, 0, null);
+        ProfileDetails replayed = new TraceReplay(List.of(record), true).getProfiles().findFirst().orElseThrow();
+        AmazonDynamoDB client = new TraceReplay(List.of(record), true).client(replayed);
+
+        assertEquals(new ScanResult(), client.scan(new ScanRequest("Table")));
+    }
+
+    @Test
+    public void testErrorWithoutMessageIsReplayed() throws Exception {
+        AmazonDynamoDB target = new AbstractAmazonDynamoDB() {
+            @Override
+            public GetItemResult getItem(GetItemRequest request) {
+                AmazonServiceException exception = new AmazonServiceException(null);
+                exception.setErrorCode("InternalServerError");
+                exception.setStatusCode(500);
+                throw exception;
+            }
+        };
+
+        Path file = Files.createTempFile("dynamoit", ".trace");
+        try {
+            try (TraceRecorder recorder = new TraceRecorder(file, true)) {
+                AmazonDynamoDB client = recorder.wrap(target, profile);
+                assertThrows(AmazonServiceException.class, () -> client.getItem(new GetItemRequest("Table", Map.of())));
+            }
+
+            AmazonDynamoDB client = TraceReplay.load(file, false).client(profile);
+            AmazonServiceException failed = assertThrows(AmazonServiceException.class, () -> client.getItem(new GetItemRequest("Table", Map.of())));
+            assertEquals("InternalServerError", failed.getErrorCode());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testForeignClassesAreNotRead() throws Exception {
+        Path file = Files.createTempFile("dynamoit", ".trace");
+        try {
+            try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+                out.writeObject(new File("trace"));
+            }
+
+            IOException exception = assertThrows(IOException.class, () -> TraceReplay.load(file, false));
+            assertTrue(exception.getCause() instanceof InvalidClassException);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FlightRecordingTest {
+
+    @Test
+    public void testDump() throws Exception {
+        FlightRecording recording = new FlightRecording(Duration.ofHours(1));
+        assertFalse(recording.isRecording());
+        recording.start();
+        assertTrue(recording.isRecording());
+
+        DynamoDBRequestEvent request = new DynamoDBRequestEvent();
+        request.begin();
+        request.operation = "scan";
+        request.table = "Table";
+        request.items = 3;
+        request.commit();
+
+        // shorter than the threshold
+        FxTaskEvent task = new FxTaskEvent();
+        task.begin();
+        task.task = "fast";
+        task.commit();
+
+        Path file = Files.createTempFile("dynamoit", ".jfr");
+        try {
+            recording.dump(file);
+            recording.stop();
+            assertFalse(recording.isRecording());
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("ua.org.java.dynamoit."))
+                    .toList();
+            assertEquals(1, events.size());
+            assertEquals("ua.org.java.dynamoit.DynamoDBRequest", events.get(0).getEventType().getName());
+            assertEquals("scan", events.get(0).getString("operation"));
+            assertEquals(3, events.get(0).getInt("items"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testDumpWithoutRecording() throws Exception {
+        new FlightRecording().dump(Path.of("never.jfr"));
+    }
+}
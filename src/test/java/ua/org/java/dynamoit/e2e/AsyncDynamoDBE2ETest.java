@@ -0,0 +1,109 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package ua.org.java.dynamoit.e2e;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.*;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import ua.org.java.dynamoit.db.AsyncDynamoDB;
+import ua.org.java.dynamoit.db.DynamoDBService;
+import ua.org.java.dynamoit.e2e.containers.DynamoDbSingletonContainer;
+import ua.org.java.dynamoit.model.profile.LocalProfileDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk pipelines of the async access layer against DynamoDB Local, no UI is involved.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncDynamoDBE2ETest {
+
+    private static final String TABLE = "async_bulk";
+    private static final int ITEMS = 2000;
+
+    private AmazonDynamoDB client;
+    private AsyncDynamoDB async;
+
+    @BeforeAll
+    void setUp() {
+        System.setProperty("aws.dynamodb.endpoint", DynamoDbSingletonContainer.getEndpoint());
+        System.setProperty("aws.accessKeyId", "fake");
+        System.setProperty("aws.secretAccessKey", "fake");
+        System.setProperty("aws.region", "us-east-1");
+
+        DynamoDBService service = new DynamoDBService();
+        LocalProfileDetails profile = new LocalProfileDetails("e2e-async", DynamoDbSingletonContainer.getEndpoint());
+        client = service.getOrCreateDynamoDBClient(profile);
+        async = service.getOrCreateAsyncClient(profile);
+
+        client.createTable(new CreateTableRequest()
+                .withTableName(TABLE)
+                .withKeySchema(new KeySchemaElement("id", KeyType.HASH))
+                .withAttributeDefinitions(new AttributeDefinition("id", ScalarAttributeType.S))
+                .withBillingMode(BillingMode.PAY_PER_REQUEST));
+    }
+
+    @AfterAll
+    void tearDown() {
+        client.deleteTable(TABLE);
+        System.clearProperty("aws.dynamodb.endpoint");
+        System.clearProperty("aws.accessKeyId");
+        System.clearProperty("aws.secretAccessKey");
+        System.clearProperty("aws.region");
+    }
+
+    @Test
+    void shouldImportCountAndDeleteInBulk() throws Exception {
+        writeAll(IntStream.range(0, ITEMS)
+                .mapToObj(i -> new WriteRequest(new PutRequest(Map.of(
+                        "id", new AttributeValue("item-" + i),
+                        "even", new AttributeValue().withBOOL(i % 2 == 0)
+                ))))
+                .toList());
+
+        assertThat(async.count(new ScanRequest(TABLE), 4).get(1, TimeUnit.MINUTES)).isEqualTo(ITEMS);
+        assertThat(async.count(new ScanRequest(TABLE)
+                .withFilterExpression("even = :even")
+                .withExpressionAttributeValues(Map.of(":even", new AttributeValue().withBOOL(true))), 4).get(1, TimeUnit.MINUTES)).isEqualTo(ITEMS / 2);
+
+        writeAll(IntStream.range(0, ITEMS)
+                .mapToObj(i -> new WriteRequest(new DeleteRequest(Map.of("id", new AttributeValue("item-" + i)))))
+                .toList());
+
+        assertThat(async.count(new ScanRequest(TABLE), 4).get(1, TimeUnit.MINUTES)).isZero();
+        assertThat(async.getInFlight()).isZero();
+    }
+
+    private void writeAll(List<WriteRequest> requests) throws Exception {
+        List<CompletableFuture<Double>> batches = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i += AsyncDynamoDB.BATCH_WRITE_LIMIT) {
+            batches.add(async.batchWrite(TABLE, requests.subList(i, Math.min(requests.size(), i + AsyncDynamoDB.BATCH_WRITE_LIMIT))));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).get(1, TimeUnit.MINUTES);
+    }
+}
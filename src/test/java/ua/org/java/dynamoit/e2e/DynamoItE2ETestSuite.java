@@ -29,7 +29,8 @@ import org.junit.platform.suite.api.Suite;
 @Suite
 @SelectClasses({
     SmokeE2ETest.class,
-    SimpleCreationE2ETest.class
+    SimpleCreationE2ETest.class,
+    AsyncDynamoDBE2ETest.class
 })
 public class DynamoItE2ETestSuite {
     // This class is used only as a holder for the above annotations
@@ -0,0 +1,374 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.e2e;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.model.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import javafx.application.Platform;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ua.org.java.dynamoit.EventBus;
+import ua.org.java.dynamoit.components.main.MainModel;
+import ua.org.java.dynamoit.components.tablegrid.TableGridContext;
+import ua.org.java.dynamoit.components.tablegrid.TableGridController;
+import ua.org.java.dynamoit.components.tablegrid.TableGridModel;
+import ua.org.java.dynamoit.db.AsyncDynamoDB;
+import ua.org.java.dynamoit.db.DynamoDBService;
+import ua.org.java.dynamoit.db.MetricsRegistry;
+import ua.org.java.dynamoit.e2e.containers.DynamoDbSingletonContainer;
+import ua.org.java.dynamoit.jobs.Job;
+import ua.org.java.dynamoit.model.profile.LocalProfileDetails;
+import ua.org.java.dynamoit.utils.FXExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of the bulk operations of the table grid against DynamoDB Local. The controller is driven without
+ * the views, the same way the views call it.
+ * <p>
+ * A table is seeded and scanned page by page into the grid, then exported to a file. The file is imported into an
+ * empty table whose items are patched and deleted. Every operation reports items per second, p99 latency of its
+ * DynamoDB requests and peak heap, printed and written as json to {@code benchmark.result}
+ * (target/e2e-benchmark.json by default).
+ * <p>
+ * Runs only with -De2e.benchmark=true, the table shape is set by {@code benchmark.items},
+ * {@code benchmark.attributes} and {@code benchmark.itemBytes}.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "e2e.benchmark", matches = "true")
+class ThroughputBenchmarkE2ETest {
+
+    private static final String SOURCE_TABLE = "benchmark_source";
+    private static final String TARGET_TABLE = "benchmark_target";
+    private static final long TIMEOUT_MINUTES = 30;
+
+    private final int itemCount = Integer.getInteger("benchmark.items", 5000);
+    private final int attributeCount = Integer.getInteger("benchmark.attributes", 8);
+    private final int itemBytes = Integer.getInteger("benchmark.itemBytes", 1024);
+
+    private final List<ObjectNode> results = new ArrayList<>();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final RecordingEventBus eventBus = new RecordingEventBus();
+    private final Map<TableGridController, TableGridModel> models = new HashMap<>();
+    private DynamoDBService service;
+    private LocalProfileDetails profile;
+    private AmazonDynamoDB client;
+    private AsyncDynamoDB async;
+    private Path exportFile;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        System.setProperty("aws.dynamodb.endpoint", DynamoDbSingletonContainer.getEndpoint());
+        System.setProperty("aws.accessKeyId", "fake");
+        System.setProperty("aws.secretAccessKey", "fake");
+        System.setProperty("aws.region", "us-east-1");
+        try {
+            Platform.startup(() -> {
+            });
+        } catch (IllegalStateException e) {
+            // already started by another test
+        }
+        Platform.setImplicitExit(false);
+
+        service = new DynamoDBService();
+        profile = new LocalProfileDetails("e2e-benchmark", DynamoDbSingletonContainer.getEndpoint());
+        client = service.getOrCreateDynamoDBClient(profile);
+        async = service.getOrCreateAsyncClient(profile);
+        exportFile = Files.createTempFile("dynamoit-benchmark", ".json");
+
+        createTable(SOURCE_TABLE);
+        createTable(TARGET_TABLE);
+        List<WriteRequest> requests = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            requests.add(new WriteRequest(new PutRequest(seedItem(i))));
+        }
+        List<CompletableFuture<Double>> batches = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i += AsyncDynamoDB.BATCH_WRITE_LIMIT) {
+            batches.add(async.batchWrite(SOURCE_TABLE, requests.subList(i, Math.min(requests.size(), i + AsyncDynamoDB.BATCH_WRITE_LIMIT))));
+        }
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).get(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+
+    @AfterAll
+    void tearDown() throws Exception {
+        ObjectNode report = mapper.createObjectNode();
+        report.put("label", System.getProperty("benchmark.label", "dev"));
+        report.put("items", itemCount);
+        report.put("attributes", attributeCount);
+        report.put("itemBytes", itemBytes);
+        report.putArray("operations").addAll(results);
+        Path result = Path.of(System.getProperty("benchmark.result", "target/e2e-benchmark.json"));
+        Files.createDirectories(result.toAbsolutePath().getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(result.toFile(), report);
+        System.out.println("Benchmark results are written to " + result.toAbsolutePath());
+
+        client.deleteTable(SOURCE_TABLE);
+        client.deleteTable(TARGET_TABLE);
+        Files.deleteIfExists(exportFile);
+        System.clearProperty("aws.dynamodb.endpoint");
+        System.clearProperty("aws.accessKeyId");
+        System.clearProperty("aws.secretAccessKey");
+        System.clearProperty("aws.region");
+    }
+
+    @Test
+    void shouldMeasureBulkOperations() throws Exception {
+        TableGridController source = openTable(SOURCE_TABLE);
+
+        ObjectNode scan = measure("scan", SOURCE_TABLE, "scan", () -> scanAll(source));
+        assertThat(scan.get("items").asLong()).isEqualTo(itemCount);
+
+        ObjectNode export = measure("export", SOURCE_TABLE, "scan", () -> runJob(() -> source.onSaveToFile(exportFile.toFile())));
+        assertThat(export.get("items").asLong()).isEqualTo(itemCount);
+
+        List<Item> items = new ArrayList<>(itemCount);
+        for (JsonNode node : mapper.readTree(exportFile.toFile())) {
+            items.add(Item.fromJSON(node.toString()));
+        }
+        TableGridController target = openTable(TARGET_TABLE);
+
+        measure("import", TARGET_TABLE, "batchWriteItem", () -> runJob(() -> target.onLoadFromFile(exportFile.toFile())));
+        assertThat(count(TARGET_TABLE)).isEqualTo(itemCount);
+
+        measure("patch", TARGET_TABLE, "updateItem", () -> runJob(() -> target.onPatchItems(items, "{\"patched\": true}", false)));
+        assertThat(count(TARGET_TABLE, "patched = :patched", Map.of(":patched", new AttributeValue().withBOOL(true)))).isEqualTo(itemCount);
+
+        measure("delete", TARGET_TABLE, "batchWriteItem", () -> runJob(() -> target.onDeleteItems(items)));
+        assertThat(count(TARGET_TABLE)).isZero();
+    }
+
+    /**
+     * Run the operation and record its throughput
+     *
+     * @param table     table whose requests are measured
+     * @param operation DynamoDB operation whose p99 latency is reported
+     * @param run       returns the number of processed items
+     */
+    private ObjectNode measure(String name, String table, String operation, Callable<Long> run) throws Exception {
+        waitForIdle();
+        System.gc();
+        service.getMetrics().reset();
+        HeapSampler heap = new HeapSampler();
+
+        long start = System.nanoTime();
+        long items = run.call();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long peakHeap = heap.stop();
+        waitForIdle();
+
+        MetricsRegistry.Snapshot requests = service.getMetrics().snapshot().stream()
+                .filter(snapshot -> table.equals(snapshot.key().table()) && operation.equals(snapshot.key().operation()))
+                .max(Comparator.comparingLong(MetricsRegistry.Snapshot::calls))
+                .orElse(null);
+
+        ObjectNode result = mapper.createObjectNode();
+        result.put("operation", name);
+        result.put("items", items);
+        result.put("seconds", seconds);
+        result.put("itemsPerSecond", seconds > 0 ? items / seconds : 0);
+        result.put("requests", requests != null ? requests.calls() : 0);
+        result.put("p99RequestMicros", requests != null ? requests.p99Micros() : 0);
+        result.put("peakHeapBytes", peakHeap);
+        results.add(result);
+        System.out.printf("%-8s %,10d items %,12.1f items/s  p99 %,10d us (%s)  peak heap %,8d KB%n",
+                name, items, result.get("itemsPerSecond").asDouble(), result.get("p99RequestMicros").asLong(), operation, peakHeap / 1024);
+        return result;
+    }
+
+    private TableGridController openTable(String tableName) throws Exception {
+        MainModel.ProfileModel profileModel = new MainModel.ProfileModel(profile);
+        TableGridModel model = new TableGridModel(profileModel);
+        TableGridController controller = new TableGridController(
+                new TableGridContext(profile, tableName, null, null),
+                model,
+                service,
+                eventBus,
+                FXExecutor.getInstance(),
+                null
+        );
+        onUi(() -> {
+            controller.init();
+            return null;
+        });
+        waitUntil(() -> model.getOriginalTableDescription() != null && !model.getScanProgress().isRunning());
+        models.put(controller, model);
+        return controller;
+    }
+
+    /**
+     * Load the first page and then the following ones as the grid does on scrolling to the end
+     */
+    private long scanAll(TableGridController controller) throws Exception {
+        TableGridModel model = models.get(controller);
+        onUi(controller::onRefreshData).get(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        waitUntil(() -> {
+            if (model.getScanProgress().isRunning()) {
+                return false;
+            }
+            if (model.getPageNavigator().isLastPageReached()) {
+                return true;
+            }
+            controller.onReachScrollEnd();
+            return false;
+        });
+        return onUi(() -> (long) model.getRows().size());
+    }
+
+    /**
+     * Start the job on the ui thread and wait for its end
+     *
+     * @return number of items done by the job
+     */
+    private long runJob(Runnable start) throws Exception {
+        int jobs = eventBus.started.size();
+        onUi(() -> {
+            start.run();
+            return null;
+        });
+        assertThat(eventBus.started).hasSize(jobs + 1);
+        eventBus.futures.get(jobs).get(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+        return eventBus.started.get(jobs).getDone();
+    }
+
+    private long count(String table) throws Exception {
+        return async.count(new ScanRequest(table), 4).get(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private long count(String table, String filter, Map<String, AttributeValue> values) throws Exception {
+        return async.count(new ScanRequest(table).withFilterExpression(filter).withExpressionAttributeValues(values), 4)
+                .get(TIMEOUT_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private Map<String, AttributeValue> seedItem(int i) {
+        Map<String, AttributeValue> item = new HashMap<>();
+        item.put("id", new AttributeValue(String.format("item-%08d", i)));
+        int textBytes = Math.max(0, itemBytes - 32) / Math.max(1, (attributeCount + 2) / 3);
+        for (int a = 0; a < attributeCount; a++) {
+            String name = "attr" + a;
+            switch (a % 3) {
+                case 0 -> item.put(name, new AttributeValue(("v" + i + "-" + a + " ").repeat(textBytes / 8 + 1).substring(0, Math.max(1, textBytes))));
+                case 1 -> item.put(name, new AttributeValue().withN(String.valueOf(i * 31L + a)));
+                default -> item.put(name, new AttributeValue().withBOOL((i + a) % 2 == 0));
+            }
+        }
+        return item;
+    }
+
+    private void createTable(String table) {
+        client.createTable(new CreateTableRequest()
+                .withTableName(table)
+                .withKeySchema(new KeySchemaElement("id", KeyType.HASH))
+                .withAttributeDefinitions(new AttributeDefinition("id", ScalarAttributeType.S))
+                .withBillingMode(BillingMode.PAY_PER_REQUEST));
+    }
+
+    /**
+     * Wait for the activities started by the finished jobs, e.g. the refresh after an import
+     */
+    private void waitForIdle() throws Exception {
+        int[] idleChecks = {0};
+        waitUntil(() -> {
+            idleChecks[0] = eventBus.activityCountProperty().get() == 0 ? idleChecks[0] + 1 : 0;
+            return idleChecks[0] >= 5;
+        });
+    }
+
+    /**
+     * Check the condition on the ui thread until it is true
+     */
+    private void waitUntil(Supplier<Boolean> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(TIMEOUT_MINUTES);
+        while (!onUi(condition::get)) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("The grid has not finished in " + TIMEOUT_MINUTES + " minutes");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static <T> T onUi(Callable<T> callable) throws Exception {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return callable.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, FXExecutor.getInstance()).get(1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Keeps the jobs started by the controller with their futures
+     */
+    private static class RecordingEventBus extends EventBus {
+
+        private final List<Job> started = new CopyOnWriteArrayList<>();
+        private final List<CompletableFuture<?>> futures = new CopyOnWriteArrayList<>();
+
+        private RecordingEventBus() {
+            super(FXExecutor.getInstance());
+        }
+
+        @Override
+        public <T> CompletableFuture<T> job(String name, Function<Job, CompletableFuture<T>> work, String errorMessage, String errorDescription) {
+            CompletableFuture<T> future = super.job(name, job -> {
+                started.add(job);
+                return work.apply(job);
+            }, errorMessage, errorDescription);
+            futures.add(future);
+            return future;
+        }
+    }
+
+    /**
+     * Samples the used heap every 10 ms
+     */
+    private static class HeapSampler {
+
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "heap-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private volatile long peak;
+
+        private HeapSampler() {
+            executor.scheduleAtFixedRate(this::sample, 0, 10, TimeUnit.MILLISECONDS);
+        }
+
+        private void sample() {
+            peak = Math.max(peak, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+
+        private long stop() {
+            executor.shutdownNow();
+            sample();
+            return peak;
+        }
+    }
+}
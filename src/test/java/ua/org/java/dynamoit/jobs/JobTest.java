@@ -0,0 +1,114 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.jobs;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class JobTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final Job job = new Job("export", now::get);
+
+    @Test
+    public void testThroughputAndEta() {
+        job.setTotal(1000);
+        job.addDone(100);
+        now.set(TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(50, job.getThroughput(), 0.001);
+        assertEquals(Optional.of(Duration.ofSeconds(18)), job.getEta());
+        assertEquals(0.1, job.getProgress(), 0.001);
+    }
+
+    @Test
+    public void testUnknownTotal() {
+        job.addDone(10);
+        now.set(TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(Optional.empty(), job.getEta());
+        assertTrue(job.getProgress() < 0);
+        assertEquals("10 items | 10 items/s | 0.0 capacity units", job.getStatusText());
+    }
+
+    @Test
+    public void testPausedTimeIsNotCounted() {
+        job.addDone(100);
+        now.set(TimeUnit.SECONDS.toNanos(1));
+        job.pause();
+        now.set(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(100, job.getThroughput(), 0.001);
+
+        job.resume();
+        now.set(TimeUnit.SECONDS.toNanos(11));
+        assertEquals(50, job.getThroughput(), 0.001);
+    }
+
+    @Test
+    public void testCheckpointWaitsWhilePaused() throws Exception {
+        job.pause();
+        CompletableFuture<Void> step = CompletableFuture.runAsync(job::checkpoint);
+        Thread.sleep(50);
+        assertFalse(step.isDone());
+
+        job.resume();
+        step.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testCancelReleasesPausedWork() throws Exception {
+        AtomicBoolean listener = new AtomicBoolean();
+        job.onCancel(() -> listener.set(true));
+        job.pause();
+        CompletableFuture<Void> step = CompletableFuture.runAsync(job::checkpoint);
+        Thread.sleep(50);
+
+        job.cancel();
+        try {
+            step.get(5, TimeUnit.SECONDS);
+            fail();
+        } catch (Exception e) {
+            assertTrue(e.getCause() instanceof CancellationException);
+        }
+        assertTrue(listener.get());
+        assertEquals(Job.State.CANCELLED, job.getState());
+
+        job.finish(null);
+        assertEquals(Job.State.CANCELLED, job.getState());
+    }
+
+    @Test
+    public void testFinish() {
+        job.finish(null);
+        assertEquals(Job.State.COMPLETED, job.getState());
+        assertEquals(1, job.getProgress(), 0.001);
+        job.checkpoint();
+
+        Job failed = new Job("import", now::get);
+        failed.finish(new IllegalStateException());
+        assertEquals(Job.State.FAILED, failed.getState());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.utils;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.Assert.*;
+
+public class AsyncLogHandlerTest {
+
+    @Test
+    public void testPublishOnWorkerWithCallerThreadName() {
+        RecordingHandler target = new RecordingHandler(null);
+        AsyncLogHandler handler = new AsyncLogHandler(16, List.of(target));
+        handler.publish(new LogRecord(Level.INFO, "first"));
+        handler.publish(new LogRecord(Level.INFO, "second"));
+        handler.close();
+
+        assertEquals(List.of("first", "second"), target.messages);
+        assertEquals(List.of(Thread.currentThread().getName(), Thread.currentThread().getName()), target.threadNames);
+        assertTrue(target.closed);
+    }
+
+    @Test
+    public void testParametersAreFormattedWhenLogged() {
+        RecordingHandler target = new RecordingHandler(null);
+        AsyncLogHandler handler = new AsyncLogHandler(16, List.of(target));
+        StringBuilder spec = new StringBuilder("first");
+        LogRecord record = new LogRecord(Level.INFO, "Scan {0}");
+        record.setParameters(new Object[]{spec});
+        handler.publish(record);
+        spec.replace(0, spec.length(), "changed");
+        handler.close();
+
+        assertEquals(List.of("Scan first"), target.messages);
+    }
+
+    @Test
+    public void testDropWhenFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingHandler target = new RecordingHandler(release);
+        AsyncLogHandler handler = new AsyncLogHandler(2, List.of(target));
+        handler.publish(new LogRecord(Level.INFO, "blocking"));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++) {
+            handler.publish(new LogRecord(Level.INFO, "record " + i));
+        }
+        assertEquals(3, handler.getDropped());
+
+        release.countDown();
+        handler.close();
+        assertEquals(List.of("blocking", "3 log records have been dropped, the log buffer is full", "record 0", "record 1"), target.messages);
+    }
+
+    @Test
+    public void testSkipRecordsBelowLevel() {
+        RecordingHandler target = new RecordingHandler(null);
+        AsyncLogHandler handler = new AsyncLogHandler(16, List.of(target));
+        handler.setLevel(Level.INFO);
+        handler.publish(new LogRecord(Level.FINE, "fine"));
+        handler.close();
+
+        assertTrue(target.messages.isEmpty());
+    }
+
+    private static class RecordingHandler extends Handler {
+
+        private final CountDownLatch release;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+        private final List<String> threadNames = new CopyOnWriteArrayList<>();
+        private volatile boolean closed;
+
+        private RecordingHandler(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void publish(LogRecord record) {
+            messages.add(record.getMessage());
+            threadNames.add(AsyncLogHandler.threadName());
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
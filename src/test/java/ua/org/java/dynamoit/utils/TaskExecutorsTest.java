@@ -0,0 +1,45 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TaskExecutorsTest {
+
+    @Test
+    public void testIoTaskRunsOnNamedVirtualThread() throws Exception {
+        Thread thread = CompletableFuture.supplyAsync(Thread::currentThread, TaskExecutors.io("profile/table/scan")).get(5, TimeUnit.SECONDS);
+        assertTrue(thread.isVirtual());
+        assertTrue(thread.getName(), thread.getName().startsWith("io:profile/table/scan#"));
+    }
+
+    @Test
+    public void testCpuTaskIsNamedWhileRunning() throws Exception {
+        Thread[] thread = new Thread[1];
+        String name = CompletableFuture.supplyAsync(() -> {
+            thread[0] = Thread.currentThread();
+            return thread[0].getName();
+        }, TaskExecutors.cpu("compare")).get(5, TimeUnit.SECONDS);
+        assertEquals("cpu:compare", name);
+        assertFalse(thread[0].isVirtual());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of DynamoIt.
+ *
+ *     DynamoIt is free software: you can redistribute it and/or modify
+ *     it under the terms of the GNU General Public License as published by
+ *     the Free Software Foundation, either version 3 of the License, or
+ *     (at your option) any later version.
+ *
+ *     DynamoIt is distributed in the hope that it will be useful,
+ *     but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *     MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *     GNU General Public License for more details.
+ *
+ *     You should have received a copy of the GNU General Public License
+ *     along with DynamoIt.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package ua.org.java.dynamoit.utils;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.Assert.*;
+
+public class ThreadNameSimpleFormatterTest {
+
+    private static final String DEFAULT_FORMAT = "[%1$tF %1$tT] [%4$-7s] [%7$s] %5$s %n";
+
+    @Test
+    public void testParsedFormatMatchesStringFormat() {
+        LogRecord record = record();
+        String threadName = Thread.currentThread().getName();
+        for (String format : new String[]{DEFAULT_FORMAT, "%1$tY-%1$tm-%1$td %1$tH:%1$tM:%1$tS.%1$tL %3$s %4$7s: %5$s%6$s%n", "%4$.3s %<s %%%n", "%1$tB %5$s"}) {
+            ThreadNameSimpleFormatter formatter = new ThreadNameSimpleFormatter();
+            formatter.setFormat(format);
+            String expected = String.format(format, record.getInstant().atZone(ZoneId.systemDefault()), "", "logger", "INFO", "message 42", "", threadName);
+            assertEquals(format, expected, formatter.format(record));
+        }
+    }
+
+    @Test
+    public void testJsonLines() {
+        LogRecord record = record();
+        record.setMessage("say \"hi\"\n\t{0}");
+        String line = new JsonLinesFormatter().format(record);
+
+        assertEquals("{\"time\":\"2024-03-01T10:15:30.123Z\",\"level\":\"INFO\",\"logger\":\"logger\",\"thread\":\"" + Thread.currentThread().getName()
+                + "\",\"message\":\"say \\\"hi\\\"\\n\\t42\"}" + System.lineSeparator(), line);
+    }
+
+    private static LogRecord record() {
+        LogRecord record = new LogRecord(Level.INFO, "message {0}");
+        record.setParameters(new Object[]{42});
+        record.setLoggerName("logger");
+        record.setInstant(Instant.parse("2024-03-01T10:15:30.123Z"));
+        record.setSourceClassName(null);
+        record.setSourceMethodName(null);
+        return record;
+    }
+}
@@ -17,15 +17,25 @@
 
 package ua.org.java.dynamoit.utils;
 
+import com.amazonaws.services.dynamodbv2.document.Item;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static ua.org.java.dynamoit.utils.Utils.convertJsonDocument;
 
 public class UtilsTest {
 
+    @Test
+    public void testPrimaryKey() {
+        Item item = new Item().withString("id", "a").withNumber("sort", 1).withString("name", "value");
+        assertEquals(Map.of("id", new AttributeValue("a"), "sort", new AttributeValue().withN("1")), Utils.primaryKey(item, "id", "sort"));
+        assertEquals(Map.of("id", new AttributeValue("a")), Utils.primaryKey(item, "id", null));
+    }
+
     @Test
     public void skipSequences() {
         List<Integer> result = Utils.skipSequences(List.of(2, 5, 6, 7, 10, 11, 12, 15, 16));